@@ -0,0 +1,119 @@
+package io.arsha.api.benchmarks;
+
+import io.arsha.api.cache.CacheManager;
+import io.arsha.api.cache.Payload;
+import io.arsha.api.cache.V1Composite;
+import io.arsha.api.cache.V2Composite;
+import io.arsha.api.common.AppConfig;
+import io.arsha.api.market.Marketplace;
+import io.arsha.api.market.enums.MarketEndpoint;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cache2k.Cache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serves cache hits from the V1 and V2 caches created by <code>CacheManager</code>.
+ *
+ * <p>The raw cache2k <code>get</code> and <code>peek</code> are compared with
+ * <code>fetchV1</code> and <code>fetchV2</code>, which handlers call and which also
+ * count the request for the refresh scheduler. Keys are built per lookup like a
+ * request does. <code>size</code> is the amount of cached entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheHitBenchmark {
+  private static final String REGION = "na";
+  private static final MarketEndpoint ENDPOINT = MarketEndpoint.GetWorldMarketSubList;
+
+  @Param({"1000", "40000"})
+  private int size;
+
+  private Vertx vertx;
+  private Cache<V1Composite, Future<Buffer>> v1Cache;
+  private Cache<V2Composite, Future<Payload>> v2Cache;
+  private int next = 0;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+    JsonObject config = new JsonObject()
+        .put("util", new JsonObject().put("regions", new JsonObject().put(REGION, "localhost")))
+        .put("cache", new JsonObject()
+            .put("v1Expiry", 30).put("v2Expiry", 30).put("dbExpiry", 30).put("fullDBExpiry", 5)
+            .put("snapshot", "target/no-snapshot.bin")
+            .put("refresh", new JsonObject().put("interval", 3600)));
+    AppConfig conf = new AppConfig(config.encode());
+    Marketplace.init(vertx, conf).compose(market -> CacheManager.init(vertx, conf))
+        .toCompletionStage().toCompletableFuture().get(30, TimeUnit.SECONDS);
+
+    v1Cache = CacheManager.getV1Cache(REGION);
+    v2Cache = CacheManager.getV2Cache(REGION);
+    JsonObject market = new JsonObject().put("resultCode", 0)
+        .put("resultMsg", "11607-0-0-150000-12-3350-150000-180000-166000-1625079182|");
+    Buffer response = market.toBuffer();
+    Payload payload = Payload.of(market);
+    for (int i = 0; i < size; i++) {
+      v1Cache.put(new V1Composite(10000L + i, 0L, REGION, ENDPOINT), Future.succeededFuture(response));
+      v2Cache.put(new V2Composite(10000L + i, 0L, REGION, ENDPOINT, "en"), Future.succeededFuture(payload));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    v1Cache.clear();
+    v2Cache.clear();
+    vertx.close();
+  }
+
+  private long nextId() {
+    next = next + 1 == size ? 0 : next + 1;
+    return 10000L + next;
+  }
+
+  @Benchmark
+  public Future<Buffer> v1Get() {
+    return v1Cache.get(new V1Composite(nextId(), 0L, REGION, ENDPOINT));
+  }
+
+  @Benchmark
+  public Future<Buffer> v1Peek() {
+    return v1Cache.peek(new V1Composite(nextId(), 0L, REGION, ENDPOINT));
+  }
+
+  @Benchmark
+  public Future<Buffer> v1Fetch() {
+    return CacheManager.fetchV1(new V1Composite(nextId(), 0L, REGION, ENDPOINT));
+  }
+
+  @Benchmark
+  public Future<Payload> v2Get() {
+    return v2Cache.get(new V2Composite(nextId(), 0L, REGION, ENDPOINT, "en"));
+  }
+
+  @Benchmark
+  public Future<Payload> v2Fetch() {
+    return CacheManager.fetchV2(new V2Composite(nextId(), 0L, REGION, ENDPOINT, "en"));
+  }
+}
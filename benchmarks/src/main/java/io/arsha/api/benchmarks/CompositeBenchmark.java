@@ -0,0 +1,93 @@
+package io.arsha.api.benchmarks;
+
+import io.arsha.api.cache.UtilComposite;
+import io.arsha.api.cache.V2Composite;
+import io.arsha.api.market.enums.MarketEndpoint;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds, hashes and compares the cache keys of V2 and util requests.
+ *
+ * <p><code>ids</code> is the amount of item ids in a util query and the length in
+ * ids of a search term. <code>V2Composite</code> hashes once on construction,
+ * <code>UtilComposite</code> hashes its query on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompositeBenchmark {
+  @Param({"1", "20", "200"})
+  private int ids;
+
+  private String term;
+  private JsonObject query;
+  private UtilComposite utilKey;
+  private UtilComposite utilOther;
+  private V2Composite v2Key;
+  private V2Composite v2Other;
+  private long next = 0;
+
+  @Setup
+  public void setup() {
+    StringBuilder search = new StringBuilder();
+    JsonArray in = new JsonArray();
+    for (int i = 0; i < ids; i++) {
+      if (i > 0) {
+        search.append(',');
+      }
+      search.append(10000 + i);
+      in.add(10000L + i);
+    }
+    term = search.toString();
+    query = new JsonObject().put("id", new JsonObject().put("$in", in));
+
+    utilKey = new UtilComposite("en", query);
+    utilOther = new UtilComposite("en", query.copy());
+    v2Key = new V2Composite(10007L, 20L, "na", MarketEndpoint.GetWorldMarketSubList, "en");
+    v2Other = new V2Composite(10007L, 20L, "na", MarketEndpoint.GetWorldMarketSubList, "en");
+  }
+
+  @Benchmark
+  public int utilCompositeHash() {
+    return utilKey.hashCode();
+  }
+
+  @Benchmark
+  public boolean utilCompositeEquals() {
+    return utilKey.equals(utilOther);
+  }
+
+  @Benchmark
+  public int v2CompositeNew() {
+    next = next == 1000 ? 0 : next + 1;
+    return new V2Composite(10000L + next, 0L, "na", MarketEndpoint.GetWorldMarketSubList, "en").hashCode();
+  }
+
+  @Benchmark
+  public int v2CompositeSearch() {
+    return V2Composite.search(term, "na", "en").hashCode();
+  }
+
+  @Benchmark
+  public boolean v2CompositeEquals() {
+    return v2Key.equals(v2Other);
+  }
+}
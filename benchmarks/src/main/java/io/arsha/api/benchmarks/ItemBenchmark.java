@@ -0,0 +1,99 @@
+package io.arsha.api.benchmarks;
+
+import io.arsha.api.market.ResultTokenizer;
+import io.arsha.api.market.items.HotListItem;
+import io.arsha.api.market.items.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Builds <code>Item</code> and <code>HotListItem</code> from tokenized records and
+ * converts them with <code>toJson()</code>.
+ *
+ * <p>Construction includes tokenizing the <code>resultMsg</code>, as the loaders do.
+ * <code>JsonWriterBenchmark</code> covers encoding whole responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemBenchmark {
+  private static final String HOT_RECORD = "%d-0-0-%d-1524-98210-1-2500-%d-%d-%d-1625079182";
+  private static final String SUB_RECORD = "11607-%d-%d-%d-12-3350-150000-180000-166000-1625079182";
+
+  @Param({"10", "100", "500"})
+  private int records;
+
+  private String hotMessage;
+  private String subMessage;
+  private final ResultTokenizer tokens = new ResultTokenizer();
+  private final List<HotListItem> hotList = new ArrayList<>();
+  private final List<Item> subList = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    StringBuilder hot = new StringBuilder();
+    StringBuilder sub = new StringBuilder();
+    for (int i = 0; i < records; i++) {
+      long price = 100000L + i * 1250L;
+      hot.append(String.format(HOT_RECORD, 10000 + i, price, price - 5000, price + 5000, price))
+          .append('|');
+      sub.append(String.format(SUB_RECORD, i % 21, i % 21, price)).append('|');
+    }
+    hotMessage = hot.toString();
+    subMessage = sub.toString();
+    hotList.addAll(hotListItems());
+    subList.addAll(subListItems());
+  }
+
+  @Benchmark
+  public List<HotListItem> hotListItems() {
+    List<HotListItem> items = new ArrayList<>();
+    tokens.reset(hotMessage);
+    while (tokens.nextRecord()) {
+      items.add(new HotListItem(tokens));
+    }
+    return items;
+  }
+
+  @Benchmark
+  public void hotListToJson(Blackhole blackhole) {
+    for (HotListItem item : hotList) {
+      blackhole.consume(item.toJson());
+    }
+  }
+
+  @Benchmark
+  public List<Item> subListItems() {
+    List<Item> items = new ArrayList<>();
+    tokens.reset(subMessage);
+    while (tokens.nextRecord()) {
+      items.add(new Item(tokens));
+    }
+    return items;
+  }
+
+  @Benchmark
+  public void subListToJson(Blackhole blackhole) {
+    for (Item item : subList) {
+      blackhole.consume(item.toJson());
+    }
+  }
+}
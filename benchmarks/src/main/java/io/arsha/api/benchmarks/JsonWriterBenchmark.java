@@ -0,0 +1,101 @@
+package io.arsha.api.benchmarks;
+
+import io.arsha.api.market.ResultTokenizer;
+import io.arsha.api.market.items.HotListItem;
+import io.arsha.api.market.items.Item;
+import io.arsha.api.util.json.JsonWriter;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encodes hot list and sub list responses through <code>toJson()</code> and a
+ * <code>JsonArray</code>, as the handlers did before, and with <code>JsonWriter</code>.
+ *
+ * <p>Run with <code>-prof gc</code> and divide <code>gc.alloc.rate.norm</code> by
+ * <code>items</code> for the allocation per item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonWriterBenchmark {
+  private static final String HOT_RECORD = "%d-0-0-%d-1524-98210-1-2500-%d-%d-%d-1625079182";
+  private static final String SUB_RECORD = "11607-%d-%d-%d-12-3350-150000-180000-166000-1625079182";
+
+  @Param({"10", "100", "500"})
+  private int items;
+
+  private final List<HotListItem> hotList = new ArrayList<>();
+  private final List<Item> subList = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    ResultTokenizer tokens = new ResultTokenizer();
+    for (int i = 0; i < items; i++) {
+      long price = 100000L + i * 1250L;
+      tokens.reset(String.format(HOT_RECORD, 10000 + i, price, price - 5000, price + 5000, price));
+      tokens.nextRecord();
+      HotListItem hot = new HotListItem(tokens);
+      hot.setName("+" + (i % 5) + " Kzarka Longsword");
+      hot.setIcon("https://s1.pearlcdn.com/NAEU/TradeMarket/Common/img/BDO/item/" + (10000 + i) + ".png");
+      hotList.add(hot);
+
+      tokens.reset(String.format(SUB_RECORD, i % 21, i % 21, price));
+      tokens.nextRecord();
+      Item sub = new Item(tokens);
+      sub.setName("Bares Necklace");
+      sub.setIcon("https://s1.pearlcdn.com/NAEU/TradeMarket/Common/img/BDO/item/11607.png");
+      subList.add(sub);
+    }
+
+    if (!hotListToJson().equals(hotListWriter()) || !subListToJson().equals(subListWriter())) {
+      throw new IllegalStateException("JsonWriter output differs from toJson()");
+    }
+  }
+
+  @Benchmark
+  public Buffer hotListToJson() {
+    JsonArray array = new JsonArray();
+    for (HotListItem item : hotList) {
+      array.add(item.toJson());
+    }
+    return array.toBuffer();
+  }
+
+  @Benchmark
+  public Buffer hotListWriter() {
+    return JsonWriter.array(hotList);
+  }
+
+  @Benchmark
+  public Buffer subListToJson() {
+    JsonArray array = new JsonArray();
+    for (Item item : subList) {
+      array.add(item.toJson());
+    }
+    return array.toBuffer();
+  }
+
+  @Benchmark
+  public Buffer subListWriter() {
+    return JsonWriter.array(subList);
+  }
+}
@@ -0,0 +1,84 @@
+package io.arsha.api.benchmarks;
+
+import io.arsha.api.cache.DbKey;
+import io.arsha.api.cache.UtilComposite;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares item DB cache hits keyed by <code>UtilComposite</code> with
+ * <code>{"id": n}</code> queries against packed <code>DbKey</code> keys.
+ *
+ * <p>Both benchmarks build the key per lookup like a request does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyLookupBenchmark {
+  private static final String COLLECTION = "en";
+
+  @Param({"1000", "40000"})
+  private int size;
+
+  private long[] ids;
+  private int next = 0;
+  private Cache<UtilComposite, JsonObject> compositeCache;
+  private Cache<Long, JsonObject> packedCache;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ids = new long[size];
+    compositeCache = new Cache2kBuilder<UtilComposite, JsonObject>() {}
+        .name("BENCH_COMPOSITE_" + size).eternal(true).entryCapacity(size).build();
+    packedCache = new Cache2kBuilder<Long, JsonObject>() {}
+        .name("BENCH_PACKED_" + size).eternal(true).entryCapacity(size).build();
+
+    for (int i = 0; i < size; i++) {
+      ids[i] = 10000 + i * 7L;
+      JsonObject item = new JsonObject().put("id", ids[i]).put("name", "Item " + i);
+      compositeCache.put(new UtilComposite(COLLECTION, new JsonObject().put("id", ids[i])), item);
+      packedCache.put(DbKey.of(COLLECTION, ids[i]), item);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    compositeCache.close();
+    packedCache.close();
+  }
+
+  private long nextId() {
+    next = next + 1 == size ? 0 : next + 1;
+    return ids[next];
+  }
+
+  @Benchmark
+  public JsonObject compositeKey() {
+    return compositeCache.peek(new UtilComposite(COLLECTION, new JsonObject().put("id", nextId())));
+  }
+
+  @Benchmark
+  public JsonObject packedKey() {
+    return packedCache.peek(DbKey.of(COLLECTION, nextId()));
+  }
+}
@@ -0,0 +1,95 @@
+package io.arsha.api.benchmarks;
+
+import io.arsha.api.market.ResultTokenizer;
+import io.arsha.api.market.items.HotListItem;
+import io.arsha.api.market.items.Item;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parses hot list and sub list <code>resultMsg</code>s with the regex splits the
+ * handlers used before and with <code>ResultTokenizer</code>.
+ *
+ * <p>Run with <code>-prof gc</code> to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultTokenizerBenchmark {
+  // Records as returned by GetWorldMarketHotList and GetWorldMarketSubList
+  private static final String HOT_RECORD = "%d-0-0-%d-1524-98210-1-2500-%d-%d-%d-1625079182";
+  private static final String SUB_RECORD = "11607-%d-%d-%d-12-3350-150000-180000-166000-1625079182";
+
+  @Param({"10", "100", "500"})
+  private int records;
+
+  private String hotList;
+  private String subList;
+  private final ResultTokenizer tokens = new ResultTokenizer();
+
+  @Setup
+  public void setup() {
+    StringBuilder hot = new StringBuilder();
+    StringBuilder sub = new StringBuilder();
+    for (int i = 0; i < records; i++) {
+      long price = 100000L + i * 1250L;
+      hot.append(String.format(HOT_RECORD, 10000 + i, price, price - 5000, price + 5000, price))
+          .append('|');
+      sub.append(String.format(SUB_RECORD, i % 21, i % 21, price)).append('|');
+    }
+    hotList = hot.toString();
+    subList = sub.toString();
+  }
+
+  @Benchmark
+  public void hotListSplit(Blackhole bh) {
+    for (String record : hotList.split("[|]")) {
+      String[] fields = record.split("[-]");
+      for (String field : fields) {
+        bh.consume(Long.valueOf(field));
+      }
+    }
+  }
+
+  @Benchmark
+  public void hotListTokenizer(Blackhole bh) {
+    tokens.reset(hotList);
+    while (tokens.nextRecord()) {
+      bh.consume(new HotListItem(tokens));
+    }
+  }
+
+  @Benchmark
+  public void subListSplit(Blackhole bh) {
+    for (String record : subList.split("[|]")) {
+      String[] fields = record.split("[-]");
+      for (String field : fields) {
+        bh.consume(Long.valueOf(field));
+      }
+    }
+  }
+
+  @Benchmark
+  public void subListTokenizer(Blackhole bh) {
+    tokens.reset(subList);
+    while (tokens.nextRecord()) {
+      bh.consume(new Item(tokens));
+    }
+  }
+}
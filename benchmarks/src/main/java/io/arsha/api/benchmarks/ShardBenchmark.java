@@ -0,0 +1,109 @@
+package io.arsha.api.benchmarks;
+
+import io.arsha.api.cache.CacheManager;
+import io.arsha.api.cache.V1Composite;
+import io.arsha.api.common.AppConfig;
+import io.arsha.api.market.Marketplace;
+import io.arsha.api.market.enums.MarketEndpoint;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cache2k.Cache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks up the region shards of <code>CacheManager</code> from many threads, as the
+ * verticle instances do.
+ *
+ * <p>Run with <code>-t 1</code> up to <code>-t 32</code> to see how lookups and cache
+ * hits scale with the amount of cores. Every thread walks all regions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardBenchmark {
+  private static final String[] REGIONS = {
+    "na", "eu", "sea", "mena", "kr", "ru", "jp", "th", "tw", "sa", "gl", "console_eu", "console_na",
+    "console_asia"
+  };
+  private static final MarketEndpoint ENDPOINT = MarketEndpoint.GetWorldMarketSubList;
+  private static final int KEYS = 1000;
+
+  private Vertx vertx;
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int region = 0;
+    private int id = 0;
+
+    String nextRegion() {
+      region = region + 1 == REGIONS.length ? 0 : region + 1;
+      return REGIONS[region];
+    }
+
+    long nextId() {
+      id = id + 1 == KEYS ? 0 : id + 1;
+      return 10000L + id;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+    JsonObject regions = new JsonObject();
+    for (String region : REGIONS) {
+      regions.put(region, "localhost");
+    }
+    JsonObject config = new JsonObject()
+        .put("util", new JsonObject().put("regions", regions))
+        .put("cache", new JsonObject()
+            .put("v1Expiry", 30).put("v2Expiry", 30).put("dbExpiry", 30).put("fullDBExpiry", 5)
+            .put("snapshot", "target/no-snapshot.bin")
+            .put("refresh", new JsonObject().put("interval", 3600)));
+    AppConfig conf = new AppConfig(config.encode());
+    Marketplace.init(vertx, conf).compose(market -> CacheManager.init(vertx, conf))
+        .toCompletionStage().toCompletableFuture().get(30, TimeUnit.SECONDS);
+
+    Buffer response = new JsonObject().put("resultCode", 0)
+        .put("resultMsg", "11607-0-0-150000-12-3350-150000-180000-166000-1625079182|").toBuffer();
+    for (String region : REGIONS) {
+      Cache<V1Composite, Future<Buffer>> cache = CacheManager.getV1Cache(region);
+      for (int i = 0; i < KEYS; i++) {
+        cache.put(new V1Composite(10000L + i, 0L, region, ENDPOINT), Future.succeededFuture(response));
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Benchmark
+  public Cache<V1Composite, Future<Buffer>> shardLookup(Cursor cursor) {
+    return CacheManager.getV1Cache(cursor.nextRegion());
+  }
+
+  @Benchmark
+  public Future<Buffer> v1Fetch(Cursor cursor) {
+    return CacheManager.fetchV1(new V1Composite(cursor.nextId(), 0L, cursor.nextRegion(), ENDPOINT));
+  }
+}
@@ -0,0 +1,118 @@
+package io.arsha.api.benchmarks;
+
+import io.arsha.api.market.items.History;
+import io.arsha.api.market.items.Item;
+import io.arsha.api.util.Util;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the <code>Util</code> helpers on the V2 request path.
+ *
+ * <p>Each helper has its own state and size: days of price history, records of a
+ * sub list response and items named per response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UtilBenchmark {
+  private static final String SUB_RECORD = "11607-%d-%d-%d-12-3350-150000-180000-166000-1625079182";
+
+  @State(Scope.Benchmark)
+  public static class PriceHistory {
+    @Param({"30", "90", "365"})
+    private int days;
+
+    private String message;
+
+    @Setup
+    public void setup() {
+      StringBuilder history = new StringBuilder();
+      for (int i = 0; i < days; i++) {
+        if (i > 0) {
+          history.append('-');
+        }
+        history.append(1520000 + (i % 17) * 2500);
+      }
+      message = history.toString();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class SubList {
+    // An item has a single record without enhancement and up to 21 with
+    @Param({"1", "6", "21"})
+    private int records;
+
+    private JsonObject response;
+    private int sid;
+
+    @Setup
+    public void setup() {
+      StringBuilder message = new StringBuilder();
+      for (int i = 0; i < records; i++) {
+        message.append(String.format(SUB_RECORD, i, i, 150000L + i * 1250L)).append('|');
+      }
+      response = new JsonObject().put("resultCode", 0).put("resultMsg", message.toString());
+      // The last record is the worst case of the scan
+      sid = records - 1;
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Prefixes {
+    @Param({"21", "100", "500"})
+    private int items;
+
+    private long[] ids;
+    private int[] minEnhance;
+    private int[] maxEnhance;
+
+    @Setup
+    public void setup() {
+      ids = new long[items];
+      minEnhance = new int[items];
+      maxEnhance = new int[items];
+      for (int i = 0; i < items; i++) {
+        // Mix plain items, accessories (PRI to PEN), gear (+1 to +15) and the
+        // Silver Embroidered special cases
+        ids[i] = i % 10 == 0 ? 14019L + i % 7 : 10000L + i;
+        minEnhance[i] = i % 21;
+        maxEnhance[i] = i % 3 == 0 ? 20 : i % 21;
+      }
+    }
+  }
+
+  @Benchmark
+  public History parseHistory(PriceHistory state) {
+    return Util.parseHistory(state.message, "na");
+  }
+
+  @Benchmark
+  public Item selectItemBySid(SubList state) {
+    return Util.selectItemBySid(state.response, state.sid);
+  }
+
+  @Benchmark
+  public void getItemPrefix(Prefixes state, Blackhole blackhole) {
+    for (int i = 0; i < state.items; i++) {
+      blackhole.consume(Util.getItemPrefix(state.ids[i], state.minEnhance[i], state.maxEnhance[i]));
+    }
+  }
+}
@@ -0,0 +1,355 @@
+package io.arsha.api.benchmarks.load;
+
+import io.arsha.api.cache.V1Composite;
+import io.arsha.api.cache.V2Composite;
+import io.arsha.api.cluster.Cluster;
+import io.arsha.api.cluster.ClusterNode;
+import io.arsha.api.cluster.HashRing;
+import io.arsha.api.cluster.Replica;
+import io.arsha.api.market.enums.MarketEndpoint;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Cache replication between clustered API nodes started in one JVM.
+ *
+ * <p>Every node runs a clustered <code>Vertx</code> with its own Hazelcast member on
+ * localhost and a <code>ClusterNode</code> feeding an in-memory cache. Requests for
+ * a skewed set of V1 and V2 keys are spread over the nodes. A node missing a key
+ * forwards it to the owner, which answers from its cache or fetches it and
+ * replicates the value. With <code>forward=false</code> every node fetches and
+ * replicates by itself. Upstream fetches answer after <code>latency</code>
+ * milliseconds and concurrent fetches of a key on a node are shared.
+ *
+ * <p>Compare <code>forward</code> with <code>replicate=false</code> to see the
+ * upstream requests saved by forwarding alone.
+ *
+ * <p>Reported are upstream fetches per request against separate caches per node,
+ * forwarded requests, latency from the upstream answer until peers hold the value,
+ * the keys owned per node and the share of keys moving to another owner when the
+ * last node leaves.
+ *
+ * <p>Arguments are <code>key=value</code> pairs, for example
+ * <code>nodes=4 keys=5000 requests=50000 rate=5000 forward=false</code>.
+ */
+public final class ClusterTest {
+
+  private ClusterTest() {
+  }
+
+  private static JsonObject defaults() {
+    return new JsonObject()
+        .put("nodes", 3)
+        .put("keys", 2000)
+        .put("skew", 2.0)
+        .put("requests", 20000)
+        .put("rate", 4000)
+        .put("v2Share", 0.5)
+        .put("size", 4096)
+        .put("replicas", 160)
+        .put("latency", 50)
+        .put("forward", true)
+        .put("replicate", true)
+        .put("port", 5801);
+  }
+
+  /**
+  * Run the cluster test.
+  *
+  * @param args the <code>key=value</code> options
+  * @throws Exception if the cluster fails to form
+  */
+  public static void main(final String[] args) throws Exception {
+    JsonObject options = defaults();
+    for (String arg : args) {
+      String[] option = arg.split("=", 2);
+      options.put(option[0], LoadTest.parse(option[1]));
+    }
+    int count = options.getInteger("nodes");
+    JsonObject conf = new JsonObject()
+        .put("enabled", true)
+        .put("host", "127.0.0.1")
+        .put("port", options.getInteger("port"))
+        .put("members", new JsonArray().add("127.0.0.1:" + options.getInteger("port")))
+        .put("replicas", options.getInteger("replicas"))
+        .put("forward", options.getBoolean("forward"))
+        .put("replicate", options.getBoolean("replicate"))
+        .put("membershipInterval", 200);
+
+    List<Vertx> instances = new ArrayList<>();
+    List<ClusterNode> nodes = new ArrayList<>();
+    List<MemoryReplica> replicas = new ArrayList<>();
+    AtomicLong upstream = new AtomicLong();
+    try {
+      for (int i = 0; i < count; i++) {
+        VertxOptions vertxOptions = new VertxOptions();
+        Vertx vertx = await(Cluster.vertx(vertxOptions, conf));
+        MemoryReplica replica = new MemoryReplica(vertx, options, upstream);
+        instances.add(vertx);
+        replicas.add(replica);
+        replica.node =
+            await(ClusterNode.start(vertx, vertxOptions.getClusterManager(), conf, replica));
+        nodes.add(replica.node);
+      }
+      awaitRings(nodes, count);
+      new Run(options, instances, nodes, replicas, upstream).execute();
+
+      HashRing before = nodes.get(0).getRing();
+      Vertx leaving = instances.remove(count - 1);
+      await(nodes.remove(count - 1).stop());
+      await(leaving.close());
+      awaitRings(nodes, count - 1);
+      report(options, before, nodes.get(0).getRing());
+    } finally {
+      for (ClusterNode node : nodes) {
+        await(node.stop());
+      }
+      for (Vertx vertx : instances) {
+        await(vertx.close());
+      }
+    }
+  }
+
+  private static void awaitRings(List<ClusterNode> nodes, int size) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 60000;
+    while (nodes.stream().anyMatch(node -> node.getRing().getNodes().size() != size)) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new IllegalStateException("Cluster did not reach " + size + " nodes");
+      }
+      Thread.sleep(100);
+    }
+  }
+
+  /**
+  * Report owned keys per node and keys moved by the leaving node.
+  */
+  private static void report(JsonObject options, HashRing before, HashRing after) {
+    int keys = options.getInteger("keys");
+    Map<String, Integer> owned = new HashMap<>();
+    int moved = 0;
+    int lost = 0;
+    for (int i = 0; i < keys; i++) {
+      V1Composite key = key(i);
+      String owner = before.owner(key);
+      owned.merge(owner, 1, Integer::sum);
+      if (!owner.equals(after.owner(key))) {
+        moved++;
+        lost += after.getNodes().contains(owner) ? 0 : 1;
+      }
+    }
+    System.out.println();
+    System.out.printf("Keys owned per node: %s%n", owned.values());
+    System.out.printf("Keys moved after a node left: %d of %d (%.1f%%), %d of them owned by the leaving node%n",
+        moved, keys, 100.0 * moved / keys, lost);
+  }
+
+  private static V1Composite key(long item) {
+    return new V1Composite(10000 + item, 0, "na", MarketEndpoint.GetWorldMarketSubList);
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    CompletableFuture<T> done = new CompletableFuture<>();
+    future.onSuccess(done::complete).onFailure(done::completeExceptionally);
+    return done.get(120, TimeUnit.SECONDS);
+  }
+
+  /**
+  * Cache and upstream of one node, values carry the <code>System.nanoTime</code> of
+  * their upstream answer.
+  */
+  private static final class MemoryReplica implements Replica {
+
+    private MemoryReplica(final Vertx vertx, final JsonObject options, final AtomicLong upstream) {
+      this.vertx = vertx;
+      this.size = options.getInteger("size");
+      this.delay = options.getLong("latency");
+      this.upstream = upstream;
+    }
+
+    private final Vertx vertx;
+    private final int size;
+    private final long delay;
+    private final AtomicLong upstream;
+    private final Map<V1Composite, Future<Buffer>> values = new ConcurrentHashMap<>();
+    private final Map<V1Composite, Future<Buffer>> inFlight = new ConcurrentHashMap<>();
+    private final Recorder latency = new Recorder(TimeUnit.SECONDS.toMicros(10), 3);
+    private final AtomicLong adopted = new AtomicLong();
+    private final AtomicLong touched = new AtomicLong();
+    private final AtomicLong served = new AtomicLong();
+    private ClusterNode node;
+
+    @Override
+    public void adoptV1(V1Composite key, Buffer response) {
+      adopt(key, response);
+    }
+
+    @Override
+    public void adoptV2(V2Composite key, Buffer stored, int elements, long created) {
+      adopt(key, stored);
+    }
+
+    @Override
+    public void touched(V1Composite key) {
+      touched.incrementAndGet();
+    }
+
+    @Override
+    public Future<Buffer> fetch(V1Composite key) {
+      served.incrementAndGet();
+      return values.computeIfAbsent(key, this::load);
+    }
+
+    /**
+    * Fetch a value from upstream and publish it to the peers.
+    */
+    private Future<Buffer> load(V1Composite key) {
+      return upstream(key).onSuccess(value -> {
+        if (key instanceof V2Composite) {
+          node.replicateV2((V2Composite) key, value, -1, System.currentTimeMillis());
+        } else {
+          node.replicateV1(key, value);
+        }
+      });
+    }
+
+    private Future<Buffer> upstream(V1Composite key) {
+      return inFlight.computeIfAbsent(key, k -> {
+        upstream.incrementAndGet();
+        Promise<Buffer> answer = Promise.promise();
+        vertx.setTimer(delay, id -> {
+          inFlight.remove(key);
+          answer.complete(Buffer.buffer(size).appendLong(System.nanoTime()).appendBytes(new byte[size - 8]));
+        });
+        return answer.future();
+      });
+    }
+
+    private void adopt(V1Composite key, Buffer value) {
+      latency.recordValue(Math.max(0, (System.nanoTime() - value.getLong(0)) / 1000));
+      values.put(key, Future.succeededFuture(value));
+      adopted.incrementAndGet();
+    }
+  }
+
+  /**
+  * Requests spread over the nodes at a fixed rate.
+  */
+  private static final class Run {
+
+    private Run(final JsonObject options, final List<Vertx> instances, final List<ClusterNode> nodes,
+        final List<MemoryReplica> replicas, final AtomicLong upstream) {
+      this.options = options;
+      this.instances = instances;
+      this.nodes = nodes;
+      this.replicas = replicas;
+      this.upstream = upstream;
+    }
+
+    private final JsonObject options;
+    private final List<Vertx> instances;
+    private final List<ClusterNode> nodes;
+    private final List<MemoryReplica> replicas;
+    private final AtomicLong upstream;
+
+    private void execute() throws Exception {
+      int requests = options.getInteger("requests");
+      int keys = options.getInteger("keys");
+      double skew = options.getDouble("skew");
+      double v2Share = options.getDouble("v2Share");
+      long interval = TimeUnit.SECONDS.toNanos(1) / options.getInteger("rate");
+
+      AtomicLong forwarded = new AtomicLong();
+      AtomicLong fallbacks = new AtomicLong();
+      List<Set<V1Composite>> separate = new ArrayList<>();
+      nodes.forEach(node -> separate.add(ConcurrentHashMap.newKeySet()));
+      List<Map<String, List<V1Composite>>> touches = new ArrayList<>();
+      nodes.forEach(node -> touches.add(new HashMap<>()));
+
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      long start = System.nanoTime();
+      for (int i = 0; i < requests; i++) {
+        // Sleep rather than spin, the event loops delivering replicas need the CPU
+        long ahead = start + i * interval - System.nanoTime();
+        if (ahead > TimeUnit.MILLISECONDS.toNanos(1)) {
+          Thread.sleep(TimeUnit.NANOSECONDS.toMillis(ahead));
+        }
+        if (i == requests / 10) {
+          // First connections between the event buses are not replication latency
+          replicas.forEach(replica -> replica.latency.reset());
+        }
+        int index = random.nextInt(nodes.size());
+        ClusterNode node = nodes.get(index);
+        V1Composite parent = key((long) (keys * Math.pow(random.nextDouble(), skew)));
+        V1Composite key = random.nextDouble() < v2Share
+            ? new V2Composite(parent.getId(), parent.getSid(), parent.getRegion(), parent.getRequestId(), "en")
+            : parent;
+
+        separate.get(index).add(key);
+        if (!node.owns(key)) {
+          touches.get(index).computeIfAbsent(node.owner(key), owner -> new ArrayList<>()).add(key);
+        }
+        // Loads complete on an event loop of the node, replicas are published from there
+        instances.get(index).runOnContext(request -> {
+          MemoryReplica replica = replicas.get(index);
+          if (replica.values.containsKey(key)) {
+            return;
+          }
+          if (node.forwards(key)) {
+            // The owner publishes the values it fetches
+            forwarded.incrementAndGet();
+            replica.values.put(key, node.forward(key).recover(fail -> {
+              fallbacks.incrementAndGet();
+              return replica.load(key);
+            }));
+          } else {
+            replica.values.put(key, replica.load(key));
+          }
+        });
+      }
+      double seconds = (System.nanoTime() - start) / 1e9;
+      for (int i = 0; i < nodes.size(); i++) {
+        nodes.get(i).touch(touches.get(i));
+      }
+      Thread.sleep(1000);
+
+      long unique = separate.stream().mapToLong(Set::size).sum();
+      long adopted = replicas.stream().mapToLong(replica -> replica.adopted.get()).sum();
+      long touched = replicas.stream().mapToLong(replica -> replica.touched.get()).sum();
+      long sentTouches = touches.stream().flatMap(map -> map.values().stream()).mapToLong(List::size).sum();
+      Histogram latency = new Histogram(3);
+      replicas.forEach(replica -> latency.add(replica.latency.getIntervalHistogram()));
+
+      System.out.printf("%d nodes, %d requests in %.1fs, %d keys, skew %.1f%n",
+          nodes.size(), requests, seconds, keys, skew);
+      System.out.printf("Upstream fetches: %d (%.3f per request), separate caches: %d (%.3f per request)%n",
+          upstream.get(), (double) upstream.get() / requests, unique, (double) unique / requests);
+      System.out.printf("Forwarded to the owner: %d, served by owners: %d, fallbacks: %d%n", forwarded.get(),
+          replicas.stream().mapToLong(replica -> replica.served.get()).sum(), fallbacks.get());
+      System.out.printf("Values adopted from peers: %d%n", adopted);
+      System.out.printf("Upstream answer to peers: p50 %.2fms, p90 %.2fms, p99 %.2fms, max %.2fms%n",
+          latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+          latency.getValueAtPercentile(99) / 1000.0,
+          latency.getMaxValue() / 1000.0);
+      System.out.printf("Hot keys sent to their owner: %d, received: %d%n", sentTouches, touched);
+    }
+  }
+}
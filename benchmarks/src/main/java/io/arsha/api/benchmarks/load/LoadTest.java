@@ -0,0 +1,498 @@
+package io.arsha.api.benchmarks.load;
+
+import io.arsha.api.API;
+import io.arsha.api.cache.Snapshot;
+import io.arsha.api.common.AppConfig;
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Load test of the full request path: <code>API</code> verticles, caches, dispatcher
+ * and market client against a <code>StubTradeServer</code>.
+ *
+ * <p>The API is started in process from <code>conf/config.json</code> with every
+ * region pointed at the stub and the item database served from a generated
+ * snapshot, so no database or trade host is needed. A fixed number of connections
+ * then send a weighted mix of V1, V2 and util requests back to back for
+ * <code>warmup</code> and <code>duration</code> seconds.
+ *
+ * <p>Reported are throughput, p50, p99 and p99.9 latency per request class and the
+ * allocation rate of the API threads. Driver and stub run on their own event loops
+ * and are excluded from the allocation rate.
+ *
+ * <p><code>offHeap=true</code> enables the off-heap cache tier. Compare GC time and
+ * the live heap of runs with and without it at a large <code>keys</code> working set.
+ *
+ * <p>Run from the repository root, arguments are <code>key=value</code> pairs, for
+ * example <code>duration=60 connections=128 mix=v1:2,v2:7,util:1 latency=80</code>.
+ */
+public final class LoadTest {
+  private static final String[] CLASSES = {"v1", "v2", "util"};
+
+  private LoadTest() {
+  }
+
+  /**
+  * Default options, overridden by the <code>key=value</code> arguments.
+  *
+  * @return the <code>JsonObject</code> options
+  */
+  private static JsonObject defaults() {
+    return new JsonObject()
+        .put("config", "conf/config.json")
+        .put("spec", "api/OpenAPI.yaml")
+        .put("duration", 30)
+        .put("warmup", 20)
+        .put("connections", 64)
+        .put("instances", Runtime.getRuntime().availableProcessors())
+        .put("driverThreads", 2)
+        .put("stubThreads", 2)
+        .put("regions", "na,eu")
+        .put("keys", 500)
+        .put("skew", 2.0)
+        .put("mix", "v1:3,v2:6,util:1")
+        .put("latency", 50)
+        .put("jitter", 20)
+        .put("errorRate", 0.0)
+        .put("resetRate", 0.0)
+        .put("offHeap", false);
+  }
+
+  /**
+  * Run the load test.
+  *
+  * @param args the <code>key=value</code> options
+  * @throws Exception if the API or stub fail to start
+  */
+  public static void main(final String[] args) throws Exception {
+    JsonObject options = defaults();
+    for (String arg : args) {
+      String[] option = arg.split("=", 2);
+      options.put(option[0], parse(option[1]));
+    }
+
+    Path work = Files.createTempDirectory("arsha-load");
+    Files.createDirectories(work.resolve("api"));
+    Files.copy(Paths.get(options.getString("spec")), work.resolve("api/OpenAPI.yaml"));
+    Files.writeString(work.resolve("api/key.txt"), UUID.randomUUID().toString());
+    // API resolves its spec and key relative to the working directory
+    System.setProperty("vertx.cwd", work.toString());
+
+    Vertx stubVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(options.getInteger("stubThreads")));
+    Vertx apiVertx = Vertx.vertx();
+    Vertx driverVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(options.getInteger("driverThreads")));
+    try {
+      StubTradeServer stub = new StubTradeServer(stubVertx, options.copy().put("port", 0));
+      int stubPort = await(stub.start());
+      await(writeSnapshot(apiVertx, work.resolve("data/snapshot.bin"), options.getInteger("keys")));
+
+      int apiPort = freePort();
+      API.config = new AppConfig(apiConfig(options, work, stubPort, apiPort).encode());
+      await(apiVertx.deployVerticle(API.class.getName(),
+          new DeploymentOptions().setInstances(options.getInteger("instances"))));
+
+      WebClient client = WebClient.create(driverVertx, new WebClientOptions()
+          .setDefaultHost("localhost")
+          .setDefaultPort(apiPort)
+          .setMaxPoolSize(options.getInteger("connections"))
+          .setKeepAlive(true));
+      await(ready(driverVertx, client));
+
+      Set<Long> excluded = new HashSet<>(threadIds(driverVertx));
+      excluded.addAll(threadIds(stubVertx));
+      new Run(options, client, stub, excluded).execute();
+    } finally {
+      driverVertx.close();
+      apiVertx.close();
+      stubVertx.close();
+      try (Stream<Path> files = Files.walk(work)) {
+        files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+      }
+    }
+  }
+
+  /**
+  * Parse an option value as number or boolean, keeping anything else as string.
+  *
+  * @param value the raw value
+  * @return      the parsed value
+  */
+  static Object parse(String value) {
+    if (value.equals("true") || value.equals("false")) {
+      return Boolean.valueOf(value);
+    }
+    try {
+      return Long.valueOf(value);
+    } catch (NumberFormatException notLong) {
+      try {
+        return Double.valueOf(value);
+      } catch (NumberFormatException notDouble) {
+        return value;
+      }
+    }
+  }
+
+  /**
+  * Build the API config from <code>conf/config.json</code> with every region pointed
+  * at the stub, metrics disabled and the generated snapshot.
+  */
+  private static JsonObject apiConfig(JsonObject options, Path work, int stubPort, int apiPort)
+      throws IOException {
+    JsonObject config = new JsonObject(Files.readString(Paths.get(options.getString("config"))));
+    config.put("debug", true);
+    config.getJsonObject("app").put("host", "localhost").put("port", apiPort);
+    config.getJsonObject("metrics").put("use", false);
+
+    JsonObject regions = new JsonObject();
+    for (String region : options.getString("regions").split(",")) {
+      regions.put(region, "localhost");
+    }
+    config.getJsonObject("util").put("regions", regions).put("languages", new JsonArray().add("en"));
+    JsonObject cache = config.getJsonObject("cache");
+    cache.put("snapshot", work.resolve("data/snapshot.bin").toString());
+    cache.put("offHeap", cache.getJsonObject("offHeap", new JsonObject())
+        .put("enabled", options.getBoolean("offHeap")));
+
+    JsonObject clients = config.getJsonObject("clients", new JsonObject());
+    clients.put("default", clients.getJsonObject("default", new JsonObject())
+        .put("ssl", false).put("port", stubPort).put("http2", false));
+    return config.put("clients", clients);
+  }
+
+  private static Future<Void> writeSnapshot(Vertx vertx, Path path, int keys) {
+    List<JsonObject> items = new ArrayList<>(keys);
+    for (int i = 0; i < keys; i++) {
+      long id = 10000 + i;
+      items.add(new JsonObject()
+          .put("id", id)
+          .put("name", "Item " + id)
+          .put("icon", "https://s1.pearlcdn.com/NAEU/TradeMarket/Common/img/BDO/item/" + id + ".png")
+          .put("grade", i % 5));
+    }
+    Map<String, List<JsonObject>> collections = new HashMap<>();
+    collections.put("en", items);
+    return Snapshot.write(vertx, path.toString(), collections);
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  /**
+  * Wait until the API finished its init and enabled its routes.
+  */
+  private static Future<Void> ready(Vertx vertx, WebClient client) {
+    Promise<Void> ready = Promise.promise();
+    String path = "/util/db?id=10000&lang=en";
+    long deadline = System.currentTimeMillis() + 60000;
+    vertx.setPeriodic(250, timer -> client.get(path).send().onComplete(res -> {
+      if (res.succeeded() && res.result().statusCode() == 200) {
+        vertx.cancelTimer(timer);
+        ready.tryComplete();
+      } else if (System.currentTimeMillis() > deadline) {
+        vertx.cancelTimer(timer);
+        ready.tryFail("API did not become ready");
+      }
+    }));
+    return ready.future();
+  }
+
+  /**
+  * Get the ids of the event loop threads of a <code>Vertx</code> instance.
+  */
+  private static List<Long> threadIds(Vertx vertx) throws Exception {
+    List<Long> ids = new ArrayList<>();
+    for (EventExecutor loop : vertx.nettyEventLoopGroup()) {
+      ids.add(loop.submit(() -> Thread.currentThread().getId()).get());
+    }
+    return ids;
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    CompletableFuture<T> done = new CompletableFuture<>();
+    future.onSuccess(done::complete).onFailure(done::completeExceptionally);
+    return done.get(120, TimeUnit.SECONDS);
+  }
+
+  /**
+  * One closed loop run: warmup, measurement and report.
+  */
+  private static final class Run {
+
+    private Run(final JsonObject options, final WebClient client, final StubTradeServer stub,
+        final Set<Long> excluded) {
+      this.options = options;
+      this.client = client;
+      this.stub = stub;
+      this.excluded = excluded;
+      this.regions = options.getString("regions").split(",");
+      this.keys = options.getInteger("keys");
+      this.skew = options.getDouble("skew");
+
+      int total = 0;
+      for (String part : options.getString("mix").split(",")) {
+        String[] weight = part.split(":");
+        total += Integer.parseInt(weight[1]);
+        this.mix.put(weight[0], total);
+      }
+      this.totalWeight = total;
+      for (String name : CLASSES) {
+        recorders.put(name, new Recorder(TimeUnit.SECONDS.toMicros(60), 3));
+        failures.put(name, new AtomicLong());
+      }
+    }
+
+    private final JsonObject options;
+    private final WebClient client;
+    private final StubTradeServer stub;
+    private final Set<Long> excluded;
+    private final String[] regions;
+    private final int keys;
+    private final double skew;
+    private final Map<String, Integer> mix = new LinkedHashMap<>();
+    private final int totalWeight;
+    private final Map<String, Recorder> recorders = new HashMap<>();
+    private final Map<String, AtomicLong> failures = new HashMap<>();
+    private volatile boolean running = true;
+
+    private void execute() throws Exception {
+      for (int i = 0; i < options.getInteger("connections"); i++) {
+        next();
+      }
+
+      Thread.sleep(TimeUnit.SECONDS.toMillis(options.getInteger("warmup")));
+      for (String name : CLASSES) {
+        recorders.get(name).reset();
+        failures.get(name).set(0);
+      }
+      Map<Long, Long> allocatedBefore = allocated();
+      long gcBefore = gcCount();
+      long gcTimeBefore = gcTime();
+      long servedBefore = stub.getServed();
+      long errorsBefore = stub.getErrors();
+      long resetsBefore = stub.getResets();
+      long start = System.nanoTime();
+
+      Thread.sleep(TimeUnit.SECONDS.toMillis(options.getInteger("duration")));
+      Map<String, Histogram> histograms = new LinkedHashMap<>();
+      for (String name : CLASSES) {
+        histograms.put(name, recorders.get(name).getIntervalHistogram());
+      }
+      double seconds = (System.nanoTime() - start) / 1e9;
+      Map<Long, Long> allocatedAfter = allocated();
+      long[] upstream = {
+        stub.getServed() - servedBefore, stub.getErrors() - errorsBefore, stub.getResets() - resetsBefore
+      };
+      running = false;
+
+      report(histograms, seconds, allocatedBefore, allocatedAfter, upstream,
+          gcCount() - gcBefore, gcTime() - gcTimeBefore);
+      // Let requests in flight finish before the instances are closed
+      Thread.sleep(500);
+    }
+
+    private void next() {
+      if (!running) {
+        return;
+      }
+      String name = pick();
+      long start = System.nanoTime();
+      client.get(path(name)).send().onComplete(res -> {
+        recorders.get(name).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        if (res.failed() || res.result().statusCode() != 200) {
+          failures.get(name).incrementAndGet();
+        }
+        next();
+      });
+    }
+
+    private String pick() {
+      int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+      for (Map.Entry<String, Integer> weight : mix.entrySet()) {
+        if (roll < weight.getValue()) {
+          return weight.getKey();
+        }
+      }
+      return CLASSES[0];
+    }
+
+    /**
+    * Pick an item id, <code>skew</code> above 1 makes low ids hotter.
+    */
+    private long key() {
+      return 10000 + (long) (keys * Math.pow(ThreadLocalRandom.current().nextDouble(), skew));
+    }
+
+    private String path(String name) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      String region = regions[random.nextInt(regions.length)];
+      long id = key();
+      if (name.equals("util")) {
+        return random.nextInt(4) == 0
+            ? "/util/db?id=" + id + "&id=" + key() + "&lang=en"
+            : "/util/db?id=" + id + "&lang=en";
+      }
+
+      String prefix = "/" + name + "/" + region + "/";
+      String lang = name.equals("v2") ? "lang=en" : "";
+      // Only the operations the routes register, hot list, market list and bidding are disabled
+      switch (random.nextInt(7)) {
+        case 0:
+          return prefix + "GetWorldMarketWaitList?" + lang;
+        case 1:
+          return prefix + "GetWorldMarketSubList?id=" + id + "&" + lang;
+        case 2:
+          return prefix + "GetWorldMarketSubList?id=" + id + "&id=" + key() + "&" + lang;
+        case 3:
+          return prefix + "GetWorldMarketSearchList?ids=" + id + "&" + lang;
+        case 4:
+          return prefix + "GetMarketPriceInfo?id=" + id + "&sid=0&" + lang;
+        case 5:
+          return prefix + "item?id=" + id + "&" + lang;
+        default:
+          return prefix + "history?id=" + id + "&sid=0&" + lang;
+      }
+    }
+
+    private Map<Long, Long> allocated() {
+      com.sun.management.ThreadMXBean threads =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      long[] ids = threads.getAllThreadIds();
+      long[] bytes = threads.getThreadAllocatedBytes(ids);
+      Map<Long, Long> allocated = new HashMap<>();
+      for (int i = 0; i < ids.length; i++) {
+        if (bytes[i] >= 0) {
+          allocated.put(ids[i], bytes[i]);
+        }
+      }
+      return allocated;
+    }
+
+    private static long gcCount() {
+      long count = 0;
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+        count += Math.max(0, gc.getCollectionCount());
+      }
+      return count;
+    }
+
+    private static long liveHeap() {
+      long live = 0;
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+        MemoryUsage usage = pool.getCollectionUsage();
+        if (pool.getType() == MemoryType.HEAP && usage != null) {
+          live += usage.getUsed();
+        }
+      }
+      return live;
+    }
+
+    private static long gcTime() {
+      long time = 0;
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+        time += Math.max(0, gc.getCollectionTime());
+      }
+      return time;
+    }
+
+    private void report(Map<String, Histogram> histograms, double seconds, Map<Long, Long> before,
+        Map<Long, Long> after, long[] upstream, long gcs, long gcTime) throws IOException {
+      Histogram all = new Histogram(TimeUnit.SECONDS.toMicros(60), 3);
+      long failed = 0;
+      for (String name : CLASSES) {
+        all.add(histograms.get(name));
+        failed += failures.get(name).get();
+      }
+
+      long apiBytes = 0;
+      long totalBytes = 0;
+      for (Map.Entry<Long, Long> thread : after.entrySet()) {
+        long bytes = thread.getValue() - before.getOrDefault(thread.getKey(), 0L);
+        totalBytes += bytes;
+        if (!excluded.contains(thread.getKey())) {
+          apiBytes += bytes;
+        }
+      }
+
+      PrintStream out = System.out;
+      out.println();
+      out.printf("Load test: %ds after %ds warmup, %d connections, mix %s, %d keys (skew %.1f),"
+          + " upstream %d+%dms, errorRate %s, resetRate %s%n",
+          options.getInteger("duration"), options.getInteger("warmup"), options.getInteger("connections"),
+          options.getString("mix"), keys, skew, options.getInteger("latency"), options.getInteger("jitter"),
+          options.getValue("errorRate"), options.getValue("resetRate"));
+      out.printf("%-6s %10s %8s %10s %9s %9s %9s %9s%n",
+          "class", "requests", "failed", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+      row(out, "all", all, failed, seconds);
+      for (String name : CLASSES) {
+        if (histograms.get(name).getTotalCount() > 0) {
+          row(out, name, histograms.get(name), failures.get(name).get(), seconds);
+        }
+      }
+      long requests = upstream[0] + upstream[1] + upstream[2];
+      out.printf("Upstream: %d requests (%.3f per API request), %d injected errors, %d resets%n",
+          requests, all.getTotalCount() == 0 ? 0.0 : (double) requests / all.getTotalCount(),
+          upstream[1], upstream[2]);
+      out.printf("Allocation: API %.1f MB/s (%.1f KB/request), all threads %.1f MB/s%n",
+          apiBytes / seconds / 1e6, all.getTotalCount() == 0 ? 0.0 : apiBytes / 1024.0 / all.getTotalCount(),
+          totalBytes / seconds / 1e6);
+      out.printf("GC: %d collections, %d ms, %.1f MB heap after last collection%n",
+          gcs, gcTime, liveHeap() / 1e6);
+
+      String histogram = options.getString("histogram");
+      if (histogram != null) {
+        try (PrintStream file = new PrintStream(new FileOutputStream(histogram))) {
+          all.outputPercentileDistribution(file, 1000.0);
+        }
+        out.println("Latency distribution (ms) written to " + histogram);
+      }
+    }
+
+    private static void row(PrintStream out, String name, Histogram histogram, long failed, double seconds) {
+      out.printf("%-6s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+          name, histogram.getTotalCount(), failed, histogram.getTotalCount() / seconds,
+          histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+          histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package io.arsha.api.benchmarks.load;
+
+import io.arsha.api.market.enums.MarketEndpoint;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Stub BDO trade server replaying recorded <code>/Trademarket/*</code> responses.
+ *
+ * <p>Every <code>MarketEndpoint</code> answers with the payload recorded in
+ * <code>&lt;endpoint&gt;.json</code>, either from the <code>payloads</code> directory
+ * or the bundled samples. A directory may also hold payloads per key named
+ * <code>&lt;endpoint&gt;-&lt;mainKey&gt;.json</code>. The placeholders
+ * <code>{mainKey}</code>, <code>{subKey}</code>, <code>{mainCategory}</code>,
+ * <code>{subCategory}</code> and <code>{searchResult}</code> are replaced with the
+ * values of the request body, so one sample serves every item.
+ *
+ * <p>Responses are delayed by <code>latency</code> plus up to <code>jitter</code>
+ * milliseconds. A share of <code>errorRate</code> requests is answered with a 500
+ * and a share of <code>resetRate</code> requests has its connection closed.
+ */
+public final class StubTradeServer {
+  private static final String[] PLACEHOLDERS = {
+    "mainKey", "subKey", "mainCategory", "subCategory", "searchResult"
+  };
+
+  /**
+  * Stub trade server.
+  *
+  * @param vertx  the <code>Vertx</code> instance to serve on
+  * @param config the <code>JsonObject</code> config
+  */
+  public StubTradeServer(final Vertx vertx, final JsonObject config) {
+    this.vertx = vertx;
+    this.port = config.getInteger("port", 0);
+    this.payloadDir = config.getString("payloads");
+    this.latency = config.getLong("latency", 0L);
+    this.jitter = config.getLong("jitter", 0L);
+    this.errorRate = config.getDouble("errorRate", 0.0);
+    this.resetRate = config.getDouble("resetRate", 0.0);
+  }
+
+  private final Vertx vertx;
+  private final int port;
+  private final String payloadDir;
+  private final long latency;
+  private final long jitter;
+  private final double errorRate;
+  private final double resetRate;
+  private final Map<String, String> payloads = new HashMap<>();
+  private final AtomicLong served = new AtomicLong();
+  private final AtomicLong errors = new AtomicLong();
+  private final AtomicLong resets = new AtomicLong();
+  private HttpServer server = null;
+
+  /**
+  * Run a standalone stub, for example to load test a separately started API.
+  *
+  * <p>Arguments are <code>key=value</code> pairs of the config, for example
+  * <code>port=8443 latency=50 jitter=20 errorRate=0.01</code>.
+  *
+  * @param args the config arguments
+  */
+  public static void main(final String[] args) {
+    JsonObject config = new JsonObject().put("port", 8443);
+    for (String arg : args) {
+      String[] option = arg.split("=", 2);
+      config.put(option[0], LoadTest.parse(option[1]));
+    }
+
+    StubTradeServer stub = new StubTradeServer(Vertx.vertx(new VertxOptions()), config);
+    stub.start()
+        .onSuccess(port -> System.out.println("Stub trade server listening on " + port))
+        .onFailure(fail -> {
+          fail.printStackTrace();
+          System.exit(1);
+        });
+  }
+
+  /**
+  * Load the payloads and start listening.
+  *
+  * @return <code>Future&lt;Integer&gt;</code> with the actual port
+  */
+  public Future<Integer> start() {
+    try {
+      loadPayloads();
+    } catch (IOException e) {
+      return Future.failedFuture(e);
+    }
+
+    return vertx.createHttpServer()
+        .requestHandler(this::handle)
+        .listen(port)
+        .onSuccess(listening -> server = listening)
+        .map(HttpServer::actualPort);
+  }
+
+  public Future<Void> stop() {
+    return server == null ? Future.succeededFuture() : server.close();
+  }
+
+  public long getServed() {
+    return served.get();
+  }
+
+  public long getErrors() {
+    return errors.get();
+  }
+
+  public long getResets() {
+    return resets.get();
+  }
+
+  private void loadPayloads() throws IOException {
+    for (MarketEndpoint endpoint : MarketEndpoint.values()) {
+      String name = endpoint.toString() + ".json";
+      try (InputStream sample = StubTradeServer.class.getResourceAsStream("/trademarket/" + name)) {
+        if (sample != null) {
+          payloads.put(endpoint.toString(), new String(sample.readAllBytes(), "UTF-8").trim());
+        }
+      }
+    }
+
+    if (payloadDir != null) {
+      try (Stream<Path> files = Files.list(Paths.get(payloadDir))) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          String name = file.getFileName().toString();
+          if (name.endsWith(".json")) {
+            payloads.put(name.substring(0, name.length() - 5), Files.readString(file).trim());
+          }
+        }
+      }
+    }
+  }
+
+  private void handle(HttpServerRequest request) {
+    request.body().onSuccess(body -> {
+      String path = request.path();
+      String endpoint = path.substring(path.lastIndexOf('/') + 1);
+      JsonObject params = parseBody(body);
+      String payload = payloads.get(endpoint + "-" + params.getValue("mainKey"));
+      if (payload == null) {
+        payload = payloads.get(endpoint);
+      }
+      if (!path.startsWith("/Trademarket/") || payload == null) {
+        request.response().setStatusCode(404).end();
+        return;
+      }
+
+      Buffer response = Buffer.buffer(render(payload, params));
+      long delay = latency + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+      if (delay > 0) {
+        vertx.setTimer(delay, id -> respond(request, response));
+      } else {
+        respond(request, response);
+      }
+    });
+  }
+
+  private void respond(HttpServerRequest request, Buffer response) {
+    double roll = ThreadLocalRandom.current().nextDouble();
+    if (roll < resetRate) {
+      resets.incrementAndGet();
+      request.connection().close();
+    } else if (roll < resetRate + errorRate) {
+      errors.incrementAndGet();
+      request.response().setStatusCode(500).putHeader("Content-Type", "text/html").end("Injected error");
+    } else {
+      served.incrementAndGet();
+      request.response().putHeader("Content-Type", "application/json; charset=utf-8").end(response);
+    }
+  }
+
+  private static JsonObject parseBody(Buffer body) {
+    if (body.length() == 0 || body.getByte(0) != '{') {
+      return new JsonObject();
+    }
+    try {
+      return body.toJsonObject();
+    } catch (Exception e) {
+      return new JsonObject();
+    }
+  }
+
+  private static String render(String payload, JsonObject params) {
+    if (payload.indexOf('{', 1) < 0) {
+      return payload;
+    }
+    for (String name : PLACEHOLDERS) {
+      Object value = params.getValue(name);
+      if (value != null) {
+        payload = payload.replace("{" + name + "}", String.valueOf(value));
+      }
+    }
+    return payload;
+  }
+}
@@ -1,6 +1,7 @@
 package io.arsha.api;
 
 import io.arsha.api.cache.CacheManager;
+import io.arsha.api.cluster.Cluster;
 import io.arsha.api.common.AppConfig;
 import io.arsha.api.market.Marketplace;
 import io.arsha.api.routes.utility.Scraper;
@@ -8,6 +9,7 @@ import io.arsha.api.routes.utility.Utility;
 import io.arsha.api.routes.v1.V1;
 import io.arsha.api.routes.v2.V2;
 import io.arsha.api.util.Util;
+import io.arsha.api.util.metrics.RequestMetrics;
 import io.arsha.api.util.mongodb.Mongo;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.CompositeFuture;
@@ -24,6 +26,10 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.openapi.RouterBuilder;
+import io.vertx.micrometer.Label;
+import io.vertx.micrometer.Match;
+import io.vertx.micrometer.MatchType;
+import io.vertx.micrometer.MetricsDomain;
 import io.vertx.micrometer.MicrometerMetricsOptions;
 import io.vertx.micrometer.VertxPrometheusOptions;
 
@@ -63,14 +69,23 @@ public class API extends AbstractVerticle {
         .setEmbeddedServerOptions(
           new HttpServerOptions().setPort(metrics.getInteger("port")))
         .setEmbeddedServerEndpoint(metrics.getString("endpoint"));
+    // Label HTTP client metrics by remote host so every region reports its own
+    // pool queue; remote labels of the API server itself are collapsed.
     MicrometerMetricsOptions mmOptions = new MicrometerMetricsOptions()
         .setPrometheusOptions(prometheusOptions)
+        .addLabels(Label.REMOTE)
+        .addLabelMatch(new Match()
+            .setDomain(MetricsDomain.HTTP_SERVER)
+            .setLabel(Label.REMOTE.toString())
+            .setType(MatchType.REGEX)
+            .setValue(".*")
+            .setAlias("client"))
         .setEnabled(useMetrics);
     VertxOptions options = new VertxOptions().setMetricsOptions(mmOptions);
 
-    Vertx vertx = Vertx.vertx(options);
     DeploymentOptions deploymentOptions = new DeploymentOptions().setInstances(Runtime.getRuntime().availableProcessors());
-    vertx.deployVerticle(API.class.getName(), deploymentOptions)
+    Cluster.vertx(options, config.getCluster())
+      .compose(vertx -> vertx.deployVerticle(API.class.getName(), deploymentOptions))
       .onSuccess(deploy -> logger.info("Deployed verticle"))
       .onFailure(fail -> logger.error("Failed to deploy: " + fail.getMessage()));
   }
@@ -87,17 +102,40 @@ public class API extends AbstractVerticle {
   public static Future<Void> init(final Vertx vertx) {
     Promise<Void> init = Promise.promise();
     Marketplace.init(vertx, config).onSuccess(mp -> {
-      CompositeFuture.all(
-        CacheManager.init(config),
-        Mongo.init(vertx),
+      CacheManager.init(vertx, config).compose(cache -> CompositeFuture.all(
+        Cluster.init(vertx, config),
+        initDatabase(vertx),
         Scraper.init(vertx)
-      ).onSuccess(cf -> init.complete()
+      )).onSuccess(cf -> init.complete()
       ).onFailure(init::fail);
     }).onFailure(init::fail);
 
     return init.future();
   }
 
+  /**
+   * Connect to the database, waiting for it only if no snapshot is loaded.
+   *
+   * <p>Without a snapshot the first one is built in the background once connected.
+   *
+   * @param vertx the <code>Vertx</code> instance to pass
+   */
+  private static Future<Void> initDatabase(final Vertx vertx) {
+    Future<Void> mongo = Mongo.init(vertx);
+    if (CacheManager.hasSnapshot()) {
+      mongo.onFailure(fail -> logger.warn("Serving from snapshot: " + fail.getMessage()));
+      return Future.succeededFuture();
+    }
+
+    return mongo.onSuccess(connected -> CacheManager.refreshSnapshot()
+        .onFailure(fail -> logger.warn("Failed writing snapshot: " + fail.getMessage())));
+  }
+
+  @Override
+  public final void stop(final Promise<Void> stop) {
+    Cluster.close().onComplete(stop);
+  }
+
   @Override
   public final void start() {
     Util.init(vertx, config).onSuccess(util -> {
@@ -108,7 +146,7 @@ public class API extends AbstractVerticle {
           .setHost(appConfig.getString("host"))
           .setPort(appConfig.getInteger("port"))
           .setCompressionSupported(true)
-          .setCompressionLevel(9);
+          .setCompressionLevel(appConfig.getInteger("compressionLevel", 6));
 
       HttpServer server = vertx.createHttpServer(options);
       RouterBuilder.create(vertx, "api/OpenAPI.yaml").onComplete(builder -> {
@@ -118,6 +156,7 @@ public class API extends AbstractVerticle {
         Utility.registerOperations(rb);
 
         Router mainRouter = rb.createRouter();
+        mainRouter.route().order(-1).handler(RequestMetrics::handle);
         mainRouter.route("/").handler(ctx -> ctx.redirect(config.getDocs()));
         mainRouter.mountSubRouter("/scraper", Scraper.getScraperRouter());
         mainRouter.getRoutes().forEach(Route::disable);
@@ -1,45 +1,79 @@
 package io.arsha.api.cache;
 
+import io.arsha.api.cluster.Cluster;
 import io.arsha.api.common.AppConfig;
+import io.arsha.api.market.MarketResponse;
 import io.arsha.api.market.Marketplace;
 import io.arsha.api.routes.v2.V2;
+import io.arsha.api.util.metrics.Metrics;
 import io.arsha.api.util.mongodb.Mongo;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.circuitbreaker.OpenCircuitException;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.MongoClient;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.cache2k.Cache;
 import org.cache2k.Cache2kBuilder;
+import org.cache2k.io.CacheLoader;
 
+@SuppressWarnings({ "unchecked", "rawtypes" })
 public class CacheManager {
-  private static Map<String, Cache<V1Composite, Future<Buffer>>> v1Cache = new HashMap<>();
-  private static Map<String, Cache<V2Composite, Future<Buffer>>> v2Cache = new HashMap<>();
-  private static Cache<UtilComposite, Future<JsonObject>> itemDBCache = null;
+  private static Logger logger = LoggerFactory.getLogger(CacheManager.class);
+  private static volatile Map<String, RegionShard> shards = Map.of();
+  private static Future<Void> shardsCreated = null;
+  private static Cache<Long, Future<JsonObject>> itemDBCache = null;
   private static Cache<UtilComposite, Future<List<JsonObject>>> fullDBCache = null;
+  private static Cache<UtilComposite, Future<Payload>> dumpCache = null;
+  private static Cache<String, Future<ItemIndex>> itemIndexCache = null;
   private static JsonObject config = new JsonObject();
+  private static Vertx vertx = null;
+  private static volatile Snapshot snapshot = null;
+  private static Future<Void> snapshotLoad = null;
+  private static Future<Void> snapshotRefresh = null;
 
   /**
   * Initialize config and create caches.
   *
+  * @param vtx  the <code>Vertx</code> instance
   * @param conf <code>JsonObject</code> the config
   * @return     <code>Future</code> with success or fail
   */
-  public static Future<Void> init(AppConfig conf) {
+  public static Future<Void> init(Vertx vtx, AppConfig conf) {
     Promise<Void> init = Promise.promise();
+    vertx = vtx;
     config = conf.getCache();
-    CompositeFuture.all(
-        createV1Cache(config.getInteger("v1Expiry")),
-        createV2Cache(config.getInteger("v2Expiry")),
+    CompositeFuture.all(Arrays.asList(
+        loadSnapshot(),
+        createShards(config.getInteger("v1Expiry"), config.getInteger("v2Expiry")),
         createDbCache(config.getInteger("dbExpiry")),
-        createFullDbCache(config.getInteger("fullDBExpiry"))
-    ).onSuccess(done -> {
+        createFullDbCache(config.getInteger("fullDBExpiry")),
+        createDumpCache(config.getInteger("fullDBExpiry")),
+        createItemIndexCache(),
+        RefreshScheduler.init(vertx, config.getJsonObject("refresh", new JsonObject()))
+    )).onSuccess(done -> {
       init.complete();
     }).onFailure(init::fail);
 
@@ -47,97 +81,516 @@ public class CacheManager {
   }
 
   /**
-  * Create cache for V1 requests.
+  * Create the caches of every region once for all verticle instances.
+  *
+  * <p>The shards are built completely and published as an immutable map, so lookups
+  * from any instance never lock and never see a region half created. Each region
+  * is owned by the context of its own <code>RegionVerticle</code>.
+  *
+  * <p>Entries expire unless <code>RefreshScheduler</code> keeps them fresh. The
+  * stale stores keep V1 responses and V2 payloads for the <code>stale</code> windows
+  * past expiry, sharing the <code>stale</code> memory weight.
+  *
+  * <p>With <code>offHeap</code> enabled the heap caches keep only <code>heapEntries</code>
+  * per region and every loaded value is also copied to an <code>OffHeapStore</code>.
+  * The <code>budget</code> in MB is split evenly over the V1 and V2 stores of all
+  * regions and must hold two slabs per store, values larger than a <code>slab</code>
+  * in KB stay on the heap only. V2 stores
+  * keep payloads in their stored form with the compressed element, so payloads restored
+  * from them are never compressed again, see <code>Payload.getStored</code>.
+  *
+  * <p>With a <code>memory</code> budget the heap caches are bounded by the bytes of
+  * their entries instead, see <code>CacheWeights</code>.
+  *
+  * @param v1Expire the time to expire V1 values
+  * @param v2Expire the time to expire V2 values
+  * @return         <code>Future&lt;Void&gt;</code>
+  */
+  public static synchronized Future<Void> createShards(Integer v1Expire, Integer v2Expire) {
+    if (shardsCreated != null) {
+      return shardsCreated;
+    }
+    JsonObject stale = config.getJsonObject("stale", new JsonObject());
+    long grace = Math.max(stale.getLong("revalidate", 300L), stale.getLong("ifError", 3600L));
+    JsonObject offHeap = config.getJsonObject("offHeap", new JsonObject());
+    boolean tiered = offHeap.getBoolean("enabled", false);
+    long capacity = tiered ? offHeap.getLong("heapEntries", 4000L) : 40000L;
+    long tierBudget = offHeap.getLong("budget", 512L) * 1024 * 1024
+        / Math.max(1, 2 * Marketplace.getRegions().size());
+    int slab = offHeap.getInteger("slab", 1024) * 1024;
+    // Every V1 and V2 store of a region needs one slab to write and one to reuse
+    if (tiered && tierBudget / slab < 2) {
+      shardsCreated = Future.failedFuture("offHeap.budget must hold two slabs for each of the "
+          + 2 * Marketplace.getRegions().size() + " off-heap stores");
+      return shardsCreated;
+    }
+    JsonObject memory = config.getJsonObject("memory", new JsonObject());
+    int regions = Marketplace.getRegions().size();
+
+    Map<String, RegionShard> created = new HashMap<>();
+    Future<Void> deployed = Future.succeededFuture();
+    for (String name : Marketplace.getRegions().fieldNames()) {
+      String region = name.toLowerCase();
+      Cache<V1Composite, Future<Buffer>> v1 = CacheWeights.bound(
+          new Cache2kBuilder<V1Composite, Future<Buffer>>() {}
+            .name(region.toUpperCase() + "_V1").expireAfterWrite(v1Expire, TimeUnit.MINUTES)
+            .loader(weighed(() -> getV1Cache(region), CacheManager::loadTieredV1)),
+          memory, "v1", regions, capacity, (key, value) -> CacheWeights.buffer(value)).build();
+      Cache<V2Composite, Future<Payload>> v2 = CacheWeights.bound(
+          new Cache2kBuilder<V2Composite, Future<Payload>>() {}
+            .name(region.toUpperCase() + "_V2").expireAfterWrite(v2Expire, TimeUnit.MINUTES)
+            .loader(weighed(() -> getV2Cache(region), CacheManager::loadTieredV2)),
+          memory, "v2", regions, capacity, (key, value) -> CacheWeights.futurePayload(value)).build();
+      Cache<V1Composite, Stale<Buffer>> v1Stale = CacheWeights.bound(
+          new Cache2kBuilder<V1Composite, Stale<Buffer>>() {}
+            .name(region.toUpperCase() + "_V1_STALE")
+            .expireAfterWrite(TimeUnit.MINUTES.toSeconds(v1Expire) + grace, TimeUnit.SECONDS),
+          memory, "stale", 2 * regions, capacity, (key, value) -> CacheWeights.stale(value)).build();
+      Cache<V2Composite, Payload> stored = CacheWeights.bound(
+          new Cache2kBuilder<V2Composite, Payload>() {}
+            .name(region.toUpperCase() + "_V2_STALE")
+            .expireAfterWrite(TimeUnit.MINUTES.toSeconds(v2Expire) + grace, TimeUnit.SECONDS),
+          memory, "stale", 2 * regions, capacity, (key, value) -> CacheWeights.payload(value)).build();
+      CacheStats.register(v1);
+      CacheStats.register(v2);
+      CacheStats.register(v1Stale);
+      CacheStats.register(stored);
+      CacheWeights.register(v1, region, (key, value) -> CacheWeights.buffer(value));
+      CacheWeights.register(v2, region, (key, value) -> CacheWeights.futurePayload(value));
+      CacheWeights.register(v1Stale, region, (key, value) -> CacheWeights.stale(value));
+      CacheWeights.register(stored, region, (key, value) -> CacheWeights.payload(value));
+      OffHeapStore<V1Composite> v1Tier =
+          tiered ? new OffHeapStore<>(region.toUpperCase() + "_V1", tierBudget, slab) : null;
+      OffHeapStore<V2Composite> v2Tier =
+          tiered ? new OffHeapStore<>(region.toUpperCase() + "_V2", tierBudget, slab) : null;
+      RegionVerticle owner = new RegionVerticle();
+      deployed = deployed.compose(done -> vertx.deployVerticle(owner))
+          .onSuccess(id -> created.put(region,
+              new RegionShard(region, owner.getContext(), v1, v2, v1Stale, stored, v1Tier, v2Tier)))
+          .mapEmpty();
+    }
+    shardsCreated = deployed.onSuccess(done -> shards = Map.copyOf(created));
+    return shardsCreated;
+  }
+
+  /**
+  * Load a market response, the loader of the V1 caches behind the off-heap tier.
+  *
+  * <p>Transient failures are retried with jittered backoff. Requests rejected by an
+  * open circuit or a full dispatcher queue are not retried, their callers fall back
+  * to stale data right away. A request failing all attempts is removed from the
+  * cache, so the next request tries again instead of being served the failure
+  * until expiry. Good responses are kept in the stale store, see <code>fetch</code>.
+  *
+  * <p>Empty (<code>resultMsg</code> <code>0</code>), unknown (<code>resultCode</code>
+  * <code>8</code>) and unparsable responses are answers, not failures. They are
+  * cached, but only for <code>negative.ttl</code> seconds.
+  *
+  * <p>Every outcome is counted as <code>arsha.market.outcome</code> by endpoint.
+  *
+  * @param key the <code>V1Composite</code> to load
+  * @return    <code>Future&lt;Buffer&gt;</code> of the response
+  */
+  static Future<Buffer> loadV1(V1Composite key) {
+    return loadV1(key, false);
+  }
+
+  /**
+  * Load a market response, optionally sent by this node whichever node owns it.
+  *
+  * @param key   the <code>V1Composite</code> to load
+  * @param local true to never forward the request to another node
+  * @return      <code>Future&lt;Buffer&gt;</code> of the response
+  * @see         #loadV1(V1Composite)
+  */
+  private static Future<Buffer> loadV1(V1Composite key, boolean local) {
+    JsonObject stale = config.getJsonObject("stale", new JsonObject());
+    String endpoint = key.getRequestId().toString();
+    AtomicInteger attempts = new AtomicInteger();
+    Future<Buffer> response = retry(() -> {
+      if (attempts.getAndIncrement() > 0) {
+        Metrics.counter("arsha.market.outcome", "endpoint", endpoint, "outcome", "retry").increment();
+      }
+      return local ? Marketplace.requestLocal(key) : Marketplace.request(key);
+    }, CacheManager::isTransient, stale.getInteger("retries", 2), stale.getLong("backoff", 250L));
+
+    response.onComplete(loaded -> {
+      String outcome = loaded.succeeded() ? outcome(loaded.result()) : failure(loaded.cause());
+      Metrics.counter("arsha.market.outcome", "endpoint", endpoint, "outcome", outcome).increment();
+      RegionShard shard = getShard(key.getRegion());
+      if (loaded.failed()) {
+        shard.run(evict -> shard.getV1().removeIfEquals(key, response));
+      } else if (!outcome.equals("ok")) {
+        shard.run(expire -> expireIfEquals(shard.getV1(), key, response, negativeExpiry()));
+      } else {
+        long created = System.currentTimeMillis();
+        shard.getV1Stale().put(key, new Stale<>(loaded.result(), created));
+        if (shard.getV1Tier() != null) {
+          shard.getV1Tier().put(key, loaded.result(), created, 0);
+        }
+        // Responses of forwarded requests are published by their owner
+        if (local || !Cluster.forwards(key)) {
+          Cluster.replicateV1(key, loaded.result());
+        }
+      }
+    });
+    return response;
+  }
+
+  /**
+  * Load a V2 response, the loader of the V2 caches behind the off-heap tier.
+  *
+  * <p>Good payloads are kept in the stale store. Failures never replace them and are
+  * removed from the cache, see <code>loadV1</code>.
+  *
+  * <p>The time to build the payload, including the market request and item names, is
+  * recorded as <code>arsha.cache.load</code>.
+  *
+  * @param key the <code>V2Composite</code> to load
+  * @return    <code>Future&lt;Payload&gt;</code> of the response
+  */
+  static Future<Payload> loadV2(V2Composite key) {
+    Timer.Sample sample = Timer.start();
+    Future<Payload> response = buildV2(key);
+    response.onComplete(done -> sample.stop(Metrics.latency("arsha.cache.load",
+        "region", key.getRegion(),
+        "cache", "v2",
+        "endpoint", key.getRequestId().toString(),
+        "outcome", done.succeeded() ? "ok" : "error")));
+    RegionShard shard = getShard(key.getRegion());
+    response.onSuccess(payload -> {
+      shard.getStale().put(key, payload);
+      Buffer stored = payload.getStored();
+      if (shard.getV2Tier() != null) {
+        shard.getV2Tier().put(key, stored, payload.getCreated(), payload.size());
+      }
+      Cluster.replicateV2(key, stored, payload.size(), payload.getCreated());
+      if (isNegativeV2(key, payload)) {
+        shard.run(expire -> expireIfEquals(shard.getV2(), key, response, negativeExpiry()));
+      }
+    });
+    response.onFailure(fail -> shard.run(evict -> shard.getV2().removeIfEquals(key, response)));
+    return response;
+  }
+
+  /**
+  * Loader of the V1 caches, reading the off-heap tier before the trade market.
+  *
+  * <p>A value restored from the tier expires when it would have in the heap cache.
+  * Refreshes call <code>loadV1</code> directly to replace it.
+  *
+  * @param key the <code>V1Composite</code> to load
+  * @return    <code>Future&lt;Buffer&gt;</code> of the response
+  */
+  private static Future<Buffer> loadTieredV1(V1Composite key) {
+    return loadTieredV1(key, false);
+  }
+
+  private static Future<Buffer> loadTieredV1(V1Composite key, boolean local) {
+    RegionShard shard = getShard(key.getRegion());
+    long expiry = TimeUnit.MINUTES.toMillis(config.getInteger("v1Expiry"));
+    OffHeapStore.Stored stored = shard.getV1Tier() == null ? null
+        : shard.getV1Tier().get(key, System.currentTimeMillis() - expiry);
+    if (stored == null) {
+      return loadV1(key, local);
+    }
+    Future<Buffer> response = Future.succeededFuture(stored.getValue());
+    shard.run(expire -> expireIfEquals(shard.getV1(), key, response, stored.getCreated() + expiry));
+    return response;
+  }
+
+  /**
+  * Loader of the V2 caches, reading the off-heap tier before building the payload.
+  *
+  * @param key the <code>V2Composite</code> to load
+  * @return    <code>Future&lt;Payload&gt;</code> of the response
+  * @see       #loadTieredV1(V1Composite)
+  */
+  private static Future<Payload> loadTieredV2(V2Composite key) {
+    RegionShard shard = getShard(key.getRegion());
+    long expiry = TimeUnit.MINUTES.toMillis(config.getInteger("v2Expiry"));
+    OffHeapStore.Stored stored = shard.getV2Tier() == null ? null
+        : shard.getV2Tier().get(key, System.currentTimeMillis() - expiry);
+    if (stored == null) {
+      return loadV2(key);
+    }
+    Future<Payload> response = Future.succeededFuture(
+        Payload.restore(stored.getValue(), stored.getMeta(), stored.getCreated()));
+    shard.run(expire -> expireIfEquals(shard.getV2(), key, response, stored.getCreated() + expiry));
+    return response;
+  }
+
+  /**
+  * Classify a market response.
+  *
+  * @param body the market response
+  * @return     <code>ok</code>, <code>empty</code>, <code>unknown</code> or <code>invalid</code>
+  */
+  private static String outcome(Buffer body) {
+    try {
+      MarketResponse response = MarketResponse.parse(body);
+      if (response.getResultCode() == 8) {
+        return "unknown";
+      }
+      return "0".equals(response.getResultMsg()) ? "empty" : "ok";
+    } catch (DecodeException e) {
+      return "invalid";
+    }
+  }
+
+  private static boolean isTransient(Throwable fail) {
+    return !(fail instanceof OpenCircuitException) && !(fail instanceof RejectedExecutionException);
+  }
+
+  private static String failure(Throwable fail) {
+    if (fail instanceof OpenCircuitException) {
+      return "open";
+    }
+    return fail instanceof RejectedExecutionException ? "shed" : "error";
+  }
+
+  /**
+  * Check if a V1 response is a negative answer, cached for <code>negative.ttl</code> only.
+  *
+  * @param key  the <code>V1Composite</code> of the response
+  * @param body the market response
+  * @return     true if the market answered empty, unknown or invalid
+  */
+  static boolean isNegativeV1(V1Composite key, Buffer body) {
+    return !outcome(body).equals("ok");
+  }
+
+  /**
+  * Check if a V2 payload was built from a negative V1 answer.
+  *
+  * @param key     the <code>V2Composite</code> of the payload
+  * @param payload the payload
+  * @return        true if the cached parent response is a negative answer
+  * @see           #isNegativeV1(V1Composite, Buffer)
+  */
+  static boolean isNegativeV2(V2Composite key, Payload payload) {
+    Future<Buffer> parent = getShard(key.getRegion()).getV1().peek(key.getParent());
+    return parent != null && parent.succeeded() && isNegativeV1(key.getParent(), parent.result());
+  }
+
+  static long negativeExpiry() {
+    JsonObject negative = config.getJsonObject("negative", new JsonObject());
+    return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(negative.getLong("ttl", 60L));
+  }
+
+  /**
+  * Wrap a loader so its values are weighed again once they finished loading.
+  *
+  * <p>A value still loading when inserted only weighs <code>CacheWeights.ENTRY</code>.
+  * Failed values are removed once inserted, so a failure is never served until expiry
+  * and the next request loads again.
+  *
+  * @param cache  the <code>Cache</code> of the loader, read once values completed
+  * @param loader the loader
+  * @return       the <code>CacheLoader</code>
+  */
+  private static <K, V> CacheLoader<K, Future<V>> weighed(Supplier<Cache<K, Future<V>>> cache,
+      Function<K, Future<V>> loader) {
+    return key -> {
+      Future<V> value = loader.apply(key);
+      if (!value.isComplete()) {
+        value.onSuccess(loaded -> vertx.runOnContext(weigh -> CacheWeights.reweigh(cache.get(), key, value)));
+      }
+      value.onFailure(fail -> vertx.runOnContext(evict -> cache.get().removeIfEquals(key, value)));
+      return value;
+    };
+  }
+
+  /**
+  * Shorten the expiry of an entry unless it was replaced meanwhile.
+  *
+  * @param cache  the <code>Cache</code> of the entry
+  * @param key    the key of the entry
+  * @param value  the value the entry must still hold
+  * @param expiry the new expiry time in epoch milliseconds
+  */
+  private static <K, V> void expireIfEquals(Cache<K, V> cache, K key, V value, long expiry) {
+    cache.invoke(key, entry -> {
+      if (entry.exists() && entry.getValue() == value) {
+        entry.setExpiryTime(expiry);
+      }
+      return null;
+    });
+  }
+
+  private static Future<Payload> buildV2(V2Composite key) {
+    Future<Payload> cached = Future.future(null);
+    switch (key.getRequestId()) {
+      case GetWorldMarketHotList:
+        cached = V2.getHotList(key);
+        break;
+      case GetWorldMarketList:
+        cached = V2.getMarketList(key);
+        break;
+      case GetWorldMarketSubList:
+        cached = V2.getSubListItem(key);
+        break;
+      case GetWorldMarketSearchList:
+        cached = V2.getSearchItem(key);
+        break;
+      case GetBiddingInfoList:
+        cached = V2.getBiddingList(key);
+        break;
+      case GetMarketPriceInfo:
+        cached = V2.getPriceInfo(key);
+        break;
+      default:
+        break;
+    }
+    return cached;
+  }
+
+  /**
+  * Retry a request with exponential backoff.
+  *
+  * <p>Each delay is drawn between half and the full backoff, so requests failing
+  * together during an upstream blip do not retry in lockstep.
+  *
+  * @param request   the request to send
+  * @param retryable true for failures worth retrying
+  * @param retries   the amount of retries after the first attempt
+  * @param backoff   the maximum delay before the first retry in milliseconds, doubled per retry
+  * @return          <code>Future</code> of the first successful attempt or the last failure
+  */
+  private static <T> Future<T> retry(Supplier<Future<T>> request, Predicate<Throwable> retryable,
+      int retries, long backoff) {
+    return request.get().recover(fail -> {
+      if (retries <= 0 || !retryable.test(fail)) {
+        return Future.failedFuture(fail);
+      }
+      Promise<T> retried = Promise.promise();
+      long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+      vertx.setTimer(Math.max(1L, delay), id ->
+          retry(request, retryable, retries - 1, backoff * 2).onComplete(retried));
+      return retried.future();
+    });
+  }
+
+  /**
+  * Create cache for utility requests by id.
+  *
+  * <p>cache2k has no primitive keyed cache, the packed <code>DbKey</code> is used as
+  * boxed <code>Long</code> which hashes and compares as a single value.
   *
   * @param expire the time to expire values
   * @return <code>Future&lt;Void&gt;</code>
   */
-  public static Future<Void> createV1Cache(Integer expire) {
+  public static Future<Void> createDbCache(Integer expire) {
     return Future.future(cache -> {
-      JsonObject regions = Marketplace.getRegions();
-      regions.forEach(entry -> {
-        String region = entry.getKey();
-        try {
-          v1Cache.put(region.toLowerCase(), new Cache2kBuilder<V1Composite, Future<Buffer>>() {}
-              .name(region.toUpperCase() + "_V1").expireAfterWrite(expire, TimeUnit.MINUTES)
-              .refreshAhead(true).entryCapacity(40000).loader(Marketplace::request).build());
-        } catch (Exception e) {
-          // System.out.println("Skipping duplicate cache creation");
-        }
-      });
+      try {
+        itemDBCache = CacheWeights.bound(new Cache2kBuilder<Long, Future<JsonObject>>() {}
+          .name("ITEM_DB").expireAfterWrite(expire, TimeUnit.MINUTES)
+          .refreshAhead(true)
+          .loader(weighed(() -> itemDBCache, CacheManager::loadItem)),
+          config.getJsonObject("memory", new JsonObject()), "itemDB", 1, 40000,
+          (key, value) -> CacheWeights.json(value)).build();
+        CacheStats.register(itemDBCache);
+        CacheWeights.register(itemDBCache, "none", (key, value) -> CacheWeights.json(value));
+      } catch (Exception e) {
+        // System.out.println("Skipping duplicate cache creation");
+      }
       cache.complete();
     });
   }
 
   /**
-  * Create cache for V2 requests.
+  * Load an item document from the snapshot or the database.
+  *
+  * @param key the packed <code>DbKey</code> of the item
+  * @return    <code>Future&lt;JsonObject&gt;</code> of the document
+  */
+  private static Future<JsonObject> loadItem(Long key) {
+    String collection = DbKey.collection(key);
+    long id = DbKey.id(key);
+    Snapshot db = snapshot;
+    if (db != null && db.contains(collection)) {
+      Buffer document = db.getBytes(collection, id);
+      return document == null ? Future.succeededFuture()
+          : CacheWeights.sized(Future.succeededFuture(document.toJsonObject()), document.length());
+    }
+
+    MongoClient client = collection.contains("recipe")
+        ? Mongo.getRecipeClient() : Mongo.getItemClient();
+    // Not connected yet, serving from a snapshot only
+    if (client == null) {
+      return Future.failedFuture("Database is unreachable");
+    }
+    JsonObject query = new JsonObject().put("id", id);
+    if (collection.contains("recipe")) {
+      return Mongo.getRecipe(collection, query);
+    } else {
+      return Mongo.getItem(collection, query);
+    }
+  }
+
+  /**
+  * Create cache for full db requests.
   *
   * @param expire the time to expire values
   * @return <code>Future&lt;Void&gt;</code>
   */
-  public static Future<Void> createV2Cache(Integer expire) {
+  public static Future<Void> createFullDbCache(Integer expire) {
     return Future.future(cache -> {
-      JsonObject regions = Marketplace.getRegions();
-      regions.forEach(entry -> {
-        String region = entry.getKey();
-
-        try {
-          v2Cache.put(region.toLowerCase(), new Cache2kBuilder<V2Composite, Future<Buffer>>() {}
-            .name(region.toUpperCase() + "_V2").expireAfterWrite(expire, TimeUnit.MINUTES)
-            .refreshAhead(true).entryCapacity(40000)
-            .loader(key -> {
-              Future<Buffer> cached = Future.future(null);
-              switch (key.getRequestId()) {
-                case GetWorldMarketHotList:
-                  cached = V2.getHotList(key);
-                  break;
-                case GetWorldMarketList:
-                  cached = V2.getMarketList(key);
-                  break;
-                case GetWorldMarketSubList:
-                  cached = V2.getSubListItem(key);
-                  break;
-                case GetWorldMarketSearchList:
-                  cached = V2.getSearchItem(key);
-                  break;
-                case GetBiddingInfoList:
-                  cached = V2.getBiddingList(key);
-                  break;
-                case GetMarketPriceInfo:
-                  cached = V2.getPriceInfo(key);
-                  break;
-                default:
-                  break;
-              }
-              return cached;
-            }).build());
-        } catch (Exception e) {
-          // System.out.println("Skipping duplicate cache creation");
-        }
-      });
+      try {
+        fullDBCache = CacheWeights.bound(new Cache2kBuilder<UtilComposite, Future<List<JsonObject>>>() {}
+          .name("FULL_ITEM_DB").expireAfterWrite(expire, TimeUnit.MINUTES)
+          .loader(weighed(() -> fullDBCache, key -> {
+            Snapshot db = snapshot;
+            if (db != null && db.contains(key.getCollection()) && key.getQuery().isEmpty()) {
+              return vertx.executeBlocking(decode ->
+                  decode.complete(db.getCollection(key.getCollection())), false);
+            }
+
+            MongoClient client = key.getCollection().contains("recipe")
+                ? Mongo.getRecipeClient() : Mongo.getItemClient();
+            // Not connected yet, serving from a snapshot only
+            if (client == null) {
+              return Future.failedFuture("Database is unreachable");
+            }
+            return client.find(key.getCollection(), key.getQuery());
+          })), config.getJsonObject("memory", new JsonObject()), "fullDB", 1, 20,
+          (key, value) -> CacheWeights.jsonList(value)).build();
+        CacheStats.register(fullDBCache);
+        CacheWeights.register(fullDBCache, "none", (key, value) -> CacheWeights.jsonList(value));
+      } catch (Exception e) {
+        // System.out.println("Skipping duplicate cache creation");
+      }
       cache.complete();
     });
   }
 
   /**
-  * Create cache for utility requests.
+  * Create cache for encoded and compressed full db responses.
+  *
+  * <p>Entries are built from the full db cache once and compressed on a worker
+  * thread, so the multi megabyte dumps are never compressed per request.
   *
   * @param expire the time to expire values
   * @return <code>Future&lt;Void&gt;</code>
   */
-  public static Future<Void> createDbCache(Integer expire) {
+  public static Future<Void> createDumpCache(Integer expire) {
     return Future.future(cache -> {
       try {
-        itemDBCache = new Cache2kBuilder<UtilComposite, Future<JsonObject>>() {}
-          .name("ITEM_DB").expireAfterWrite(expire, TimeUnit.MINUTES)
-          .refreshAhead(true).entryCapacity(40000)
-          .loader(key -> {
-            if (key.getCollection().contains("recipe")) {
-              return Mongo.getRecipe(key.getCollection(), key.getQuery());
-            } else {
-              return Mongo.getItem(key.getCollection(), key.getQuery());
-            }
-          }).build();
+        dumpCache = CacheWeights.bound(new Cache2kBuilder<UtilComposite, Future<Payload>>() {}
+          .name("FULL_ITEM_DB_DUMP").expireAfterWrite(expire, TimeUnit.MINUTES)
+          .loader(weighed(() -> dumpCache, key -> getFullDbCache().get(key).compose(db ->
+            vertx.executeBlocking(encode -> {
+              JsonArray items = new JsonArray();
+              for (JsonObject item : db) {
+                items.add(item.copy());
+                items.getJsonObject(items.size() - 1).remove("_id");
+              }
+              encode.complete(Payload.of(items));
+            }, false)
+          ))), config.getJsonObject("memory", new JsonObject()), "dump", 1, 100,
+          (key, value) -> CacheWeights.futurePayload(value)).build();
+        CacheStats.register(dumpCache);
+        CacheWeights.register(dumpCache, "none", (key, value) -> CacheWeights.futurePayload(value));
       } catch (Exception e) {
         // System.out.println("Skipping duplicate cache creation");
       }
@@ -146,23 +599,33 @@ public class CacheManager {
   }
 
   /**
-  * Create cache for full db requests.
+  * Create cache for the item indexes of each language.
+  *
+  * <p>Indexes are built in bulk from the snapshot or the database and kept until
+  * the snapshot is refreshed.
   *
-  * @param expire the time to expire values
   * @return <code>Future&lt;Void&gt;</code>
   */
-  public static Future<Void> createFullDbCache(Integer expire) {
+  public static Future<Void> createItemIndexCache() {
     return Future.future(cache -> {
       try {
-        fullDBCache = new Cache2kBuilder<UtilComposite, Future<List<JsonObject>>>() {}
-          .name("FULL_ITEM_DB").expireAfterWrite(expire, TimeUnit.MINUTES).entryCapacity(20)
-          .loader(key -> {
-            if (key.getCollection().contains("recipe")) {
-              return Mongo.getRecipeClient().find(key.getCollection(), key.getQuery());
-            } else {
-              return Mongo.getItemClient().find(key.getCollection(), key.getQuery());
+        itemIndexCache = CacheWeights.bound(new Cache2kBuilder<String, Future<ItemIndex>>() {}
+          .name("ITEM_INDEX").eternal(true)
+          .loader(weighed(() -> itemIndexCache, collection -> {
+            Snapshot db = snapshot;
+            if (db != null && db.contains(collection)) {
+              return vertx.executeBlocking(build ->
+                  build.complete(ItemIndex.of(db, collection)), false);
+            }
+            // Not connected yet, failures are removed and loaded again, see weighed
+            if (Mongo.getItemClient() == null) {
+              return Future.failedFuture("Database is unreachable");
             }
-          }).build();
+            return Mongo.getItemDB(collection).map(documents -> ItemIndex.of(collection, documents));
+          })), config.getJsonObject("memory", new JsonObject()), "itemIndex", 1, 100,
+          (key, value) -> CacheWeights.index(value)).build();
+        CacheStats.register(itemIndexCache);
+        CacheWeights.register(itemIndexCache, "none", (key, value) -> CacheWeights.index(value));
       } catch (Exception e) {
         // System.out.println("Skipping duplicate cache creation");
       }
@@ -171,37 +634,380 @@ public class CacheManager {
   }
 
   /**
-  * Get cache for V1 requests.
+  * Map the snapshot configured as <code>snapshot</code> once for all verticle instances.
+  *
+  * <p>A missing or unreadable snapshot is not an error, the caches then load from
+  * the database until a snapshot is written by <code>refreshSnapshot</code>.
+  *
+  * @return <code>Future&lt;Void&gt;</code> completed once the snapshot was tried
+  */
+  private static synchronized Future<Void> loadSnapshot() {
+    if (snapshotLoad == null) {
+      String path = config.getString("snapshot", "data/snapshot.bin");
+      snapshotLoad = Snapshot.load(vertx, path).onSuccess(loaded -> {
+        snapshot = loaded;
+        logger.info("Loaded snapshot " + path + " with " + loaded.getCollections().size() + " collections");
+      }).<Void>mapEmpty().recover(fail -> {
+        logger.warn("No usable snapshot at " + path + ": " + fail.getMessage());
+        return Future.succeededFuture();
+      });
+    }
+    return snapshotLoad;
+  }
+
+  /**
+  * Read all item and recipe collections from the database, write them to a new
+  * snapshot and swap it in.
+  *
+  * <p>The file is replaced atomically and the snapshot backed caches are cleared
+  * after the swap, so readers see either the old or the new data. Concurrent
+  * calls share a single refresh.
+  *
+  * @return <code>Future&lt;Void&gt;</code> with success or fail
+  */
+  public static synchronized Future<Void> refreshSnapshot() {
+    if (snapshotRefresh != null) {
+      return snapshotRefresh;
+    }
+    if (Mongo.getItemClient() == null || Mongo.getRecipeClient() == null) {
+      return Future.failedFuture("Database not initialized");
+    }
+
+    String path = config.getString("snapshot", "data/snapshot.bin");
+    Map<String, List<JsonObject>> collections = new ConcurrentHashMap<>();
+    Future<Void> refresh = CompositeFuture.all(
+        readAll(Mongo.getItemClient(), collections),
+        readAll(Mongo.getRecipeClient(), collections)
+    ).compose(read -> Snapshot.write(vertx, path, collections)
+    ).compose(written -> Snapshot.load(vertx, path)
+    ).onSuccess(loaded -> {
+      snapshot = loaded;
+      getDbCache().clear();
+      getFullDbCache().clear();
+      getDumpCache().clear();
+      itemIndexCache.clear();
+      logger.info("Refreshed snapshot " + path + " with " + collections.size() + " collections");
+    }).mapEmpty();
+
+    snapshotRefresh = refresh;
+    refresh.onComplete(done -> {
+      synchronized (CacheManager.class) {
+        if (snapshotRefresh == refresh) {
+          snapshotRefresh = null;
+        }
+      }
+    });
+    return refresh;
+  }
+
+  private static Future<Void> readAll(MongoClient client, Map<String, List<JsonObject>> collections) {
+    return client.getCollections().compose(names -> {
+      List<Future> reads = new ArrayList<>();
+      for (String name : names) {
+        reads.add(client.find(name, new JsonObject())
+            .onSuccess(documents -> collections.put(name, documents)));
+      }
+      return CompositeFuture.all(reads);
+    }).mapEmpty();
+  }
+
+  /**
+  * Check if the caches are backed by a snapshot.
+  *
+  * @return true if a snapshot is loaded
+  */
+  public static boolean hasSnapshot() {
+    return snapshot != null;
+  }
+
+  public static Snapshot getSnapshot() {
+    return snapshot;
+  }
 
+  /**
+  * Get the caches of a region.
+  *
+  * <p>Reads the published shards without locking.
+  *
+  * @param region the region of the request
+  * @return       the <code>RegionShard</code> or <code>null</code> for unknown regions
+  *               and before <code>init</code> completed
+  */
+  public static RegionShard getShard(String region) {
+    return shards.get(region.toLowerCase());
+  }
+
+  /**
+  * Get cache for V1 requests.
+  *
   * @param region the region of the request
   * @return       the <code>Cache&lt;V1Composite, Future&lt;Buffer&gt;&gt;</code>
   */
   public static Cache<V1Composite, Future<Buffer>> getV1Cache(String region) {
-    if (v1Cache.isEmpty()) {
-      createV1Cache(config.getInteger("v1Expiry"));
-    }
-    return v1Cache.get(region.toLowerCase());
+    return getShard(region).getV1();
   }
 
   /**
   * Get cache for V2 requests.
   *
   * @param region the region of the request
-  * @return       the <code>Cache&lt;V2Composite, Future&lt;Buffer&gt;&gt;</code>
+  * @return       the <code>Cache&lt;V2Composite, Future&lt;Payload&gt;&gt;</code>
+  */
+  public static Cache<V2Composite, Future<Payload>> getV2Cache(String region) {
+    return getShard(region).getV2();
+  }
+
+  /**
+  * Get a V1 response for a client request.
+  *
+  * <p>The request is counted by <code>RefreshScheduler</code> to keep popular keys
+  * fresh. Internal lookups use <code>getV1Cache</code> directly.
+  *
+  * <p>Expired and failing keys fall back to the last good response, see
+  * <code>fetch</code>.
+  *
+  * @param key the <code>V1Composite</code> requested
+  * @return    <code>Future&lt;Buffer&gt;</code> of the response
+  */
+  public static Future<Buffer> fetchV1(V1Composite key) {
+    Timer.Sample sample = Timer.start();
+    RegionShard shard = getShard(key.getRegion());
+    Future<Buffer> current = shard.getV1().peek(key);
+    RefreshScheduler.requestedV1(key, current != null && current.succeeded());
+    return fetch(sample, shard.getV1(), key, current, "v1", "none",
+        config.getInteger("v1Expiry"), () -> lastResponse(shard, key));
+  }
+
+  /**
+  * Get a V2 response for a client request.
+  *
+  * <p>The request is counted by <code>RefreshScheduler</code> to keep popular keys
+  * fresh. Internal lookups use <code>getV2Cache</code> directly.
+  *
+  * <p>Expired and failing keys fall back to the last good payload, see
+  * <code>fetch</code>. <code>Payload.getAge()</code> tells clients how old the served
+  * data is.
+  *
+  * @param key the <code>V2Composite</code> requested
+  * @return    <code>Future&lt;Payload&gt;</code> of the response
+  */
+  public static Future<Payload> fetchV2(V2Composite key) {
+    Timer.Sample sample = Timer.start();
+    RegionShard shard = getShard(key.getRegion());
+    Future<Payload> current = shard.getV2().peek(key);
+    RefreshScheduler.requestedV2(key, current != null && current.succeeded());
+    return fetch(sample, shard.getV2(), key, current, "v2", key.getLang(),
+        config.getInteger("v2Expiry"), () -> {
+          Payload last = lastPayload(shard, key);
+          return last == null ? null : new Stale<>(last, last.getCreated());
+        });
+  }
+
+  /**
+  * Serve a cached value or the last good value of its key.
+  *
+  * <p>If the entry expired or is loading, the last good value is served right away
+  * while it was expired for at most <code>stale.revalidate</code> seconds
+  * (stale-while-revalidate). Older values are only served if the reload fails and
+  * they expired at most <code>stale.ifError</code> seconds ago (stale-if-error).
+  *
+  * <p>The time until the value is available is recorded as
+  * <code>arsha.cache.fetch</code> with outcome <code>hit</code>, <code>miss</code>,
+  * <code>stale</code> or <code>error</code>.
+  *
+  * @param sample  the <code>Timer.Sample</code> started with the request
+  * @param cache   the <code>Cache</code> of the key
+  * @param key     the requested key
+  * @param current the cached value or <code>null</code>
+  * @param name    the cache, <code>v1</code> or <code>v2</code>
+  * @param lang    the language of the key or <code>none</code>
+  * @param expiry  the time values of the cache expire after in minutes
+  * @param stored  gets the last good value or <code>null</code>
+  * @return        <code>Future</code> of the value
+  */
+  private static <K extends V1Composite, V> Future<V> fetch(Timer.Sample sample,
+      Cache<K, Future<V>> cache, K key, Future<V> current, String name, String lang, int expiry,
+      Supplier<Stale<V>> stored) {
+    if (current != null && current.succeeded()) {
+      return timed(sample, current, key, name, lang, "hit", null);
+    }
+
+    if (current != null && current.failed()) {
+      cache.removeIfEquals(key, current);
+    }
+    Future<V> load = cache.get(key);
+    JsonObject stale = config.getJsonObject("stale", new JsonObject());
+    Stale<V> last = !stale.getBoolean("enabled", true) || load.succeeded() ? null : stored.get();
+    if (last == null) {
+      return timed(sample, load, key, name, lang, "miss", null);
+    }
+
+    long expired = System.currentTimeMillis() - last.getCreated() - TimeUnit.MINUTES.toMillis(expiry);
+    if (expired <= TimeUnit.SECONDS.toMillis(stale.getLong("revalidate", 300L))) {
+      return timed(sample, Future.succeededFuture(last.getValue()), key, name, lang, "stale", null);
+    }
+    return timed(sample, load.recover(fail -> {
+      if (expired <= TimeUnit.SECONDS.toMillis(stale.getLong("ifError", 3600L))) {
+        return Future.succeededFuture(last.getValue());
+      }
+      return Future.failedFuture(fail);
+    }), key, name, lang, "miss", last.getValue());
+  }
+
+  /**
+  * Store a market response another cluster node loaded.
+  *
+  * <p>The response replaces the cached one and expires like a local load. It is kept
+  * in the stale store as well, see <code>loadV1</code>. Pending local loads still
+  * complete for their callers.
+  *
+  * @param key      the <code>V1Composite</code> of the response
+  * @param response the market response
+  */
+  public static void adoptV1(V1Composite key, Buffer response) {
+    RegionShard shard = getShard(key.getRegion());
+    if (shard == null) {
+      return;
+    }
+    shard.run(adopt -> {
+      long created = System.currentTimeMillis();
+      shard.getV1().put(key, Future.succeededFuture(response));
+      shard.getV1Stale().put(key, new Stale<>(response, created));
+      if (shard.getV1Tier() != null) {
+        shard.getV1Tier().put(key, response, created, 0);
+      }
+    });
+  }
+
+  /**
+  * Store a V2 payload another cluster node built.
+  *
+  * <p>The payload is kept in the stale store as well, see <code>loadV2</code>.
+  *
+  * @param key      the <code>V2Composite</code> of the payload
+  * @param stored   the stored form of the payload, see <code>Payload.getStored</code>
+  * @param elements the amount of elements, <code>-1</code> for a JSON object
+  * @param created  the time the payload was built in epoch milliseconds
+  */
+  public static void adoptV2(V2Composite key, Buffer stored, int elements, long created) {
+    RegionShard shard = getShard(key.getRegion());
+    if (shard == null) {
+      return;
+    }
+    Payload payload = Payload.restore(stored, elements, created);
+    shard.run(adopt -> {
+      shard.getV2().put(key, Future.succeededFuture(payload));
+      shard.getStale().put(key, payload);
+      if (shard.getV2Tier() != null) {
+        shard.getV2Tier().put(key, stored, created, elements);
+      }
+    });
+  }
+
+  /**
+  * Get a market response for a request another cluster node forwarded to this node.
+  *
+  * <p>The cached response is served if it was loaded at most <code>maxAge</code>
+  * milliseconds ago, is still loading or is a negative answer, so the forwarding node
+  * caches it for at most that much longer than this node. Otherwise it is loaded again and replaces the
+  * cached one, which publishes it to every node.
+  *
+  * <p>Loads are always sent by this node. If the nodes briefly disagree on the owner
+  * of the key, forwarding it again could bounce it back and wait on itself.
+  *
+  * @param key    the <code>V1Composite</code> of the request
+  * @param maxAge the oldest cached response served in milliseconds
+  * @return       <code>Future&lt;Buffer&gt;</code> of the response
   */
-  public static Cache<V2Composite, Future<Buffer>> getV2Cache(String region) {
-    if (v2Cache.isEmpty()) {
-      createV2Cache(config.getInteger("v2Expiry"));
+  public static Future<Buffer> serveOwned(V1Composite key, long maxAge) {
+    RegionShard shard = getShard(key.getRegion());
+    Cache<V1Composite, Future<Buffer>> cache = shard.getV1();
+    long ttl = TimeUnit.MINUTES.toMillis(config.getInteger("v1Expiry"));
+    long fresh = System.currentTimeMillis() + ttl - maxAge;
+    long expiry = cache.invoke(key, entry -> !entry.exists() ? 0L
+        : entry.getValue().isComplete() ? Math.abs(entry.getExpiryTime()) : Long.MAX_VALUE);
+    Future<Buffer> cached = expiry == 0L ? null : cache.peek(key);
+    // Negative answers expire within negative.ttl anyway
+    if (cached != null
+        && (expiry >= fresh || cached.failed() || !outcome(cached.result()).equals("ok"))) {
+      return cached;
+    }
+
+    Future<Buffer> loaded = cached == null ? loadTieredV1(key, true) : loadV1(key, true);
+    cache.put(key, loaded);
+    loaded.onSuccess(done -> shard.run(reweigh -> CacheWeights.reweigh(cache, key, loaded)));
+    return loaded;
+  }
+
+  /**
+  * Get the last good response of a key from the stale store or the off-heap tier.
+  *
+  * @param shard the <code>RegionShard</code> of the key
+  * @param key   the <code>V1Composite</code>
+  * @return      the last response or <code>null</code>
+  */
+  private static Stale<Buffer> lastResponse(RegionShard shard, V1Composite key) {
+    Stale<Buffer> last = shard.getV1Stale().peek(key);
+    if (last == null && shard.getV1Tier() != null) {
+      OffHeapStore.Stored stored = shard.getV1Tier().get(key, 0);
+      if (stored != null) {
+        last = new Stale<>(stored.getValue(), stored.getCreated());
+        shard.getV1Stale().put(key, last);
+      }
     }
-    return v2Cache.get(region.toLowerCase());
+    return last;
+  }
+
+  /**
+  * Get the last good payload of a key from the stale store or the off-heap tier.
+  *
+  * @param shard the <code>RegionShard</code> of the key
+  * @param key   the <code>V2Composite</code>
+  * @return      the last <code>Payload</code> or <code>null</code>
+  */
+  private static Payload lastPayload(RegionShard shard, V2Composite key) {
+    Payload last = shard.getStale().peek(key);
+    if (last == null && shard.getV2Tier() != null) {
+      OffHeapStore.Stored stored = shard.getV2Tier().get(key, 0);
+      if (stored != null) {
+        last = Payload.restore(stored.getValue(), stored.getMeta(), stored.getCreated());
+        shard.getStale().put(key, last);
+      }
+    }
+    return last;
+  }
+
+  /**
+  * Record the time until a fetched value is available.
+  *
+  * @param sample  the <code>Timer.Sample</code> started with the fetch
+  * @param fetch   the <code>Future</code> of the value
+  * @param key     the requested key
+  * @param cache   the cache, <code>v1</code> or <code>v2</code>
+  * @param lang    the language of the key or <code>none</code>
+  * @param outcome the outcome if the fetch succeeds
+  * @param stale   the stale value the fetch may fall back to, recorded as <code>stale</code>
+  * @return        <code>fetch</code>
+  */
+  private static <T> Future<T> timed(Timer.Sample sample, Future<T> fetch, V1Composite key,
+      String cache, String lang, String outcome, T stale) {
+    fetch.onComplete(done -> sample.stop(Metrics.latency("arsha.cache.fetch",
+        "region", key.getRegion(),
+        "cache", cache,
+        "endpoint", key.getRequestId().toString(),
+        "lang", lang,
+        "outcome", done.failed() ? "error" : stale != null && done.result() == stale ? "stale" : outcome)));
+    return fetch;
   }
 
   /**
-  * Get cache for database requests.
+  * Get cache for database requests by id.
+  *
+  * <p>Keys are packed with <code>DbKey.of(collection, id)</code>.
   *
-  * @return the <code>Cache&lt;V1Composite, Future&lt;JsonObject&gt;&gt;</code>
+  * @return the <code>Cache&lt;Long, Future&lt;JsonObject&gt;&gt;</code>
   */
-  public static Cache<UtilComposite, Future<JsonObject>> getDbCache() {
+  public static Cache<Long, Future<JsonObject>> getDbCache() {
     if (itemDBCache == null) {
       createDbCache(config.getInteger("dbExpiry"));
     }
@@ -220,4 +1026,39 @@ public class CacheManager {
     return fullDBCache;
   }
 
+  /**
+  * Get cache for encoded full database responses.
+  *
+  * @return the <code>Cache&lt;UtilComposite, Future&lt;Payload&gt;&gt;</code>
+  */
+  public static Cache<UtilComposite, Future<Payload>> getDumpCache() {
+    if (dumpCache == null) {
+      createDumpCache(config.getInteger("fullDBExpiry"));
+    }
+    return dumpCache;
+  }
+
+  /**
+  * Get the item index of a language.
+  *
+  * <p>Failed builds are not kept so the next call tries again. The time until the
+  * index is available, which item names and documents wait on, is recorded as
+  * <code>arsha.db.lookup</code> by collection and language.
+  *
+  * @param collection the name of the item collection, the language
+  * @return           <code>Future&lt;ItemIndex&gt;</code> of the collection
+  */
+  public static Future<ItemIndex> getItemIndex(String collection) {
+    if (itemIndexCache == null) {
+      createItemIndexCache();
+    }
+    Timer.Sample sample = Timer.start();
+    Future<ItemIndex> index = itemIndexCache.get(collection);
+    index.onComplete(done -> sample.stop(Metrics.latency("arsha.db.lookup",
+        "collection", "items",
+        "lang", collection,
+        "outcome", done.succeeded() ? "ok" : "error")));
+    index.onFailure(fail -> itemIndexCache.removeIfEquals(collection, index));
+    return index;
+  }
 }
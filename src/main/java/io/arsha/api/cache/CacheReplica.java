@@ -0,0 +1,44 @@
+package io.arsha.api.cache;
+
+import io.arsha.api.cluster.Replica;
+import io.arsha.api.market.Marketplace;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Feeds the market caches of this node with the values of its cluster peers and
+ * serves the market requests they forward.
+ */
+public final class CacheReplica implements Replica {
+
+  /**
+  * Caches of this node.
+  *
+  * @param maxAge the oldest cached response served to a peer in milliseconds
+  */
+  public CacheReplica(final long maxAge) {
+    this.maxAge = maxAge;
+  }
+
+  private final long maxAge;
+
+  @Override
+  public void adoptV1(V1Composite key, Buffer response) {
+    CacheManager.adoptV1(key, response);
+  }
+
+  @Override
+  public void adoptV2(V2Composite key, Buffer stored, int elements, long created) {
+    CacheManager.adoptV2(key, stored, elements, created);
+  }
+
+  @Override
+  public void touched(V1Composite key) {
+    RefreshScheduler.touched(key);
+  }
+
+  @Override
+  public Future<Buffer> fetch(V1Composite key) {
+    return CacheManager.serveOwned(key, maxAge).recover(Marketplace::replyFailure);
+  }
+}
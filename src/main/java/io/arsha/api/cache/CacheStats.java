@@ -0,0 +1,88 @@
+package io.arsha.api.cache;
+
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.ToDoubleFunction;
+
+import org.cache2k.Cache;
+import org.cache2k.operation.CacheControl;
+import org.cache2k.operation.CacheStatistics;
+
+/**
+ * Publishes the cache2k statistics of a cache, tagged with the cache name.
+ *
+ * <p>Sampling the statistics walks the cache internals, so a sample is reused by
+ * all meters of a cache for one second instead of being taken per meter on every
+ * scrape.
+ */
+final class CacheStats {
+  private static final long SAMPLE_MILLIS = 1000;
+
+  /**
+  * Statistics of one cache.
+  *
+  * @param cache the <code>Cache</code> to sample
+  */
+  private CacheStats(final Cache<?, ?> cache) {
+    this.control = CacheControl.of(cache);
+  }
+
+  private final CacheControl control;
+  private CacheStatistics sample = null;
+  private long sampled = 0;
+
+  /**
+  * Register the meters of a cache.
+  *
+  * <p>Counters are cumulative, rates and hit ratios over time are derived from them.
+  *
+  * @param cache the <code>Cache</code> to publish
+  */
+  static void register(Cache<?, ?> cache) {
+    CacheStats stats = new CacheStats(cache);
+    MeterRegistry registry = Metrics.getRegistry();
+    String name = cache.getName();
+
+    Gauge.builder("arsha.cache2k.size", stats, s -> s.control.getSize())
+        .description("Entries in the cache")
+        .tag("cache", name)
+        .register(registry);
+    Gauge.builder("arsha.cache2k.hit.ratio", stats, s -> s.sample().getHitRate() / 100)
+        .description("Hits per get since the cache was created")
+        .tag("cache", name)
+        .register(registry);
+    Gauge.builder("arsha.cache2k.load.millis", stats, s -> s.sample().getMillisPerLoad())
+        .description("Average time spent in the loader per load")
+        .tag("cache", name)
+        .register(registry);
+
+    counter("arsha.cache2k.gets", "Get requests", name, stats, CacheStatistics::getGetCount);
+    counter("arsha.cache2k.misses", "Gets that required a load", name, stats, CacheStatistics::getMissCount);
+    counter("arsha.cache2k.loads", "Loader calls including refreshes", name, stats, CacheStatistics::getLoadCount);
+    counter("arsha.cache2k.load.errors", "Loader calls that threw", name, stats,
+        CacheStatistics::getLoadExceptionCount);
+    counter("arsha.cache2k.evictions", "Entries evicted for capacity", name, stats,
+        CacheStatistics::getEvictedCount);
+    counter("arsha.cache2k.expirations", "Entries expired", name, stats, CacheStatistics::getExpiredCount);
+  }
+
+  private static void counter(String meter, String description, String name, CacheStats stats,
+      ToDoubleFunction<CacheStatistics> value) {
+    FunctionCounter.builder(meter, stats, s -> value.applyAsDouble(s.sample()))
+        .description(description)
+        .tag("cache", name)
+        .register(Metrics.getRegistry());
+  }
+
+  private synchronized CacheStatistics sample() {
+    long now = System.currentTimeMillis();
+    if (sample == null || now - sampled > SAMPLE_MILLIS) {
+      sample = control.sampleStatistics();
+      sampled = now;
+    }
+    return sample;
+  }
+}
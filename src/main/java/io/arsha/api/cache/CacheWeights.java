@@ -0,0 +1,205 @@
+package io.arsha.api.cache;
+
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.Gauge;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.ToLongFunction;
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.cache2k.CacheEntry;
+import org.cache2k.operation.Weigher;
+
+/**
+ * Weighs cache entries by their serialized size and bounds caches by a share of the
+ * memory budget.
+ *
+ * <p>The <code>memory</code> section of the cache config sets the <code>budget</code>
+ * in MB and the relative <code>weights</code> of the caches. A cache gets
+ * <code>budget * weight / sum of weights</code>, split evenly over the regions for
+ * the per region caches. Without a budget, or without a weight of their own, caches
+ * keep their entry capacity.
+ *
+ * <p>Values still loading weigh <code>ENTRY</code> only and are weighed again once
+ * loaded, see <code>reweigh</code>. Documents and indexes are measured once per loaded
+ * value, later weighs read the stored size.
+ */
+final class CacheWeights {
+  private static Logger logger = LoggerFactory.getLogger(CacheWeights.class);
+  // Key, cache entry and future around every value
+  static final int ENTRY = 128;
+  private static final long SAMPLE_MILLIS = 10000;
+  private static final int LIST_SAMPLE = 16;
+  // Futures compare by identity, sizes are dropped with their value
+  private static final Map<Future<?>, Integer> sizes = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private CacheWeights() {
+  }
+
+  static int buffer(Future<Buffer> value) {
+    return ENTRY + (value.succeeded() ? value.result().length() : 0);
+  }
+
+  static int stale(Stale<Buffer> value) {
+    return ENTRY + value.getValue().length();
+  }
+
+  static int payload(Payload value) {
+    return ENTRY + value.getWeight();
+  }
+
+  static int futurePayload(Future<Payload> value) {
+    return value.succeeded() ? payload(value.result()) : ENTRY;
+  }
+
+  static int json(Future<JsonObject> value) {
+    return sized(value, document -> document.toBuffer().length());
+  }
+
+  /**
+  * Weigh a list of documents from the size of its first documents.
+  *
+  * @param value the loaded documents
+  * @return      the estimated weight
+  */
+  static int jsonList(Future<List<JsonObject>> value) {
+    return sized(value, documents -> {
+      int sampled = Math.min(LIST_SAMPLE, documents.size());
+      long bytes = 0;
+      for (int i = 0; i < sampled; i++) {
+        bytes += documents.get(i).toBuffer().length();
+      }
+      return sampled == 0 ? 0 : bytes * documents.size() / sampled;
+    });
+  }
+
+  static int index(Future<ItemIndex> value) {
+    return sized(value, ItemIndex::getWeight);
+  }
+
+  /**
+  * Keep the size of a loaded value already known, e.g. its length in the snapshot.
+  *
+  * @param value the loaded value
+  * @param bytes the size of the value in bytes
+  * @return      the <code>value</code>
+  */
+  static <V> Future<V> sized(Future<V> value, long bytes) {
+    sizes.put(value, clamp(ENTRY + bytes));
+    return value;
+  }
+
+  /**
+  * Weigh a loaded value, measuring it on the first weigh only.
+  *
+  * @param value the value
+  * @param size  measures the size of the loaded value in bytes
+  * @return      the stored weight or <code>ENTRY</code> while loading or failed
+  */
+  private static <V> int sized(Future<V> value, ToLongFunction<V> size) {
+    if (!value.succeeded() || value.result() == null) {
+      return ENTRY;
+    }
+    Integer weight = sizes.get(value);
+    if (weight == null) {
+      weight = clamp(ENTRY + size.applyAsLong(value.result()));
+      sizes.put(value, weight);
+    }
+    return weight;
+  }
+
+  /**
+  * Bound a cache by its share of the memory budget or by its entry capacity.
+  *
+  * @param builder the <code>Cache2kBuilder</code> of the cache
+  * @param memory  the <code>memory</code> section of the cache config
+  * @param cache   the name of the cache in <code>weights</code>
+  * @param shares  the amount of caches sharing the weight, e.g. one per region
+  * @param entries the entry capacity used without a budget or weight
+  * @param weigher the <code>Weigher</code> of the cache
+  * @return        the <code>builder</code>
+  */
+  static <K, V> Cache2kBuilder<K, V> bound(Cache2kBuilder<K, V> builder, JsonObject memory, String cache,
+      int shares, long entries, Weigher<K, V> weigher) {
+    long budget = memory.getLong("budget", 0L) * 1024 * 1024;
+    if (budget <= 0) {
+      return builder.entryCapacity(entries);
+    }
+    JsonObject weights = memory.getJsonObject("weights", new JsonObject());
+    double weight = weights.getDouble(cache, 0.0);
+    if (weight <= 0) {
+      logger.warn("No memory weight for cache " + cache + ", keeping " + entries + " entries");
+      return builder.entryCapacity(entries);
+    }
+    double total = 0;
+    for (String name : weights.fieldNames()) {
+      total += Math.max(0, weights.getDouble(name));
+    }
+    long maximum = (long) (budget * weight / total / Math.max(1, shares));
+    return builder.weigher(weigher).maximumWeight(Math.max(maximum, ENTRY));
+  }
+
+  /**
+  * Weigh an entry again after its value finished loading.
+  *
+  * <p>Expiry and modification time are kept, the entry is unchanged if it holds
+  * another value by now.
+  *
+  * @param cache the <code>Cache</code> of the entry
+  * @param key   the key of the entry
+  * @param value the loaded value
+  */
+  static <K, V> void reweigh(Cache<K, V> cache, K key, V value) {
+    cache.invoke(key, entry -> {
+      if (entry.exists() && entry.getValue() == value) {
+        long expiry = entry.getExpiryTime();
+        long modified = entry.getModificationTime();
+        entry.setValue(value).setExpiryTime(expiry).setModificationTime(modified);
+      }
+      return null;
+    });
+  }
+
+  /**
+  * Publish the bytes held by a cache as <code>arsha.cache.bytes</code>.
+  *
+  * <p>cache2k does not follow weight updates in its total, so the stored weights of
+  * the entries are summed on scrape, at most every ten seconds.
+  *
+  * @param cache   the <code>Cache</code>
+  * @param region  the region of the cache or <code>none</code>
+  * @param weigher the <code>Weigher</code> of the cache
+  */
+  static <K, V> void register(Cache<K, V> cache, String region, Weigher<K, V> weigher) {
+    long[] sample = {0, 0};
+    Gauge.builder("arsha.cache.bytes", cache, c -> {
+      synchronized (sample) {
+        long now = System.currentTimeMillis();
+        if (now - sample[1] > SAMPLE_MILLIS) {
+          long bytes = 0;
+          for (CacheEntry<K, V> entry : c.entries()) {
+            bytes += weigher.weigh(entry.getKey(), entry.getValue());
+          }
+          sample[0] = bytes;
+          sample[1] = now;
+        }
+        return sample[0];
+      }
+    }).description("Estimated bytes held by the cache")
+        .tags("cache", cache.getName(), "region", region)
+        .register(Metrics.getRegistry());
+  }
+
+  private static int clamp(long weight) {
+    return (int) Math.min(Integer.MAX_VALUE, weight);
+  }
+}
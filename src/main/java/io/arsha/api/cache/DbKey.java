@@ -0,0 +1,72 @@
+package io.arsha.api.cache;
+
+/**
+ * Packed key for id lookups in a database collection.
+ *
+ * <p>The collection is interned to a 16 bit ordinal stored in the upper bits of a
+ * <code>long</code>, the id is stored in the lower 48 bits. Hashing and comparing
+ * a key is therefore a single <code>long</code> operation.
+ */
+public final class DbKey {
+  private static final int ID_BITS = 48;
+  private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+  private static final Interner collections = new Interner(1 << 16);
+
+  private DbKey() {
+  }
+
+  /**
+  * Pack a collection and an id into a key.
+  *
+  * @param collection the name of the collection
+  * @param id         the id of the document
+  * @return           the packed key
+  */
+  public static long of(String collection, long id) {
+    if (!isValid(id)) {
+      throw new IllegalArgumentException("Id out of range: " + id);
+    }
+    return ((long) ordinal(collection) << ID_BITS) | id;
+  }
+
+  /**
+  * Check if an id can be packed into a key.
+  *
+  * @param id the id of the document
+  * @return   true if the id fits the lower 48 bits
+  */
+  public static boolean isValid(long id) {
+    return id >= 0 && id <= ID_MASK;
+  }
+
+  /**
+  * Get the collection of a key.
+  *
+  * @param key the packed key
+  * @return    the name of the collection
+  */
+  public static String collection(long key) {
+    return collections.name((int) (key >>> ID_BITS));
+  }
+
+  /**
+  * Get the id of a key.
+  *
+  * @param key the packed key
+  * @return    the id of the document
+  */
+  public static long id(long key) {
+    return key & ID_MASK;
+  }
+
+  /**
+  * Get the ordinal of a collection, assigning the next free one on first use.
+  *
+  * @param collection the name of the collection
+  * @return           the ordinal of the collection
+  */
+  public static int ordinal(String collection) {
+    return collections.ordinal(collection);
+  }
+}
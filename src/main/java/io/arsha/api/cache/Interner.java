@@ -0,0 +1,55 @@
+package io.arsha.api.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Assigns small, stable ordinals to names such as regions, languages or collections.
+ *
+ * <p>Ordinals are handed out in order of first use and never reused, so keys can store
+ * an <code>int</code> instead of a <code>String</code> and still resolve the name.
+ */
+final class Interner {
+  private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+  private final List<String> names = new CopyOnWriteArrayList<>();
+  private final int capacity;
+
+  Interner(final int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+  * Get the ordinal of a name, assigning the next free one on first use.
+  *
+  * @param name the name to intern
+  * @return     the ordinal of the name
+  */
+  int ordinal(String name) {
+    Integer ordinal = ordinals.get(name);
+    if (ordinal != null) {
+      return ordinal;
+    }
+
+    synchronized (names) {
+      return ordinals.computeIfAbsent(name, n -> {
+        if (names.size() == capacity) {
+          throw new IllegalStateException("More than " + capacity + " names interned");
+        }
+        names.add(n);
+        return names.size() - 1;
+      });
+    }
+  }
+
+  /**
+  * Get the name of an ordinal.
+  *
+  * @param ordinal the ordinal
+  * @return        the interned name
+  */
+  String name(int ordinal) {
+    return names.get(ordinal);
+  }
+}
@@ -0,0 +1,195 @@
+package io.arsha.api.cache;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+public final class ItemIndex {
+
+  /**
+  * Lookup table of an item collection keyed by primitive item id.
+  *
+  * <p>Ids are kept in a sorted <code>long[]</code> with the enrichment fields in
+  * parallel arrays, so a lookup is a binary search without boxing or futures.
+  * Documents of a snapshot backed index are read from the mapping on demand,
+  * otherwise their compact JSON bytes are kept.
+  *
+  * @param collection the name of the item collection
+  * @param snapshot   the <code>Snapshot</code> holding the documents or null
+  * @param entries    the documents to index
+  */
+  private ItemIndex(final String collection, final Snapshot snapshot, final List<Entry> entries) {
+    Entry[] sorted = entries.toArray(new Entry[0]);
+    Arrays.sort(sorted, (a, b) -> Long.compare(a.id, b.id));
+
+    this.collection = collection;
+    this.snapshot = snapshot;
+    this.ids = new long[sorted.length];
+    this.names = new String[sorted.length];
+    this.icons = new String[sorted.length];
+    this.grades = new int[sorted.length];
+    this.documents = snapshot == null ? new Buffer[sorted.length] : null;
+    for (int i = 0; i < sorted.length; i++) {
+      ids[i] = sorted[i].id;
+      names[i] = sorted[i].name;
+      icons[i] = sorted[i].icon;
+      grades[i] = sorted[i].grade;
+      if (documents != null) {
+        documents[i] = sorted[i].document;
+      }
+    }
+  }
+
+  private final String collection;
+  private final Snapshot snapshot;
+  private final long[] ids;
+  private final String[] names;
+  private final String[] icons;
+  private final int[] grades;
+  private final Buffer[] documents;
+
+  private static final class Entry {
+    private final long id;
+    private final String name;
+    private final String icon;
+    private final int grade;
+    private final Buffer document;
+
+    private Entry(final JsonObject document, final Buffer encoded) {
+      this.id = document.getLong("id");
+      this.name = document.getString("name");
+      this.icon = document.getString("icon");
+      this.grade = document.getValue("grade") instanceof Number ? document.getInteger("grade") : -1;
+      this.document = encoded;
+    }
+  }
+
+  /**
+  * Build the index of a collection from a <code>Snapshot</code>.
+  *
+  * @param snapshot   the <code>Snapshot</code> to read
+  * @param collection the name of the item collection
+  * @return           the <code>ItemIndex</code>
+  */
+  public static ItemIndex of(Snapshot snapshot, String collection) {
+    List<Entry> entries = new ArrayList<>(snapshot.size(collection));
+    Iterator<Buffer> documents = snapshot.iterate(collection);
+    while (documents.hasNext()) {
+      JsonObject document = documents.next().toJsonObject();
+      if (document.getValue("id") instanceof Number) {
+        entries.add(new Entry(document, null));
+      }
+    }
+    return new ItemIndex(collection, snapshot, entries);
+  }
+
+  /**
+  * Build the index of a collection from database documents.
+  *
+  * @param collection the name of the item collection
+  * @param documents  the documents of the collection
+  * @return           the <code>ItemIndex</code>
+  */
+  public static ItemIndex of(String collection, List<JsonObject> documents) {
+    List<Entry> entries = new ArrayList<>(documents.size());
+    for (JsonObject document : documents) {
+      if (document.getValue("id") instanceof Number) {
+        JsonObject stored = document.copy();
+        stored.remove("_id");
+        entries.add(new Entry(stored, stored.toBuffer()));
+      }
+    }
+    return new ItemIndex(collection, null, entries);
+  }
+
+  public String getCollection() {
+    return this.collection;
+  }
+
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+  * Estimate the heap used by the index.
+  *
+  * <p>Documents of a snapshot backed index live in the mapping and are not counted.
+  *
+  * @return the estimated size in bytes
+  */
+  public long getWeight() {
+    long weight = ids.length * 24L;
+    for (int i = 0; i < ids.length; i++) {
+      weight += (names[i] == null ? 0 : names[i].length()) + (icons[i] == null ? 0 : icons[i].length());
+      weight += documents == null || documents[i] == null ? 0 : documents[i].length();
+    }
+    return weight;
+  }
+
+  /**
+  * Find the position of an item.
+  *
+  * @param id the id of the item
+  * @return   the position of the item or a negative value if not indexed
+  */
+  public int indexOf(long id) {
+    return Arrays.binarySearch(ids, id);
+  }
+
+  public boolean contains(long id) {
+    return indexOf(id) >= 0;
+  }
+
+  /**
+  * Get the name of an item.
+  *
+  * @param id the id of the item
+  * @return   the name or null if not indexed
+  */
+  public String getName(long id) {
+    int at = indexOf(id);
+    return at < 0 ? null : names[at];
+  }
+
+  /**
+  * Get the icon of an item.
+  *
+  * @param id the id of the item
+  * @return   the icon or null if not indexed
+  */
+  public String getIcon(long id) {
+    int at = indexOf(id);
+    return at < 0 ? null : icons[at];
+  }
+
+  /**
+  * Get the grade of an item.
+  *
+  * @param id the id of the item
+  * @return   the grade or <code>-1</code> if not indexed or without grade
+  */
+  public int getGrade(long id) {
+    int at = indexOf(id);
+    return at < 0 ? -1 : grades[at];
+  }
+
+  /**
+  * Get the full document of an item.
+  *
+  * @param id the id of the item
+  * @return   the document as <code>JsonObject</code> or null if not indexed
+  */
+  public JsonObject getDocument(long id) {
+    int at = indexOf(id);
+    if (at < 0) {
+      return null;
+    }
+    return snapshot == null
+        ? documents[at].toJsonObject()
+        : snapshot.get(collection, id);
+  }
+}
@@ -0,0 +1,268 @@
+package io.arsha.api.cache;
+
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Serialized values kept outside the heap in direct memory slabs.
+ *
+ * <p>Values are appended to the current slab. Once the byte budget is used up, the
+ * oldest slab is reused and every value still in it is dropped, so eviction is
+ * first in, first out per slab and never fragments. Only a small index entry per
+ * key stays on the heap.
+ *
+ * <p>Values are copied in on <code>put</code> and copied out on <code>get</code>,
+ * a returned <code>Buffer</code> stays valid after its slab is reused. Reads run
+ * concurrently and only wait for writes.
+ *
+ * @param <K> the key type
+ */
+public final class OffHeapStore<K> {
+
+  /**
+  * Off-heap store with a fixed byte budget.
+  *
+  * <p>Slabs are allocated when first written to, an empty store uses no direct memory.
+  *
+  * @param name   the name of the store, used to tag its meters
+  * @param budget the maximum amount of bytes, rounded down to whole slabs
+  * @param slab   the size of a slab in bytes, also the largest value stored
+  * @throws IllegalArgumentException if the budget holds less than two slabs
+  */
+  public OffHeapStore(final String name, final long budget, final int slab) {
+    if (slab <= 0 || budget / slab < 2) {
+      throw new IllegalArgumentException("Off-heap budget of " + budget
+          + " bytes holds less than two slabs of " + slab + " bytes");
+    }
+    this.slabSize = slab;
+    this.slabs = new ByteBuffer[(int) Math.min(Integer.MAX_VALUE, budget / slab)];
+    this.entries = new ArrayList<>(slabs.length);
+    for (int i = 0; i < slabs.length; i++) {
+      entries.add(new ArrayList<>());
+    }
+
+    MeterRegistry registry = Metrics.getRegistry();
+    Gauge.builder("arsha.offheap.bytes", this, OffHeapStore::getAllocated)
+        .description("Direct memory allocated by the store")
+        .tag("cache", name)
+        .register(registry);
+    Gauge.builder("arsha.offheap.entries", this, OffHeapStore::size)
+        .description("Values in the store")
+        .tag("cache", name)
+        .register(registry);
+    FunctionCounter.builder("arsha.offheap.hits", this, s -> s.hits.sum())
+        .tag("cache", name)
+        .register(registry);
+    FunctionCounter.builder("arsha.offheap.misses", this, s -> s.misses.sum())
+        .tag("cache", name)
+        .register(registry);
+    FunctionCounter.builder("arsha.offheap.evictions", this, s -> s.evictions.sum())
+        .description("Values dropped when their slab was reused")
+        .tag("cache", name)
+        .register(registry);
+  }
+
+  private final int slabSize;
+  private final ByteBuffer[] slabs;
+  private final List<List<Slot<K>>> entries;
+  private final Map<K, Slot<K>> index = new HashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private int head = 0;
+  private int position = 0;
+
+  /**
+  * Location of a value in the slabs.
+  */
+  private static final class Slot<K> {
+    private Slot(K key, int slab, int offset, int length, long created, int meta) {
+      this.key = key;
+      this.slab = slab;
+      this.offset = offset;
+      this.length = length;
+      this.created = created;
+      this.meta = meta;
+    }
+
+    private final K key;
+    private final int slab;
+    private final int offset;
+    private final int length;
+    private final long created;
+    private final int meta;
+  }
+
+  /**
+  * A value copied out of the store.
+  */
+  public static final class Stored {
+    private Stored(Buffer value, long created, int meta) {
+      this.value = value;
+      this.created = created;
+      this.meta = meta;
+    }
+
+    private final Buffer value;
+    private final long created;
+    private final int meta;
+
+    public Buffer getValue() {
+      return this.value;
+    }
+
+    public long getCreated() {
+      return this.created;
+    }
+
+    public int getMeta() {
+      return this.meta;
+    }
+  }
+
+  /**
+  * Copy a value into the store, replacing the value of the key.
+  *
+  * @param key     the key
+  * @param value   the serialized value
+  * @param created the time the value was created in epoch milliseconds
+  * @param meta    caller defined metadata kept with the value
+  * @return        false if the value is larger than a slab and was not stored
+  */
+  public boolean put(K key, Buffer value, long created, int meta) {
+    int length = value.length();
+    if (length > slabSize) {
+      return false;
+    }
+    lock.writeLock().lock();
+    try {
+      write(key, value, created, meta);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    return true;
+  }
+
+  private void write(K key, Buffer value, long created, int meta) {
+    int length = value.length();
+    if (position + length > slabSize) {
+      head = (head + 1) % slabs.length;
+      position = 0;
+      evict(head);
+    }
+    if (slabs[head] == null) {
+      slabs[head] = ByteBuffer.allocateDirect(slabSize);
+    }
+
+    ByteBuffer target = slabs[head].duplicate();
+    target.position(position).limit(position + length);
+    ByteBuf source = value.getByteBuf();
+    source.getBytes(source.readerIndex(), target);
+
+    Slot<K> slot = new Slot<>(key, head, position, length, created, meta);
+    index.put(key, slot);
+    entries.get(head).add(slot);
+    position += length;
+  }
+
+  /**
+  * Copy a value out of the store.
+  *
+  * @param key       the key
+  * @param notBefore the oldest creation time accepted in epoch milliseconds
+  * @return          the <code>Stored</code> value or <code>null</code> if there is none
+  *                  created at or after <code>notBefore</code>
+  */
+  public Stored get(K key, long notBefore) {
+    byte[] copy;
+    Slot<K> slot;
+    lock.readLock().lock();
+    try {
+      slot = index.get(key);
+      if (slot == null || slot.created < notBefore) {
+        misses.increment();
+        return null;
+      }
+      copy = new byte[slot.length];
+      ByteBuffer source = slabs[slot.slab].duplicate();
+      source.position(slot.offset);
+      source.get(copy);
+    } finally {
+      lock.readLock().unlock();
+    }
+    hits.increment();
+    return new Stored(Buffer.buffer(copy), slot.created, slot.meta);
+  }
+
+  /**
+  * Drop the value of a key.
+  *
+  * <p>Its bytes are reclaimed once its slab is reused.
+  *
+  * @param key the key
+  */
+  public void remove(K key) {
+    lock.writeLock().lock();
+    try {
+      index.remove(key);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+  * Get the amount of values in the store.
+  *
+  * @return the amount of values
+  */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return index.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+  * Get the direct memory allocated by the store.
+  *
+  * @return the allocated bytes
+  */
+  public long getAllocated() {
+    lock.readLock().lock();
+    try {
+      long allocated = 0;
+      for (ByteBuffer slab : slabs) {
+        allocated += slab == null ? 0 : slab.capacity();
+      }
+      return allocated;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void evict(int slab) {
+    for (Slot<K> slot : entries.get(slab)) {
+      // Keys written again since live in a newer slab
+      if (index.remove(slot.key, slot)) {
+        evictions.increment();
+      }
+    }
+    entries.get(slab).clear();
+  }
+}
@@ -0,0 +1,261 @@
+package io.arsha.api.cache;
+
+import io.arsha.api.util.Gzip;
+import io.arsha.api.util.json.JsonWritable;
+import io.arsha.api.util.json.JsonWriter;
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class Payload {
+
+  /**
+  * Wire ready response body stored by the V2 cache.
+  *
+  * <p>The body is compressed once on creation. Single element arrays keep their
+  * element as the compressed segment so both the array and the unwrapped form
+  * are served without compressing again. Compressing is recorded as
+  * <code>arsha.payload.gzip</code>.
+  *
+  * @param body     the compact JSON body
+  * @param deflated the element deflated before or <code>null</code> to compress it,
+  *                 see <code>getStored</code>
+  * @param elements the amount of elements if <code>body</code> is a JSON array,
+  *                 <code>-1</code> if it is a JSON object
+  * @param created  the time the payload was built in epoch milliseconds
+  */
+  private Payload(final Buffer body, final Buffer deflated, final int elements,
+      final long created) {
+    this.body = body;
+    this.elements = elements;
+    this.created = created;
+    Timer.Sample sample = Timer.start();
+    Buffer plain = elements == 1 ? body.slice(1, body.length() - 1) : body;
+    Segment element = deflated == null ? Segment.of(plain) : Segment.of(plain, deflated);
+    if (elements == 1) {
+      this.segments = Arrays.asList(Segment.OPEN, element, Segment.CLOSE);
+      this.unwrapped = Collections.singletonList(element);
+      this.gzip = Gzip.gzip(segments);
+      this.unwrappedGzip = Gzip.gzip(unwrapped);
+    } else {
+      this.segments = Collections.singletonList(element);
+      this.unwrapped = segments;
+      this.gzip = Gzip.gzip(segments);
+      this.unwrappedGzip = gzip;
+    }
+    if (deflated == null) {
+      sample.stop(Metrics.latency("arsha.payload.gzip"));
+    }
+  }
+
+  private final Buffer body;
+  private final int elements;
+  private final long created;
+  private final List<Segment> segments;
+  private final List<Segment> unwrapped;
+  private final Buffer gzip;
+  private final Buffer unwrappedGzip;
+
+  /**
+  * Create a <code>Payload</code> from a <code>JsonArray</code>.
+  *
+  * @param array the <code>JsonArray</code> to encode
+  * @return      the <code>Payload</code>
+  */
+  public static Payload of(JsonArray array) {
+    Timer.Sample sample = Timer.start();
+    Buffer body = array.toBuffer();
+    sample.stop(Metrics.latency("arsha.payload.encode", "format", "jackson"));
+    return new Payload(body, null, array.size(), System.currentTimeMillis());
+  }
+
+  /**
+  * Create a <code>Payload</code> from a <code>JsonObject</code>.
+  *
+  * @param object the <code>JsonObject</code> to encode
+  * @return       the <code>Payload</code>
+  */
+  public static Payload of(JsonObject object) {
+    Timer.Sample sample = Timer.start();
+    Buffer body = object.toBuffer();
+    sample.stop(Metrics.latency("arsha.payload.encode", "format", "jackson"));
+    return new Payload(body, null, -1, System.currentTimeMillis());
+  }
+
+  /**
+  * Create a <code>Payload</code> array written straight from its elements.
+  *
+  * @param elements the <code>JsonWritable</code>s to write
+  * @return         the <code>Payload</code>
+  */
+  public static Payload of(List<? extends JsonWritable> elements) {
+    Timer.Sample sample = Timer.start();
+    Buffer body = JsonWriter.array(elements);
+    sample.stop(Metrics.latency("arsha.payload.encode", "format", "writer"));
+    return new Payload(body, null, elements.size(), System.currentTimeMillis());
+  }
+
+  /**
+  * Create a <code>Payload</code> object written straight from a <code>JsonWritable</code>.
+  *
+  * @param object the <code>JsonWritable</code> writing a JSON object
+  * @return       the <code>Payload</code>
+  */
+  public static Payload of(JsonWritable object) {
+    Timer.Sample sample = Timer.start();
+    Buffer body = JsonWriter.object(object);
+    sample.stop(Metrics.latency("arsha.payload.encode", "format", "writer"));
+    return new Payload(body, null, -1, System.currentTimeMillis());
+  }
+
+  /**
+  * Rebuild a <code>Payload</code> from its stored form.
+  *
+  * <p>Keeps the creation time so the age served to clients is unchanged. The element
+  * is not compressed again, only the gzip header and trailer are rebuilt.
+  *
+  * @param stored   the stored form, see <code>getStored</code>
+  * @param elements the amount of elements, <code>-1</code> for a JSON object
+  * @param created  the creation time of the stored payload
+  * @return         the <code>Payload</code>
+  */
+  static Payload restore(Buffer stored, int elements, long created) {
+    int length = stored.getInt(0);
+    return new Payload(stored.slice(4, 4 + length), stored.slice(4 + length, stored.length()),
+        elements, created);
+  }
+
+  /**
+  * Get the form a payload is kept off-heap and sent to other cluster nodes in.
+  *
+  * <p>The length of the body, the body and the deflated element, which is the body
+  * itself unless it is a single element array.
+  *
+  * @return the stored form <code>Buffer</code>
+  */
+  public Buffer getStored() {
+    Buffer deflated = unwrapped.get(0).getDeflated();
+    return Buffer.buffer(4 + body.length() + deflated.length())
+        .appendInt(body.length()).appendBuffer(body).appendBuffer(deflated);
+  }
+
+  public Buffer getBody() {
+    return this.body;
+  }
+
+  public Buffer getGzip() {
+    return this.gzip;
+  }
+
+  public List<Segment> getSegments() {
+    return this.segments;
+  }
+
+  public int size() {
+    return this.elements;
+  }
+
+  /**
+  * Get the bytes held by the payload.
+  *
+  * @return the length of the body and its compressed forms
+  */
+  public int getWeight() {
+    int weight = body.length() + gzip.length();
+    return unwrappedGzip == gzip ? weight : weight + unwrappedGzip.length();
+  }
+
+  public boolean isArray() {
+    return this.elements >= 0;
+  }
+
+  public long getCreated() {
+    return this.created;
+  }
+
+  /**
+  * Get the time since the payload was built from a market response.
+  *
+  * @return the age in seconds, as sent in the <code>Age</code> header
+  */
+  public long getAge() {
+    return (System.currentTimeMillis() - created) / 1000;
+  }
+
+  /**
+  * Get the age of the oldest payload.
+  *
+  * @param payloads the <code>Payload</code>s served together
+  * @return         the highest <code>getAge()</code>
+  */
+  public static long getAge(List<Payload> payloads) {
+    long age = 0;
+    for (Payload payload : payloads) {
+      age = Math.max(age, payload.getAge());
+    }
+    return age;
+  }
+
+  /**
+  * Get the body with single element arrays unwrapped to their element.
+  *
+  * @return the element of a single element array, otherwise the body as is
+  */
+  public Buffer unwrap() {
+    if (elements == 1) {
+      return unwrapped.get(0).getPlain();
+    }
+    return body;
+  }
+
+  /**
+  * Get the gzip encoded form of <code>unwrap()</code>.
+  *
+  * @return the gzip encoded <code>Buffer</code>
+  */
+  public Buffer unwrapGzip() {
+    return this.unwrappedGzip;
+  }
+
+  /**
+  * Decode the body for handlers that need to inspect the elements.
+  *
+  * @return the body as <code>JsonArray</code>
+  */
+  public JsonArray toJsonArray() {
+    return body.toJsonArray();
+  }
+
+  /**
+  * Join payloads into the segments of a JSON array without decoding them.
+  *
+  * <p>A single payload is returned as is to match the single element unwrapping
+  * of the handlers.
+  *
+  * @param payloads the <code>Payload</code>s to join
+  * @return         the joined <code>Segment</code>s
+  */
+  public static List<Segment> join(List<Payload> payloads) {
+    if (payloads.size() == 1) {
+      return payloads.get(0).getSegments();
+    }
+
+    List<Segment> joined = new ArrayList<>();
+    joined.add(Segment.OPEN);
+    for (int i = 0; i < payloads.size(); i++) {
+      if (i > 0) {
+        joined.add(Segment.SEPARATOR);
+      }
+      joined.addAll(payloads.get(i).getSegments());
+    }
+    joined.add(Segment.CLOSE);
+    return joined;
+  }
+}
@@ -0,0 +1,152 @@
+package io.arsha.api.cache;
+
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decaying request counters for the keys of one region cache.
+ *
+ * <p>Requests only increment a counter. The scheduler folds the counters into an
+ * exponentially decaying score once per run, so recent requests weigh more than old
+ * ones and keys that are no longer requested fall below <code>minScore</code> and
+ * stop being tracked.
+ *
+ * @param <K> the key type of the cache
+ */
+final class Popularity<K> {
+
+  /**
+  * Popularity of the keys of one cache in one region.
+  *
+  * @param region the region of the cache
+  * @param cache  the name of the cache, <code>v1</code> or <code>v2</code>
+  */
+  Popularity(final String region, final String cache) {
+    MeterRegistry registry = Metrics.getRegistry();
+    this.hits = Counter.builder("arsha.cache.requests")
+        .tags("region", region, "cache", cache, "result", "hit").register(registry);
+    this.misses = Counter.builder("arsha.cache.requests")
+        .tags("region", region, "cache", cache, "result", "miss").register(registry);
+    this.refreshed = Counter.builder("arsha.cache.refresh")
+        .tags("region", region, "cache", cache, "outcome", "success").register(registry);
+    this.failed = Counter.builder("arsha.cache.refresh")
+        .tags("region", region, "cache", cache, "outcome", "failure").register(registry);
+    Gauge.builder("arsha.cache.refresh.tracked", counters, Map::size)
+        .tags("region", region, "cache", cache).register(registry);
+    Gauge.builder("arsha.cache.refresh.hot", this, p -> p.hot)
+        .tags("region", region, "cache", cache).register(registry);
+  }
+
+  private static final class Score {
+    private final AtomicLong requests = new AtomicLong();
+    private double value = 0;
+  }
+
+  private final Map<K, Score> counters = new ConcurrentHashMap<>();
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter refreshed;
+  private final Counter failed;
+  private volatile int hot = 0;
+
+  /**
+  * Count a request for a key.
+  *
+  * @param key the requested key
+  */
+  void touch(K key) {
+    Score score = counters.get(key);
+    if (score == null) {
+      score = counters.computeIfAbsent(key, k -> new Score());
+    }
+    score.requests.incrementAndGet();
+  }
+
+  /**
+  * Record if a client request was served from the cache.
+  *
+  * @param hit true if the key was cached
+  */
+  void request(boolean hit) {
+    (hit ? hits : misses).increment();
+  }
+
+  /**
+  * Record the outcome of a scheduled refresh.
+  *
+  * @param success true if the refreshed value was stored
+  */
+  void refreshed(boolean success) {
+    (success ? refreshed : failed).increment();
+  }
+
+  /**
+  * Fold the requests since the last run into the scores and pick the hottest keys.
+  *
+  * <p>Only called by the scheduler, one run at a time.
+  *
+  * @param decay    the factor old scores are multiplied with
+  * @param minScore the score below which keys are dropped
+  * @param limit    the maximum amount of keys to return
+  * @return         the hottest keys, hottest first
+  */
+  List<K> decay(double decay, double minScore, int limit) {
+    PriorityQueue<Map.Entry<K, Score>> top = new PriorityQueue<>(
+        Math.max(1, limit), Comparator.comparingDouble(entry -> entry.getValue().value));
+    Iterator<Map.Entry<K, Score>> entries = counters.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<K, Score> entry = entries.next();
+      Score score = entry.getValue();
+      score.value = score.value * decay + score.requests.getAndSet(0);
+      if (score.value < minScore) {
+        entries.remove();
+        continue;
+      }
+
+      if (limit <= 0) {
+        continue;
+      }
+      if (top.size() < limit) {
+        top.add(entry);
+      } else if (top.peek().getValue().value < score.value) {
+        top.poll();
+        top.add(entry);
+      }
+    }
+
+    List<K> keys = new ArrayList<>(top.size());
+    while (!top.isEmpty()) {
+      keys.add(top.poll().getKey());
+    }
+    Collections.reverse(keys);
+    hot = keys.size();
+    return keys;
+  }
+
+  /**
+  * Claim the refresh of this cache, so slow refreshes never overlap.
+  *
+  * @return true if no refresh is running
+  */
+  boolean startRefresh() {
+    return refreshing.compareAndSet(false, true);
+  }
+
+  void endRefresh() {
+    refreshing.set(false);
+  }
+}
@@ -0,0 +1,222 @@
+package io.arsha.api.cache;
+
+import io.arsha.api.cluster.Cluster;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import org.cache2k.Cache;
+
+/**
+ * Refreshes the most requested market keys of each region ahead of expiry.
+ *
+ * <p>Replaces cache2k <code>refreshAhead</code>, which refreshed every entry ever
+ * loaded including one-off searches. Keys outside the hottest <code>budget</code>
+ * of their region are left to expire and load again on the next request.
+ *
+ * <p>In a cluster only the owner of a key refreshes it and replicates the result.
+ * Other nodes send it the hot keys they do not own, so its scores cover the
+ * requests of the whole cluster.
+ */
+@SuppressWarnings({ "rawtypes" })
+public class RefreshScheduler {
+  private static Logger logger = LoggerFactory.getLogger(RefreshScheduler.class);
+  private static Map<String, Popularity<V1Composite>> v1Popularity = new ConcurrentHashMap<>();
+  private static Map<String, Popularity<V2Composite>> v2Popularity = new ConcurrentHashMap<>();
+  private static JsonObject config = new JsonObject();
+  private static Long timer = null;
+
+  /**
+  * Start the scheduler once for all verticle instances.
+  *
+  * @param vertx the <code>Vertx</code> instance
+  * @param conf  the <code>refresh</code> section of the cache config
+  * @return      <code>Future&lt;Void&gt;</code>
+  */
+  public static synchronized Future<Void> init(Vertx vertx, JsonObject conf) {
+    if (timer == null) {
+      config = conf;
+      long interval = config.getLong("interval", 30L);
+      timer = vertx.setPeriodic(interval * 1000, id -> run());
+      logger.info("Refreshing hot keys every " + interval + "s");
+    }
+    return Future.succeededFuture();
+  }
+
+  /**
+  * Count a client request of a V1 key.
+  *
+  * @param key the requested key
+  * @param hit true if the key was cached
+  */
+  static void requestedV1(V1Composite key, boolean hit) {
+    Popularity<V1Composite> popularity = v1(key.getRegion());
+    popularity.touch(key);
+    popularity.request(hit);
+  }
+
+  /**
+  * Count a client request of a V2 key.
+  *
+  * <p>The V1 key it is built from is counted too, so it is refreshed before the V2
+  * key is rebuilt from it.
+  *
+  * @param key the requested key
+  * @param hit true if the key was cached
+  */
+  static void requestedV2(V2Composite key, boolean hit) {
+    Popularity<V2Composite> popularity = v2(key.getRegion());
+    popularity.touch(key);
+    popularity.request(hit);
+    v1(key.getRegion()).touch(key.getParent());
+  }
+
+  /**
+  * Count a key another cluster node finds hot.
+  *
+  * <p>Only its score is raised, the hit ratio of this node is left alone.
+  *
+  * @param key the <code>V1Composite</code> or <code>V2Composite</code>
+  */
+  public static void touched(V1Composite key) {
+    if (key instanceof V2Composite) {
+      V2Composite v2Key = (V2Composite) key;
+      v2(key.getRegion()).touch(v2Key);
+      v1(key.getRegion()).touch(v2Key.getParent());
+    } else {
+      v1(key.getRegion()).touch(key);
+    }
+  }
+
+  private static Popularity<V1Composite> v1(String region) {
+    Popularity<V1Composite> popularity = v1Popularity.get(region);
+    if (popularity == null) {
+      popularity = v1Popularity.computeIfAbsent(region, r -> new Popularity<>(r, "v1"));
+    }
+    return popularity;
+  }
+
+  private static Popularity<V2Composite> v2(String region) {
+    Popularity<V2Composite> popularity = v2Popularity.get(region);
+    if (popularity == null) {
+      popularity = v2Popularity.computeIfAbsent(region, r -> new Popularity<>(r, "v2"));
+    }
+    return popularity;
+  }
+
+  /**
+  * Get the amount of keys per cache refreshed in a region.
+  *
+  * @param region the region
+  * @return       the <code>budgets</code> entry of the region or <code>budget</code>
+  */
+  private static int budget(String region) {
+    int budget = config.getInteger("budget", 200);
+    return config.getJsonObject("budgets", new JsonObject()).getInteger(region, budget);
+  }
+
+  private static void run() {
+    Set<String> regions = new HashSet<>(v1Popularity.keySet());
+    regions.addAll(v2Popularity.keySet());
+    for (String region : regions) {
+      RegionShard shard = CacheManager.getShard(region);
+      if (shard != null) {
+        shard.run(refresh -> run(shard));
+      }
+    }
+  }
+
+  /**
+  * Refresh the hot keys of a region, on the context owning the region.
+  *
+  * @param shard the <code>RegionShard</code> to refresh
+  */
+  private static void run(RegionShard shard) {
+    String region = shard.getRegion();
+    int budget = budget(region);
+    Popularity<V1Composite> v1 = v1Popularity.get(region);
+    Popularity<V2Composite> v2 = v2Popularity.get(region);
+
+    Future<Void> v1Refresh = v1 == null ? Future.succeededFuture()
+        : refresh(v1, shard.getV1(), CacheManager::loadV1, CacheManager::isNegativeV1, budget);
+    if (v2 != null) {
+      v1Refresh.onComplete(done ->
+          refresh(v2, shard.getV2(), CacheManager::loadV2, CacheManager::isNegativeV2, budget));
+    }
+  }
+
+  /**
+  * Decay the scores of a cache and reload its hottest keys that expire soon.
+  *
+  * <p>Values are only replaced once loaded, so clients keep being served the old
+  * value while the refresh runs or if it fails. Keys owned by another cluster node
+  * are sent to it instead. Negative answers keep the short <code>negative.ttl</code>
+  * expiry they get when loaded on a miss.
+  *
+  * @param popularity the <code>Popularity</code> of the cache
+  * @param cache      the <code>Cache</code> to refresh
+  * @param loader     the loader of the cache
+  * @param negative   checks if a refreshed value is a negative answer
+  * @param budget     the maximum amount of keys to refresh
+  * @return           <code>Future&lt;Void&gt;</code> completed once all refreshes are done
+  */
+  private static <K extends V1Composite, V> Future<Void> refresh(Popularity<K> popularity,
+      Cache<K, Future<V>> cache, Function<K, Future<V>> loader, BiPredicate<K, V> negative,
+      int budget) {
+    double decay = Math.pow(0.5, config.getDouble("interval", 30.0) / config.getDouble("halfLife", 600.0));
+    List<K> hot = popularity.decay(decay, config.getDouble("minScore", 0.5), budget);
+    if (hot.isEmpty() || !popularity.startRefresh()) {
+      return Future.succeededFuture();
+    }
+
+    long due = System.currentTimeMillis() + config.getLong("ahead", 120L) * 1000;
+    List<Future> refreshes = new ArrayList<>();
+    Map<String, List<V1Composite>> remote = new HashMap<>();
+    for (K key : hot) {
+      if (!Cluster.owns(key)) {
+        remote.computeIfAbsent(Cluster.owner(key), owner -> new ArrayList<>()).add(key);
+        continue;
+      }
+      long expiry = cache.invoke(key, entry ->
+          entry.exists() && entry.getValue().isComplete() ? Math.abs(entry.getExpiryTime()) : 0L);
+      if (expiry == 0L || expiry > due) {
+        continue;
+      }
+
+      Future<V> refreshed = loader.apply(key);
+      refreshes.add(refreshed.onComplete(loaded -> {
+        popularity.refreshed(loaded.succeeded());
+        if (loaded.succeeded()) {
+          boolean negativeAnswer = negative.test(key, loaded.result());
+          cache.invoke(key, entry -> {
+            if (entry.exists()) {
+              entry.setValue(refreshed);
+              if (negativeAnswer) {
+                entry.setExpiryTime(CacheManager.negativeExpiry());
+              }
+            }
+            return null;
+          });
+        }
+      }));
+    }
+
+    Cluster.touch(remote);
+    return CompositeFuture.join(refreshes).<Void>mapEmpty()
+        .recover(fail -> Future.succeededFuture())
+        .onComplete(done -> popularity.endRefresh());
+  }
+}
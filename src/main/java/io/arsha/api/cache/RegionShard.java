@@ -0,0 +1,99 @@
+package io.arsha.api.cache;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+
+import org.cache2k.Cache;
+
+/**
+ * The market caches of one region and the context owning them.
+ *
+ * <p>Shards are built completely before they are published, so every verticle
+ * instance reads them without locking. Reads and loads happen on any event loop,
+ * cache2k is thread safe. Maintenance of a region, like evicting failed loads and
+ * refreshing hot keys, runs on its owner context so one region never keeps several
+ * event loops busy and different regions spread across event loops.
+ */
+public final class RegionShard {
+
+  /**
+  * Caches of a region.
+  *
+  * @param region  the region of the caches
+  * @param owner   the <code>Context</code> running maintenance of the region
+  * @param v1      the V1 <code>Cache</code>
+  * @param v2      the V2 <code>Cache</code>
+  * @param v1Stale the <code>Cache</code> of the last good V1 responses
+  * @param stale   the <code>Cache</code> of the last good V2 payloads
+  * @param v1Tier  the off-heap tier behind <code>v1</code> or <code>null</code>
+  * @param v2Tier  the off-heap tier behind <code>v2</code> or <code>null</code>
+  */
+  RegionShard(final String region, final Context owner,
+      final Cache<V1Composite, Future<Buffer>> v1,
+      final Cache<V2Composite, Future<Payload>> v2,
+      final Cache<V1Composite, Stale<Buffer>> v1Stale,
+      final Cache<V2Composite, Payload> stale,
+      final OffHeapStore<V1Composite> v1Tier,
+      final OffHeapStore<V2Composite> v2Tier) {
+    this.region = region;
+    this.owner = owner;
+    this.v1 = v1;
+    this.v2 = v2;
+    this.v1Stale = v1Stale;
+    this.stale = stale;
+    this.v1Tier = v1Tier;
+    this.v2Tier = v2Tier;
+  }
+
+  private final String region;
+  private final Context owner;
+  private final Cache<V1Composite, Future<Buffer>> v1;
+  private final Cache<V2Composite, Future<Payload>> v2;
+  private final Cache<V1Composite, Stale<Buffer>> v1Stale;
+  private final Cache<V2Composite, Payload> stale;
+  private final OffHeapStore<V1Composite> v1Tier;
+  private final OffHeapStore<V2Composite> v2Tier;
+
+  public String getRegion() {
+    return this.region;
+  }
+
+  public Context getOwner() {
+    return this.owner;
+  }
+
+  public Cache<V1Composite, Future<Buffer>> getV1() {
+    return this.v1;
+  }
+
+  public Cache<V2Composite, Future<Payload>> getV2() {
+    return this.v2;
+  }
+
+  Cache<V1Composite, Stale<Buffer>> getV1Stale() {
+    return this.v1Stale;
+  }
+
+  public Cache<V2Composite, Payload> getStale() {
+    return this.stale;
+  }
+
+  public OffHeapStore<V1Composite> getV1Tier() {
+    return this.v1Tier;
+  }
+
+  public OffHeapStore<V2Composite> getV2Tier() {
+    return this.v2Tier;
+  }
+
+  /**
+  * Run maintenance of the region on its owner context.
+  *
+  * @param task the task to run
+  */
+  public void run(Handler<Void> task) {
+    owner.runOnContext(task);
+  }
+}
@@ -0,0 +1,18 @@
+package io.arsha.api.cache;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+
+/**
+ * Verticle owning the maintenance of one region.
+ *
+ * <p>It does nothing itself, deploying it gives the region an event loop context of
+ * its own. Vert.x assigns the event loops of deployed verticles round robin, so the
+ * regions spread over the event loop pool.
+ */
+final class RegionVerticle extends AbstractVerticle {
+
+  Context getContext() {
+    return this.context;
+  }
+}
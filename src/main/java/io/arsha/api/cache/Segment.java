@@ -0,0 +1,53 @@
+package io.arsha.api.cache;
+
+import io.arsha.api.util.Gzip;
+import io.vertx.core.buffer.Buffer;
+
+public final class Segment {
+  public static final Segment OPEN = Segment.of(Buffer.buffer("["));
+  public static final Segment SEPARATOR = Segment.of(Buffer.buffer(","));
+  public static final Segment CLOSE = Segment.of(Buffer.buffer("]"));
+
+  /**
+  * A piece of a response body kept both plain and deflated.
+  *
+  * @param plain    the uncompressed bytes
+  * @param deflated the bytes deflated by <code>Gzip.deflate</code>
+  */
+  private Segment(final Buffer plain, final Buffer deflated) {
+    this.plain = plain;
+    this.deflated = deflated;
+  }
+
+  private final Buffer plain;
+  private final Buffer deflated;
+
+  /**
+  * Compress a <code>Buffer</code> into a <code>Segment</code>.
+  *
+  * @param plain the uncompressed bytes
+  * @return      the <code>Segment</code>
+  */
+  public static Segment of(Buffer plain) {
+    return new Segment(plain, Gzip.deflate(plain));
+  }
+
+  /**
+  * Create a <code>Segment</code> from bytes deflated before.
+  *
+  * @param plain    the uncompressed bytes
+  * @param deflated the bytes deflated by <code>Gzip.deflate</code>
+  * @return         the <code>Segment</code>
+  */
+  static Segment of(Buffer plain, Buffer deflated) {
+    return new Segment(plain, deflated);
+  }
+
+  public Buffer getPlain() {
+    return this.plain;
+  }
+
+  public Buffer getDeflated() {
+    return this.deflated;
+  }
+}
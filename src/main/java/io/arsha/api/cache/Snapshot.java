@@ -0,0 +1,332 @@
+package io.arsha.api.cache;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read only, memory mapped snapshot of the item and recipe databases.
+ *
+ * <p>Layout (big endian):
+ * <pre>
+ * int    magic "ASNP"
+ * int    version
+ * int    collection count
+ * per collection:
+ *   short  name length, name bytes (UTF-8)
+ *   int    document count
+ *   long   offset of the first document
+ *   int    indexed document count
+ *   long   offset of the id index
+ * documents: int length, compact JSON bytes (UTF-8)
+ * id index:  long id, long document offset, sorted by id
+ * </pre>
+ */
+public final class Snapshot {
+  private static final int MAGIC = 0x41534E50;
+  private static final int VERSION = 1;
+
+  private final MappedByteBuffer data;
+  private final Map<String, Table> tables;
+
+  private Snapshot(final MappedByteBuffer data, final Map<String, Table> tables) {
+    this.data = data;
+    this.tables = tables;
+  }
+
+  private static final class Table {
+    private final int count;
+    private final long documents;
+    private final int indexed;
+    private final long index;
+
+    private Table(final int count, final long documents, final int indexed, final long index) {
+      this.count = count;
+      this.documents = documents;
+      this.indexed = indexed;
+      this.index = index;
+    }
+  }
+
+  /**
+  * Map a snapshot file on a worker thread.
+  *
+  * @param vertx the <code>Vertx</code> instance
+  * @param path  the path to the snapshot file
+  * @return      <code>Future&lt;Snapshot&gt;</code> with the mapped snapshot
+  */
+  public static Future<Snapshot> load(Vertx vertx, String path) {
+    return vertx.executeBlocking(load -> {
+      try {
+        load.complete(read(Paths.get(path)));
+      } catch (Exception e) {
+        load.fail(e);
+      }
+    }, false);
+  }
+
+  /**
+  * Write collections to a snapshot file on a worker thread.
+  *
+  * <p>The snapshot is written to a temporary file next to <code>path</code> and moved
+  * in place atomically, so readers never see a partially written file.
+  *
+  * @param vertx       the <code>Vertx</code> instance
+  * @param path        the path to the snapshot file
+  * @param collections the documents by collection name
+  * @return            <code>Future</code> with success or fail
+  */
+  public static Future<Void> write(Vertx vertx, String path, Map<String, List<JsonObject>> collections) {
+    return vertx.executeBlocking(write -> {
+      try {
+        Path target = Paths.get(path).toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "snapshot", ".tmp");
+        try {
+          write(temp, collections);
+          Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+          Files.deleteIfExists(temp);
+        }
+        write.complete();
+      } catch (Exception e) {
+        write.fail(e);
+      }
+    }, false);
+  }
+
+  public Set<String> getCollections() {
+    return tables.keySet();
+  }
+
+  public boolean contains(String collection) {
+    return tables.containsKey(collection);
+  }
+
+  /**
+  * Get the amount of documents in a collection.
+  *
+  * @param collection the name of the collection
+  * @return           the amount of documents or <code>0</code> if not in the snapshot
+  */
+  public int size(String collection) {
+    Table table = tables.get(collection);
+    return table == null ? 0 : table.count;
+  }
+
+  /**
+  * Decode all documents of a collection.
+  *
+  * @param collection the name of the collection
+  * @return           <code>List&lt;JsonObject&gt;</code> of the documents
+  */
+  public List<JsonObject> getCollection(String collection) {
+    Table table = tables.get(collection);
+    if (table == null) {
+      return Collections.emptyList();
+    }
+
+    List<JsonObject> documents = new ArrayList<>(table.count);
+    int position = (int) table.documents;
+    for (int i = 0; i < table.count; i++) {
+      Buffer document = bytesAt(position);
+      documents.add(document.toJsonObject());
+      position += 4 + document.length();
+    }
+    return documents;
+  }
+
+  /**
+  * Iterate the encoded bytes of all documents of a collection without decoding them.
+  *
+  * @param collection the name of the collection
+  * @return           <code>Iterator&lt;Buffer&gt;</code> over the compact JSON documents
+  */
+  public Iterator<Buffer> iterate(String collection) {
+    Table table = tables.get(collection);
+    int count = table == null ? 0 : table.count;
+    int start = table == null ? 0 : (int) table.documents;
+    return new Iterator<>() {
+      private int read = 0;
+      private int position = start;
+
+      @Override
+      public boolean hasNext() {
+        return read < count;
+      }
+
+      @Override
+      public Buffer next() {
+        if (read == count) {
+          throw new NoSuchElementException();
+        }
+        Buffer document = bytesAt(position);
+        position += 4 + document.length();
+        read++;
+        return document;
+      }
+    };
+  }
+
+  /**
+  * Find a document by its <code>id</code> field using the id index.
+  *
+  * @param collection the name of the collection
+  * @param id         the id of the document
+  * @return           the decoded <code>JsonObject</code> or null if not found
+  */
+  public JsonObject get(String collection, long id) {
+    Buffer document = getBytes(collection, id);
+    return document == null ? null : document.toJsonObject();
+  }
+
+  /**
+  * Find the encoded bytes of a document by its <code>id</code> field.
+  *
+  * @param collection the name of the collection
+  * @param id         the id of the document
+  * @return           the compact JSON <code>Buffer</code> or null if not found
+  */
+  public Buffer getBytes(String collection, long id) {
+    Table table = tables.get(collection);
+    if (table == null) {
+      return null;
+    }
+
+    int low = 0;
+    int high = table.indexed - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int entry = (int) table.index + mid * 16;
+      long midId = data.getLong(entry);
+      if (midId < id) {
+        low = mid + 1;
+      } else if (midId > id) {
+        high = mid - 1;
+      } else {
+        return bytesAt((int) data.getLong(entry + 8));
+      }
+    }
+    return null;
+  }
+
+  // Absolute reads only, so the shared mapping is safe to read from any thread
+  private Buffer bytesAt(int position) {
+    byte[] bytes = new byte[data.getInt(position)];
+    data.get(position + 4, bytes);
+    return Buffer.buffer(bytes);
+  }
+
+  private static Snapshot read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot exceeds 2GB: " + path);
+      }
+      MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+        throw new IOException("Not a snapshot or unsupported version: " + path);
+      }
+
+      int collections = data.getInt();
+      Map<String, Table> tables = new HashMap<>();
+      for (int i = 0; i < collections; i++) {
+        byte[] name = new byte[data.getShort()];
+        data.get(name);
+        tables.put(new String(name, StandardCharsets.UTF_8),
+            new Table(data.getInt(), data.getLong(), data.getInt(), data.getLong()));
+      }
+      return new Snapshot(data, Collections.unmodifiableMap(tables));
+    }
+  }
+
+  private static void write(Path path, Map<String, List<JsonObject>> collections) throws IOException {
+    List<String> names = new ArrayList<>(collections.keySet());
+    int header = 12;
+    for (String name : names) {
+      header += 2 + name.getBytes(StandardCharsets.UTF_8).length + 24;
+    }
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer table = ByteBuffer.allocate(header)
+          .putInt(MAGIC).putInt(VERSION).putInt(names.size());
+      long position = header;
+      channel.position(position);
+
+      for (String name : names) {
+        List<JsonObject> documents = collections.get(name);
+        long[] ids = new long[documents.size()];
+        long[] offsets = new long[documents.size()];
+        int indexed = 0;
+
+        long first = position;
+        for (JsonObject document : documents) {
+          JsonObject stored = document.copy();
+          stored.remove("_id");
+          byte[] bytes = stored.toBuffer().getBytes();
+          if (stored.getValue("id") instanceof Number) {
+            ids[indexed] = stored.getLong("id");
+            offsets[indexed++] = position;
+          }
+          position += writeFully(channel,
+              ByteBuffer.allocate(4 + bytes.length).putInt(bytes.length).put(bytes).flip());
+        }
+
+        long index = position;
+        position += writeFully(channel, sortedIndex(ids, offsets, indexed));
+
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        table.putShort((short) encoded.length).put(encoded)
+            .putInt(documents.size()).putLong(first)
+            .putInt(indexed).putLong(index);
+      }
+
+      channel.position(0);
+      writeFully(channel, table.flip());
+      channel.force(true);
+    }
+  }
+
+  private static ByteBuffer sortedIndex(long[] ids, long[] offsets, int indexed) {
+    Integer[] order = new Integer[indexed];
+    for (int i = 0; i < indexed; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(ids[a], ids[b]));
+
+    ByteBuffer index = ByteBuffer.allocate(indexed * 16);
+    for (int i : order) {
+      index.putLong(ids[i]).putLong(offsets[i]);
+    }
+    return index.flip();
+  }
+
+  private static int writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    int written = buffer.remaining();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    return written;
+  }
+}
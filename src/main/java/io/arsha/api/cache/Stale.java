@@ -0,0 +1,32 @@
+package io.arsha.api.cache;
+
+/**
+ * The last good value of a key and the time it was loaded, kept past expiry to
+ * serve while the key reloads or if the reload fails.
+ *
+ * @param <V> the value type
+ */
+final class Stale<V> {
+
+  /**
+  * Last good value.
+  *
+  * @param value   the value
+  * @param created the time the value was loaded in epoch milliseconds
+  */
+  Stale(final V value, final long created) {
+    this.value = value;
+    this.created = created;
+  }
+
+  private final V value;
+  private final long created;
+
+  V getValue() {
+    return this.value;
+  }
+
+  long getCreated() {
+    return this.created;
+  }
+}
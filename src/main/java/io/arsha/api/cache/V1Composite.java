@@ -2,37 +2,72 @@ package io.arsha.api.cache;
 
 import io.arsha.api.market.enums.MarketEndpoint;
 
+import java.util.Objects;
+
 public class V1Composite {
+  static final Interner REGIONS = new Interner(256);
 
   /**
   * the composite key for V1 requests.
   *
-  * @param id        the item id
-  * @param sid       the item sub id
+  * <p>Keys are immutable: the region is resolved to an ordinal and the hash code is
+  * computed once, so cache lookups neither allocate nor rehash strings.
+  *
+  * @param id        the item id or category
+  * @param sid       the item sub id or sub category
   * @param region    the game region
   * @param requestId the request endpoint
   */
-  public V1Composite(final Object id, final Long sid, final String region, final MarketEndpoint requestId) {
+  public V1Composite(final long id, final long sid, final String region, final MarketEndpoint requestId) {
+    this(id, null, sid, REGIONS.ordinal(region.toLowerCase()), requestId);
+  }
+
+  V1Composite(final long id, final String term, final long sid, final int region,
+      final MarketEndpoint requestId) {
     this.id = id;
+    this.term = term;
     this.sid = sid;
-    this.region = region.toLowerCase();
+    this.region = region;
     this.requestId = requestId;
+    this.hash = hash(id, term, sid, region, requestId);
+  }
+
+  /**
+  * The composite key for V1 search requests.
+  *
+  * @param term   the search term, comma separated item ids
+  * @param region the game region
+  * @return       the <code>V1Composite</code>
+  */
+  public static V1Composite search(final String term, final String region) {
+    return new V1Composite(0L, term, 0L, REGIONS.ordinal(region.toLowerCase()),
+        MarketEndpoint.GetWorldMarketSearchList);
   }
 
-  private Object id;
-  private Long sid;
-  private String region;
-  private MarketEndpoint requestId;
+  private final long id;
+  private final String term;
+  private final long sid;
+  private final int region;
+  private final MarketEndpoint requestId;
+  private final int hash;
 
-  public Object getId() {
+  public long getId() {
     return this.id;
   }
 
-  public Long getSid() {
+  public String getTerm() {
+    return this.term;
+  }
+
+  public long getSid() {
     return this.sid;
   }
 
   public String getRegion() {
+    return REGIONS.name(region);
+  }
+
+  public int getRegionOrdinal() {
     return this.region;
   }
 
@@ -40,25 +75,30 @@ public class V1Composite {
     return this.requestId;
   }
 
+  private static int hash(long id, String term, long sid, int region, MarketEndpoint requestId) {
+    int hashCode = Long.hashCode(id);
+    hashCode = 31 * hashCode + Objects.hashCode(term);
+    hashCode = 31 * hashCode + Long.hashCode(sid);
+    hashCode = 31 * hashCode + region;
+    hashCode = 31 * hashCode + requestId.ordinal();
+    return hashCode;
+  }
+
   @Override
   public boolean equals(final Object other) {
     if (this == other) return true;
     if (other == null || getClass() != other.getClass()) return false;
     V1Composite key = (V1Composite) other;
-    if (!id.equals(key.id)) return false;
-    if (!sid.equals(key.sid)) return false;
-    if (!region.equals(key.region)) return false;
-    if (!requestId.equals(key.requestId)) return false;
-    return id.equals(key.id);
+    if (hash != key.hash) return false;
+    if (id != key.id) return false;
+    if (sid != key.sid) return false;
+    if (region != key.region) return false;
+    if (requestId != key.requestId) return false;
+    return Objects.equals(term, key.term);
   }
 
   @Override
   public int hashCode() {
-    int hashCode = id.hashCode();
-    hashCode = 31 * hashCode
-        + sid.hashCode()
-        + region.hashCode()
-        + requestId.hashCode();
-    return hashCode;
+    return this.hash;
   }
 }
@@ -2,17 +2,8 @@ package io.arsha.api.cache;
 
 import io.arsha.api.market.enums.MarketEndpoint;
 
-public class V2Composite extends V1Composite {
-  /**
-  * Create a <code>V2Composite</code> from <code>V1Composite</code>.
-  *
-  * @param child the <code>V1Composite</code>
-  * @param lang  the language
-  */
-  public V2Composite(final V1Composite child, final String lang) {
-    super(child.getId(), child.getSid(), child.getRegion(), child.getRequestId());
-    this.lang = lang;
-  }
+public final class V2Composite extends V1Composite {
+  static final Interner LANGS = new Interner(256);
 
   /**
   * The composite key for V2 requests.
@@ -23,47 +14,67 @@ public class V2Composite extends V1Composite {
   * @param requestId the market endpoint
   * @param lang      the language
   */
-  public V2Composite(final Object id, final Long sid, final String region, final MarketEndpoint requestId, final String lang) {
-    super(id, sid, region.toLowerCase(), requestId);
-    this.lang = lang;
+  public V2Composite(final long id, final long sid, final String region, final MarketEndpoint requestId, final String lang) {
+    this(id, null, sid, REGIONS.ordinal(region.toLowerCase()), requestId, lang);
+  }
+
+  private V2Composite(final long id, final String term, final long sid, final int region,
+      final MarketEndpoint requestId, final String lang) {
+    super(id, term, sid, region, requestId);
+    this.lang = LANGS.ordinal(lang);
+    this.hash = 31 * super.hashCode() + this.lang;
+  }
+
+  /**
+  * The composite key for V2 search requests.
+  *
+  * @param term   the search term, a single item id
+  * @param region the game region
+  * @param lang   the language
+  * @return       the <code>V2Composite</code>
+  */
+  public static V2Composite search(final String term, final String region, final String lang) {
+    return new V2Composite(0L, term, 0L, REGIONS.ordinal(region.toLowerCase()),
+        MarketEndpoint.GetWorldMarketSearchList, lang);
   }
 
-  private String lang;
+  private final int lang;
+  private final int hash;
+  private V1Composite parent;
 
   public String getLang() {
+    return LANGS.name(lang);
+  }
+
+  public int getLangOrdinal() {
     return this.lang;
   }
 
   /**
-  * Get superclass <code>V1Composite</code>.
+  * Get the <code>V1Composite</code> of the market request this key is built from.
+  *
+  * <p>The parent is created once on first use. Racing threads create equal immutable
+  * keys, so the unsynchronized field is safe.
   *
   * @return <code>V1Composite</code>
   */
   public V1Composite getParent() {
-    return this;
+    V1Composite v1 = parent;
+    if (v1 == null) {
+      v1 = new V1Composite(getId(), getTerm(), getSid(), getRegionOrdinal(), getRequestId());
+      parent = v1;
+    }
+    return v1;
   }
 
   @Override
   public boolean equals(final Object other) {
-    if (this == other) return true;
-    if (other == null || getClass() != other.getClass()) return false;
-    V2Composite key = (V2Composite) other;
-    if (!getId().equals(key.getId())) return false;
-    if (!getSid().equals(key.getSid())) return false;
-    if (!getRegion().equals(key.getRegion())) return false;
-    if (!getRequestId().equals(key.getRequestId())) return false;
-    if (!lang.equals(key.lang)) return false;
-    return getId().equals(key.getId());
+    if (!super.equals(other)) return false;
+    return lang == ((V2Composite) other).lang;
   }
 
   @Override
   public int hashCode() {
-    int hashCode = getId().hashCode();
-    hashCode = 31 * hashCode
-        + getSid().hashCode()
-        + getRegion().hashCode()
-        + getRequestId().hashCode()
-        + lang.hashCode();
-    return hashCode;
+    return this.hash;
   }
 }
@@ -0,0 +1,197 @@
+package io.arsha.api.cluster;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import io.arsha.api.cache.CacheReplica;
+import io.arsha.api.cache.V1Composite;
+import io.arsha.api.cache.V2Composite;
+import io.arsha.api.common.AppConfig;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.spi.cluster.ClusterManager;
+import io.vertx.spi.cluster.hazelcast.ConfigUtil;
+import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional clustering of API nodes, configured by the <code>cluster</code> section.
+ *
+ * <p>Nodes find each other with Hazelcast over TCP/IP on the listed
+ * <code>members</code>. Without <code>enabled</code> the API runs standalone and
+ * every node owns every key.
+ */
+public class Cluster {
+  private static Logger logger = LoggerFactory.getLogger(Cluster.class);
+  private static volatile ClusterNode node = null;
+  private static ClusterManager manager = null;
+  private static boolean initialized = false;
+
+  /**
+  * Create the <code>Vertx</code> instance, clustered if enabled.
+  *
+  * @param options the <code>VertxOptions</code>
+  * @param conf    the <code>cluster</code> config
+  * @return        <code>Future</code> of the <code>Vertx</code> instance
+  */
+  public static Future<Vertx> vertx(VertxOptions options, JsonObject conf) {
+    if (!conf.getBoolean("enabled", false)) {
+      return Future.succeededFuture(Vertx.vertx(options));
+    }
+
+    String host = conf.getString("host", "127.0.0.1");
+    Config hazelcast = ConfigUtil.loadConfig();
+    hazelcast.getNetworkConfig()
+        .setPort(conf.getInteger("port", 5701))
+        .setPortAutoIncrement(true);
+    JoinConfig join = hazelcast.getNetworkConfig().getJoin();
+    join.getMulticastConfig().setEnabled(false);
+    join.getTcpIpConfig().setEnabled(true);
+    conf.getJsonArray("members", new JsonArray().add(host))
+        .forEach(member -> join.getTcpIpConfig().addMember(member.toString()));
+
+    manager = new HazelcastClusterManager(hazelcast);
+    options.setClusterManager(manager);
+    options.getEventBusOptions().setHost(host);
+    return Vertx.clusteredVertx(options);
+  }
+
+  /**
+  * Join the cache replication once for all verticle instances.
+  *
+  * @param vertx  the <code>Vertx</code> instance
+  * @param config the <code>AppConfig</code>
+  * @return       <code>Future&lt;Void&gt;</code>
+  */
+  public static synchronized Future<Void> init(Vertx vertx, AppConfig config) {
+    if (initialized || !vertx.isClustered()) {
+      return Future.succeededFuture();
+    }
+    initialized = true;
+    long maxAge = TimeUnit.SECONDS.toMillis(config.getCluster().getLong("forwardMaxAge", 60L));
+    return ClusterNode.start(vertx, manager, config.getCluster(), new CacheReplica(maxAge))
+        .onSuccess(started -> node = started)
+        .onFailure(fail -> {
+          initialized = false;
+          logger.error("Failed joining cluster: " + fail.getMessage());
+        }).mapEmpty();
+  }
+
+  /**
+  * Leave the cache replication, before the cluster manager shuts down.
+  *
+  * @return <code>Future&lt;Void&gt;</code>
+  */
+  public static synchronized Future<Void> close() {
+    ClusterNode current = node;
+    node = null;
+    initialized = false;
+    return current == null ? Future.succeededFuture() : current.stop();
+  }
+
+  public static boolean isEnabled() {
+    return node != null;
+  }
+
+  public static ClusterNode getNode() {
+    return node;
+  }
+
+  /**
+  * Get the owner of a key.
+  *
+  * @param key the <code>V1Composite</code> or <code>V2Composite</code>
+  * @return    the id of the owning node or <code>null</code> if not clustered
+  */
+  public static String owner(V1Composite key) {
+    ClusterNode current = node;
+    return current == null ? null : current.owner(key);
+  }
+
+  /**
+  * Check if this node loads and refreshes a key.
+  *
+  * @param key the <code>V1Composite</code> or <code>V2Composite</code>
+  * @return    true if this node owns the key or is not clustered
+  */
+  public static boolean owns(V1Composite key) {
+    ClusterNode current = node;
+    return current == null || current.owns(key);
+  }
+
+  /**
+  * Check if market requests of a key are sent to its owner.
+  *
+  * @param key the <code>V1Composite</code> of the request
+  * @return    true if clustered with forwarding enabled and another node owns the key
+  */
+  public static boolean forwards(V1Composite key) {
+    ClusterNode current = node;
+    return current != null && current.forwards(key);
+  }
+
+  /**
+  * Send a market request to the owner of its key.
+  *
+  * @param key the <code>V1Composite</code> of the request
+  * @return    <code>Future&lt;Buffer&gt;</code> of the market response
+  * @see       ClusterNode#forward(V1Composite)
+  */
+  public static Future<Buffer> forward(V1Composite key) {
+    ClusterNode current = node;
+    if (current == null) {
+      return Future.failedFuture(new ReplyException(ReplyFailure.NO_HANDLERS, "Not clustered"));
+    }
+    return current.forward(key);
+  }
+
+  /**
+  * Publish a market response loaded by this node to its peers.
+  *
+  * @param key      the <code>V1Composite</code> of the response
+  * @param response the market response
+  */
+  public static void replicateV1(V1Composite key, Buffer response) {
+    ClusterNode current = node;
+    if (current != null) {
+      current.replicateV1(key, response);
+    }
+  }
+
+  /**
+  * Publish a V2 payload built by this node to its peers.
+  *
+  * @param key      the <code>V2Composite</code> of the payload
+  * @param stored   the payload as kept off-heap, its body and compressed element
+  * @param elements the amount of elements, <code>-1</code> for a JSON object
+  * @param created  the time the payload was built in epoch milliseconds
+  */
+  public static void replicateV2(V2Composite key, Buffer stored, int elements, long created) {
+    ClusterNode current = node;
+    if (current != null) {
+      current.replicateV2(key, stored, elements, created);
+    }
+  }
+
+  /**
+  * Send hot keys owned by other nodes to their owners.
+  *
+  * @param keys the keys per owning node
+  */
+  public static void touch(Map<String, List<V1Composite>> keys) {
+    ClusterNode current = node;
+    if (current != null && !keys.isEmpty()) {
+      current.touch(keys);
+    }
+  }
+}
@@ -0,0 +1,369 @@
+package io.arsha.api.cluster;
+
+import io.arsha.api.cache.V1Composite;
+import io.arsha.api.cache.V2Composite;
+import io.arsha.api.market.enums.MarketEndpoint;
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.Counter;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.spi.cluster.ClusterManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Membership of one API node in a clustered Vert.x and replication of its cache
+ * values over the event bus.
+ *
+ * <p>The ring of nodes follows the members of the cluster manager, polled every
+ * <code>membershipInterval</code> milliseconds. Vert.x keeps the only node listener
+ * of the cluster manager to itself.
+ *
+ * <p>Market responses and V2 payloads loaded by a node are published with their key,
+ * every other node stores them in its <code>Replica</code>. Values loaded within
+ * <code>batchDelay</code> milliseconds are published as one message of up to
+ * <code>batchBytes</code>, each message costs a context switch, a subscriber lookup
+ * and a write per peer regardless of its size. Nodes send the keys they find hot
+ * but do not own to the owner, which refreshes them for the whole cluster.
+ *
+ * <p>With <code>forward</code> enabled market requests for keys owned by another node
+ * are sent to the owner, which answers them from its cache. Only the owner of a key
+ * requests it from the trade market, however many nodes run. The owner never
+ * forwards them again.
+ */
+public final class ClusterNode {
+  private static final Logger logger = LoggerFactory.getLogger(ClusterNode.class);
+  static final String REPLICA_ADDRESS = "arsha.cluster.replica";
+  static final String TOUCH_ADDRESS = "arsha.cluster.touch.";
+  static final String FETCH_ADDRESS = "arsha.cluster.fetch.";
+
+  /**
+  * Node of a clustered <code>Vertx</code>.
+  *
+  * @param vertx   the clustered <code>Vertx</code> instance
+  * @param manager the <code>ClusterManager</code> the instance was created with
+  * @param conf    the <code>cluster</code> config
+  * @param replica the local caches fed by peers
+  */
+  private ClusterNode(final Vertx vertx, final ClusterManager manager, final JsonObject conf,
+      final Replica replica) {
+    this.vertx = vertx;
+    this.manager = manager;
+    this.self = manager.getNodeId();
+    this.replicas = conf.getInteger("replicas", 160);
+    this.replicate = conf.getBoolean("replicate", true);
+    this.batchDelay = conf.getLong("batchDelay", 10L);
+    this.batchBytes = conf.getInteger("batchBytes", 256 * 1024);
+    this.forward = conf.getBoolean("forward", true);
+    this.forwardTimeout = conf.getLong("forwardTimeout", 12000L);
+    this.replica = replica;
+    this.ring = HashRing.of(manager.getNodes(), replicas);
+  }
+
+  private final Vertx vertx;
+  private final ClusterManager manager;
+  private final String self;
+  private final int replicas;
+  private final boolean replicate;
+  private final long batchDelay;
+  private final int batchBytes;
+  private final boolean forward;
+  private final long forwardTimeout;
+  private final Replica replica;
+  private final Counter v1Sent =
+      Metrics.counter("arsha.cluster.replicated", "cache", "v1", "direction", "sent");
+  private final Counter v2Sent =
+      Metrics.counter("arsha.cluster.replicated", "cache", "v2", "direction", "sent");
+  private final Counter v1Adopted =
+      Metrics.counter("arsha.cluster.replicated", "cache", "v1", "direction", "adopted");
+  private final Counter v2Adopted =
+      Metrics.counter("arsha.cluster.replicated", "cache", "v2", "direction", "adopted");
+  private Buffer batch = null;
+  private final List<MessageConsumer<?>> consumers = new ArrayList<>();
+  private volatile HashRing ring;
+  private long timer = -1;
+
+  /**
+  * Join the replication of a clustered <code>Vertx</code>.
+  *
+  * @param vertx   the clustered <code>Vertx</code> instance
+  * @param manager the <code>ClusterManager</code> the instance was created with
+  * @param conf    the <code>cluster</code> config
+  * @param replica the local caches fed by peers
+  * @return        <code>Future</code> of the node once its consumers are registered
+  */
+  public static Future<ClusterNode> start(Vertx vertx, ClusterManager manager, JsonObject conf,
+      Replica replica) {
+    if (!vertx.isClustered() || manager == null) {
+      return Future.failedFuture("Vert.x is not clustered");
+    }
+    ClusterNode node = new ClusterNode(vertx, manager, conf, replica);
+    node.timer = vertx.setPeriodic(conf.getLong("membershipInterval", 1000L), id -> node.updateRing());
+    node.consumers.add(vertx.eventBus().<Buffer>consumer(REPLICA_ADDRESS, node::adopt));
+    node.consumers.add(vertx.eventBus().<JsonArray>consumer(TOUCH_ADDRESS + node.self, node::touched));
+    node.consumers.add(vertx.eventBus().<JsonObject>consumer(FETCH_ADDRESS + node.self, node::fetch));
+
+    Future<Void> registered = Future.succeededFuture();
+    for (MessageConsumer<?> consumer : node.consumers) {
+      Promise<Void> promise = Promise.promise();
+      consumer.completionHandler(promise);
+      registered = registered.compose(done -> promise.future());
+    }
+    return registered.map(done -> {
+      logger.info("Joined cluster as " + node.self + " with " + node.ring.getNodes().size() + " nodes");
+      return node;
+    });
+  }
+
+  /**
+  * Leave the replication, the cluster itself is left when <code>Vertx</code> closes.
+  *
+  * <p>Stops polling members and publishes the pending batch.
+  *
+  * @return <code>Future&lt;Void&gt;</code>
+  */
+  public Future<Void> stop() {
+    vertx.cancelTimer(timer);
+    flush();
+    // Wait for every consumer, failed or not, like CompositeFuture.join
+    Future<Void> unregistered = Future.succeededFuture();
+    for (MessageConsumer<?> consumer : consumers) {
+      Future<Void> unregister = consumer.unregister();
+      unregistered = unregistered.compose(done -> unregister, fail -> unregister);
+    }
+    return unregistered;
+  }
+
+  public String getNodeId() {
+    return this.self;
+  }
+
+  public HashRing getRing() {
+    return this.ring;
+  }
+
+  /**
+  * Get the owner of a key.
+  *
+  * @param key the <code>V1Composite</code> or <code>V2Composite</code>
+  * @return    the id of the owning node
+  */
+  public String owner(V1Composite key) {
+    String owner = ring.owner(key);
+    return owner == null ? self : owner;
+  }
+
+  public boolean owns(V1Composite key) {
+    return self.equals(owner(key));
+  }
+
+  /**
+  * Check if market requests of a key are sent to its owner.
+  *
+  * @param key the <code>V1Composite</code> of the request
+  * @return    true if forwarding is enabled and another node owns the key
+  */
+  public boolean forwards(V1Composite key) {
+    return forward && !owns(key);
+  }
+
+  /**
+  * Send a market request to the owner of its key.
+  *
+  * <p>Fails with a <code>ReplyException</code>: <code>RECIPIENT_FAILURE</code> if the
+  * owner failed the request, <code>NO_HANDLERS</code> or <code>TIMEOUT</code> if the
+  * owner left or did not answer within <code>forwardTimeout</code>.
+  *
+  * @param key the <code>V1Composite</code> of the request
+  * @return    <code>Future&lt;Buffer&gt;</code> of the market response
+  */
+  public Future<Buffer> forward(V1Composite key) {
+    DeliveryOptions options = new DeliveryOptions().setSendTimeout(forwardTimeout);
+    return vertx.eventBus().<Buffer>request(FETCH_ADDRESS + owner(key), encode(key), options)
+        .map(Message::body);
+  }
+
+  /**
+  * Publish a market response loaded by this node.
+  *
+  * @param key      the <code>V1Composite</code> of the response
+  * @param response the market response
+  */
+  public void replicateV1(V1Composite key, Buffer response) {
+    if (replicate && ring.getNodes().size() > 1) {
+      append(encode(key), response);
+      v1Sent.increment();
+    }
+  }
+
+  /**
+  * Publish a V2 payload built by this node.
+  *
+  * @param key      the <code>V2Composite</code> of the payload
+  * @param stored   the payload as kept off-heap, its body and compressed element
+  * @param elements the amount of elements, <code>-1</code> for a JSON object
+  * @param created  the time the payload was built in epoch milliseconds
+  */
+  public void replicateV2(V2Composite key, Buffer stored, int elements, long created) {
+    if (replicate && ring.getNodes().size() > 1) {
+      append(encode(key).put("elements", elements).put("created", created), stored);
+      v2Sent.increment();
+    }
+  }
+
+  /**
+  * Send hot keys to their owners.
+  *
+  * @param keys the keys per owning node
+  */
+  public void touch(Map<String, List<V1Composite>> keys) {
+    keys.forEach((owner, owned) -> {
+      JsonArray encoded = new JsonArray();
+      owned.forEach(key -> encoded.add(encode(key)));
+      vertx.eventBus().send(TOUCH_ADDRESS + owner, encoded);
+    });
+  }
+
+  /**
+  * Rebuild the ring if members joined or left.
+  *
+  * <p>The ring is kept once the cluster manager is no longer active, e.g. while the
+  * node shuts down.
+  */
+  private void updateRing() {
+    List<String> nodes;
+    try {
+      if (!manager.isActive()) {
+        return;
+      }
+      nodes = manager.getNodes();
+    } catch (RuntimeException e) {
+      logger.warn("Failed reading cluster members: " + e.getMessage());
+      return;
+    }
+    if (!new HashSet<>(nodes).equals(new HashSet<>(ring.getNodes()))) {
+      ring = HashRing.of(nodes, replicas);
+      logger.info("Cluster changed, " + nodes.size() + " nodes");
+    }
+  }
+
+  /**
+  * Add a value to the batch, scheduling its publish when the batch is new.
+  *
+  * <p>Records are the length of the key, the key, the length of the value and the value.
+  */
+  private synchronized void append(JsonObject key, Buffer value) {
+    Buffer header = key.toBuffer();
+    if (batch == null) {
+      batch = Buffer.buffer();
+      vertx.setTimer(batchDelay, id -> flush());
+    }
+    batch.appendInt(header.length()).appendBuffer(header).appendInt(value.length()).appendBuffer(value);
+    if (batch.length() >= batchBytes) {
+      flush();
+    }
+  }
+
+  private synchronized void flush() {
+    if (batch != null) {
+      vertx.eventBus().publish(REPLICA_ADDRESS, batch, new DeliveryOptions().addHeader("node", self));
+      batch = null;
+    }
+  }
+
+  private void adopt(Message<Buffer> message) {
+    if (self.equals(message.headers().get("node"))) {
+      return;
+    }
+    Buffer records = message.body();
+    int position = 0;
+    while (position < records.length()) {
+      int length = records.getInt(position);
+      JsonObject header = new JsonObject(records.getBuffer(position + 4, position + 4 + length));
+      position += 4 + length;
+      length = records.getInt(position);
+      Buffer value = records.getBuffer(position + 4, position + 4 + length);
+      position += 4 + length;
+
+      V1Composite key = decode(header);
+      if (key instanceof V2Composite) {
+        replica.adoptV2((V2Composite) key, value, header.getInteger("elements"), header.getLong("created"));
+        v2Adopted.increment();
+      } else {
+        replica.adoptV1(key, value);
+        v1Adopted.increment();
+      }
+    }
+  }
+
+  private void fetch(Message<JsonObject> message) {
+    replica.fetch(decode(message.body())).onComplete(fetched -> {
+      if (fetched.succeeded()) {
+        message.reply(fetched.result());
+      } else {
+        Throwable fail = fetched.cause();
+        int code = fail instanceof ReplyException ? ((ReplyException) fail).failureCode() : -1;
+        message.fail(code, String.valueOf(fail.getMessage()));
+      }
+    });
+  }
+
+  private void touched(Message<JsonArray> message) {
+    for (int i = 0; i < message.body().size(); i++) {
+      replica.touched(decode(message.body().getJsonObject(i)));
+    }
+  }
+
+  /**
+  * Encode a key to be sent to other nodes.
+  *
+  * @param key the <code>V1Composite</code> or <code>V2Composite</code>
+  * @return    the <code>JsonObject</code> of the key
+  */
+  static JsonObject encode(V1Composite key) {
+    JsonObject encoded = new JsonObject()
+        .put("region", key.getRegion())
+        .put("endpoint", key.getRequestId().name())
+        .put("id", key.getId())
+        .put("sid", key.getSid());
+    if (key.getTerm() != null) {
+      encoded.put("term", key.getTerm());
+    }
+    if (key instanceof V2Composite) {
+      encoded.put("lang", ((V2Composite) key).getLang());
+    }
+    return encoded;
+  }
+
+  /**
+  * Decode a key sent by another node.
+  *
+  * @param encoded the <code>JsonObject</code> of the key
+  * @return        the <code>V2Composite</code> if a language is set, else the <code>V1Composite</code>
+  */
+  static V1Composite decode(JsonObject encoded) {
+    String region = encoded.getString("region");
+    String term = encoded.getString("term");
+    String lang = encoded.getString("lang");
+    MarketEndpoint endpoint = MarketEndpoint.valueOf(encoded.getString("endpoint"));
+    if (lang == null) {
+      return term != null ? V1Composite.search(term, region)
+          : new V1Composite(encoded.getLong("id"), encoded.getLong("sid"), region, endpoint);
+    }
+    return term != null ? V2Composite.search(term, region, lang)
+        : new V2Composite(encoded.getLong("id"), encoded.getLong("sid"), region, endpoint, lang);
+  }
+}
@@ -0,0 +1,134 @@
+package io.arsha.api.cluster;
+
+import io.arsha.api.cache.V1Composite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consistent hash ring mapping market keys to the node owning them.
+ *
+ * <p>Every node is placed on the ring <code>replicas</code> times, a key is owned by
+ * the first node at or after its hash. When a node joins or leaves only the keys
+ * next to its points move. Rings are immutable, membership changes build a new one.
+ *
+ * <p>Hashes only depend on names and ids, never on <code>hashCode</code> of objects
+ * or JVM local ordinals, so every node computes the same owner.
+ */
+public final class HashRing {
+
+  /**
+  * Ring of nodes.
+  *
+  * @param nodes    the ids of the nodes
+  * @param replicas the amount of points per node
+  */
+  private HashRing(final Collection<String> nodes, final int replicas) {
+    List<long[]> points = new ArrayList<>();
+    List<String> names = new ArrayList<>(nodes);
+    names.sort(null);
+    for (int node = 0; node < names.size(); node++) {
+      for (int replica = 0; replica < replicas; replica++) {
+        points.add(new long[] {hash(names.get(node) + "#" + replica), node});
+      }
+    }
+    points.sort((a, b) -> Long.compare(a[0], b[0]));
+
+    this.nodes = names.toArray(new String[0]);
+    this.hashes = new long[points.size()];
+    this.owners = new int[points.size()];
+    for (int i = 0; i < points.size(); i++) {
+      hashes[i] = points.get(i)[0];
+      owners[i] = (int) points.get(i)[1];
+    }
+  }
+
+  private final String[] nodes;
+  private final long[] hashes;
+  private final int[] owners;
+
+  /**
+  * Build the ring of a set of nodes.
+  *
+  * @param nodes    the ids of the nodes
+  * @param replicas the amount of points per node
+  * @return         the <code>HashRing</code>
+  */
+  public static HashRing of(Collection<String> nodes, int replicas) {
+    return new HashRing(nodes, Math.max(1, replicas));
+  }
+
+  public List<String> getNodes() {
+    return Arrays.asList(nodes);
+  }
+
+  public boolean isEmpty() {
+    return nodes.length == 0;
+  }
+
+  /**
+  * Get the owner of a hash.
+  *
+  * @param hash the hash of a key
+  * @return     the id of the owning node or <code>null</code> if the ring is empty
+  */
+  public String owner(long hash) {
+    if (hashes.length == 0) {
+      return null;
+    }
+    int point = Arrays.binarySearch(hashes, hash);
+    if (point < 0) {
+      point = -point - 1;
+    }
+    return nodes[owners[point == hashes.length ? 0 : point]];
+  }
+
+  /**
+  * Get the owner of a market key.
+  *
+  * <p>A V2 key is owned by the owner of the V1 key it is built from.
+  *
+  * @param key the <code>V1Composite</code>
+  * @return    the id of the owning node or <code>null</code> if the ring is empty
+  */
+  public String owner(V1Composite key) {
+    return owner(hash(key));
+  }
+
+  /**
+  * Hash the market request of a key: region, endpoint, ids and search term.
+  *
+  * <p>The endpoint is hashed by name, so nodes of different builds agree on owners
+  * even if <code>RequestId</code> constants are reordered.
+  *
+  * @param key the <code>V1Composite</code>
+  * @return    the hash
+  */
+  public static long hash(V1Composite key) {
+    long hash = hash(key.getRegion());
+    hash = mix(hash * 31 + hash(key.getRequestId().name()));
+    hash = mix(hash * 31 + key.getId());
+    hash = mix(hash * 31 + key.getSid());
+    return key.getTerm() == null ? hash : mix(hash * 31 + hash(key.getTerm()));
+  }
+
+  static long hash(String value) {
+    long hash = 1125899906842597L;
+    for (int i = 0; i < value.length(); i++) {
+      hash = 31 * hash + value.charAt(i);
+    }
+    return mix(hash);
+  }
+
+  // Finalizer of MurmurHash3, spreads close inputs over the whole ring
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+}
@@ -0,0 +1,49 @@
+package io.arsha.api.cluster;
+
+import io.arsha.api.cache.V1Composite;
+import io.arsha.api.cache.V2Composite;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * The local caches a <code>ClusterNode</code> feeds with the values of its peers and
+ * the market requests it serves for them.
+ */
+public interface Replica {
+
+  /**
+  * Store a market response loaded by another node.
+  *
+  * @param key      the <code>V1Composite</code> of the response
+  * @param response the market response
+  */
+  void adoptV1(V1Composite key, Buffer response);
+
+  /**
+  * Store a V2 payload built by another node.
+  *
+  * @param key      the <code>V2Composite</code> of the payload
+  * @param stored   the payload as kept off-heap, its body and compressed element
+  * @param elements the amount of elements, <code>-1</code> for a JSON object
+  * @param created  the time the payload was built in epoch milliseconds
+  */
+  void adoptV2(V2Composite key, Buffer stored, int elements, long created);
+
+  /**
+  * Count a key another node finds hot, this node owns it and refreshes it.
+  *
+  * @param key the <code>V1Composite</code> or <code>V2Composite</code>
+  */
+  void touched(V1Composite key);
+
+  /**
+  * Send a market request another node forwarded to this node, its owner.
+  *
+  * <p>A failure carrying a <code>ReplyException</code> passes its code to the node
+  * that forwarded the request.
+  *
+  * @param key the <code>V1Composite</code> of the request
+  * @return    <code>Future&lt;Buffer&gt;</code> of the market response
+  */
+  Future<Buffer> fetch(V1Composite key);
+}
@@ -18,6 +18,8 @@ public class AppConfig {
     this.metrics = config.getJsonObject("metrics");
     this.util = config.getJsonObject("util");
     this.cache = config.getJsonObject("cache");
+    this.clients = config.getJsonObject("clients", new JsonObject());
+    this.cluster = config.getJsonObject("cluster", new JsonObject());
   }
 
   private Boolean debug;
@@ -26,6 +28,8 @@ public class AppConfig {
   private JsonObject metrics;
   private JsonObject util;
   private JsonObject cache;
+  private JsonObject clients;
+  private JsonObject cluster;
 
   public Boolean isDebug() {
     return this.debug;
@@ -75,4 +79,20 @@ public class AppConfig {
     this.cache = cache;
   }
 
+  public JsonObject getClients() {
+    return this.clients;
+  }
+
+  public void setClients(JsonObject clients) {
+    this.clients = clients;
+  }
+
+  public JsonObject getCluster() {
+    return this.cluster;
+  }
+
+  public void setCluster(JsonObject cluster) {
+    this.cluster = cluster;
+  }
+
 }
@@ -0,0 +1,102 @@
+package io.arsha.api.market;
+
+import io.arsha.api.cache.V1Composite;
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.Counter;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+public class Coalescer {
+  private static final Map<V1Composite, Future<Buffer>> inFlight = new ConcurrentHashMap<>();
+  private static final Map<V1Composite, Future<Buffer>> forwarding = new ConcurrentHashMap<>();
+  private static Counter issued = null;
+  private static Counter coalesced = null;
+
+  /**
+  * Share a single in-flight market request between all concurrent callers
+  * with an equal key.
+  *
+  * <p>The map is static and therefore shared by every deployed verticle instance.
+  * The key is released as soon as the request completes so later calls hit
+  * the market again.
+  *
+  * @param key     the <code>V1Composite</code> identifying the request
+  * @param request the supplier sending the request if none is in flight
+  * @return        <code>Future&lt;Buffer&gt;</code> of the shared request
+  */
+  public static Future<Buffer> coalesce(V1Composite key, Supplier<Future<Buffer>> request) {
+    return coalesce(inFlight, key, request);
+  }
+
+  /**
+  * Share a single request forwarded to another cluster node between all concurrent
+  * callers with an equal key.
+  *
+  * <p>Forwarded requests are kept apart from requests sent by this node. A node
+  * serving a request forwarded to it never joins its own forward of the same key,
+  * which would wait on itself until the forward timed out.
+  *
+  * @param key     the <code>V1Composite</code> identifying the request
+  * @param request the supplier forwarding the request if none is in flight
+  * @return        <code>Future&lt;Buffer&gt;</code> of the shared request
+  */
+  public static Future<Buffer> coalesceForward(V1Composite key, Supplier<Future<Buffer>> request) {
+    return coalesce(forwarding, key, request);
+  }
+
+  private static Future<Buffer> coalesce(Map<V1Composite, Future<Buffer>> inFlight, V1Composite key,
+      Supplier<Future<Buffer>> request) {
+    Promise<Buffer> promise = Promise.promise();
+    Future<Buffer> shared = inFlight.putIfAbsent(key, promise.future());
+    if (shared != null) {
+      getCoalesced().increment();
+      return shared;
+    }
+
+    getIssued().increment();
+    try {
+      request.get().onComplete(res -> {
+        inFlight.remove(key, promise.future());
+        promise.handle(res);
+      });
+    } catch (Exception e) {
+      inFlight.remove(key, promise.future());
+      promise.fail(e);
+    }
+    return promise.future();
+  }
+
+  /**
+  * Get the number of requests currently in flight.
+  *
+  * @return the number of distinct in-flight keys, sent and forwarded
+  */
+  public static int inFlight() {
+    return inFlight.size() + forwarding.size();
+  }
+
+  private static Counter getIssued() {
+    if (issued == null) {
+      issued = Counter.builder("arsha.market.requests")
+          .description("Market requests sent or joined by the coalescer")
+          .tag("outcome", "issued")
+          .register(Metrics.getRegistry());
+    }
+    return issued;
+  }
+
+  private static Counter getCoalesced() {
+    if (coalesced == null) {
+      coalesced = Counter.builder("arsha.market.requests")
+          .description("Market requests sent or joined by the coalescer")
+          .tag("outcome", "coalesced")
+          .register(Metrics.getRegistry());
+    }
+    return coalesced;
+  }
+}
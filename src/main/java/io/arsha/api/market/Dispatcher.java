@@ -0,0 +1,187 @@
+package io.arsha.api.market;
+
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class Dispatcher {
+  private final Vertx vertx;
+  private final int drainSize;
+  private final int minConcurrency;
+  private final int maxConcurrency;
+  private final int maxQueue;
+  private final double tolerance;
+  private final double backoffRatio;
+  private final Timer queueTime;
+  private final Counter shed;
+  private final Deque<Runnable> queue = new ArrayDeque<>();
+  private int inFlight = 0;
+  private boolean scheduled = false;
+  private double limit;
+  private double baseline = 0;
+
+  /**
+  * Per region dispatcher for market requests.
+  *
+  * <p>Requests are queued and started on the next event loop turn, at most
+  * <code>drainSize</code> per turn so a long queue does not block the event loop.
+  * Every request is still sent on its own, the trade market has no batch endpoint.
+  *
+  * <p>The amount of requests in flight is capped by an adaptive limit between
+  * <code>minConcurrency</code> and <code>maxConcurrency</code> (AIMD). Every request
+  * completing within <code>latencyTolerance</code> times the baseline latency raises
+  * the limit by <code>1 / limit</code>, about one per round trip. Failed or slower
+  * requests multiply it by <code>backoffRatio</code>. The baseline follows the fastest
+  * recent requests and drifts up slowly, so a region that got slower for good is not
+  * throttled forever.
+  *
+  * <p>At most <code>maxQueue</code> requests wait for a slot, further requests are
+  * shed right away instead of piling up while a region is slow.
+  *
+  * @param vertx  the <code>Vertx</code> instance used for timers
+  * @param region the region this dispatcher sends to
+  * @param conf   the <code>JsonObject</code> dispatcher config
+  */
+  public Dispatcher(Vertx vertx, String region, JsonObject conf) {
+    this.vertx = vertx;
+    this.drainSize = conf.getInteger("drainSize", 25);
+    this.maxConcurrency = conf.getInteger("maxConcurrency", 8);
+    this.minConcurrency = Math.min(maxConcurrency, conf.getInteger("minConcurrency", 1));
+    this.maxQueue = conf.getInteger("maxQueue", 1000);
+    this.tolerance = conf.getDouble("latencyTolerance", 2.0);
+    this.backoffRatio = conf.getDouble("backoffRatio", 0.9);
+    this.limit = maxConcurrency;
+    this.queueTime = Timer.builder("arsha.market.queue")
+        .description("Time market requests wait for a free slot")
+        .tag("region", region)
+        .publishPercentiles(0.5, 0.99)
+        .register(Metrics.getRegistry());
+    this.shed = Counter.builder("arsha.market.shed")
+        .description("Market requests rejected because the queue was full")
+        .tag("region", region)
+        .register(Metrics.getRegistry());
+  }
+
+  /**
+  * Queue a request to be sent once a slot is free.
+  *
+  * @param task the supplier sending the request
+  * @param <T>  the result type
+  * @return     <code>Future</code> completed with the result of <code>task</code>, failed
+  *             with <code>RejectedExecutionException</code> if the queue is full
+  */
+  public <T> Future<T> submit(Supplier<Future<T>> task) {
+    Promise<T> promise = Promise.promise();
+    long queued = System.nanoTime();
+    Runnable run = () -> {
+      long started = System.nanoTime();
+      queueTime.record(started - queued, TimeUnit.NANOSECONDS);
+      try {
+        task.get().onComplete(res -> {
+          release(System.nanoTime() - started, res.succeeded());
+          promise.handle(res);
+        });
+      } catch (Exception e) {
+        release(System.nanoTime() - started, false);
+        promise.fail(e);
+      }
+    };
+
+    boolean schedule = false;
+    synchronized (this) {
+      if (queue.size() >= maxQueue) {
+        shed.increment();
+        return Future.failedFuture(new RejectedExecutionException("Market queue is full"));
+      }
+      queue.add(run);
+      if (!scheduled) {
+        scheduled = true;
+        schedule = true;
+      }
+    }
+    if (schedule) {
+      vertx.runOnContext(v -> drain());
+    }
+    return promise.future();
+  }
+
+  /**
+  * Get the number of requests currently in flight.
+  *
+  * @return the number of in-flight requests
+  */
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  /**
+  * Get the number of requests waiting for a slot.
+  *
+  * @return the number of queued requests
+  */
+  public synchronized int getQueued() {
+    return queue.size();
+  }
+
+  /**
+  * Get the current adaptive concurrency limit.
+  *
+  * @return the number of requests allowed in flight
+  */
+  public synchronized double getLimit() {
+    return limit;
+  }
+
+  private void drain() {
+    List<Runnable> started = new ArrayList<>();
+    synchronized (this) {
+      scheduled = false;
+      while (started.size() < drainSize && inFlight < (int) limit && !queue.isEmpty()) {
+        started.add(queue.poll());
+        inFlight++;
+      }
+      if (!queue.isEmpty() && inFlight < (int) limit) {
+        scheduled = true;
+        vertx.runOnContext(v -> drain());
+      }
+    }
+    started.forEach(Runnable::run);
+  }
+
+  /**
+  * Free the slot of a completed request and adapt the limit.
+  *
+  * @param latency the time the request was in flight in nanoseconds
+  * @param success true if the request succeeded
+  */
+  private void release(long latency, boolean success) {
+    synchronized (this) {
+      inFlight--;
+      if (success) {
+        baseline = baseline == 0 ? latency : Math.min(latency, baseline + (latency - baseline) * 0.01);
+      }
+      if (success && latency <= baseline * tolerance) {
+        limit = Math.min(maxConcurrency, limit + 1.0 / limit);
+      } else {
+        limit = Math.max(minConcurrency, limit * backoffRatio);
+      }
+      if (scheduled || queue.isEmpty() || inFlight >= (int) limit) {
+        return;
+      }
+      scheduled = true;
+    }
+    drain();
+  }
+}
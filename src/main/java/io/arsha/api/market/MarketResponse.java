@@ -0,0 +1,88 @@
+package io.arsha.api.market;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.netty.buffer.ByteBufInputStream;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public final class MarketResponse {
+  private static final JsonFactory factory = new JsonFactory();
+
+  /**
+  * The parts of a market response the V2 handlers read.
+  *
+  * @param resultCode the <code>resultCode</code> or <code>-1</code> if missing
+  * @param resultMsg  the <code>resultMsg</code> or null if missing
+  */
+  private MarketResponse(final int resultCode, final String resultMsg) {
+    this.resultCode = resultCode;
+    this.resultMsg = resultMsg;
+  }
+
+  private final int resultCode;
+  private final String resultMsg;
+
+  /**
+  * Pull <code>resultCode</code> and <code>resultMsg</code> out of a market response
+  * without decoding it into a <code>JsonObject</code>.
+  *
+  * @param body the response body
+  * @return     the <code>MarketResponse</code>
+  * @throws DecodeException if the body is not a JSON object
+  */
+  public static MarketResponse parse(Buffer body) {
+    int resultCode = -1;
+    String resultMsg = null;
+    InputStream input = new ByteBufInputStream(body.getByteBuf());
+    try (JsonParser parser = factory.createParser(input)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new DecodeException("Market response is not a JSON object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        if ("resultCode".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+          resultCode = parser.getIntValue();
+        } else if ("resultMsg".equals(field) && value == JsonToken.VALUE_STRING) {
+          resultMsg = parser.getText();
+        } else {
+          parser.skipChildren();
+        }
+      }
+    } catch (IOException e) {
+      throw new DecodeException("Failed to decode market response: " + e.getMessage(), e);
+    }
+    return new MarketResponse(resultCode, resultMsg);
+  }
+
+  public int getResultCode() {
+    return this.resultCode;
+  }
+
+  public String getResultMsg() {
+    return this.resultMsg;
+  }
+
+  /**
+  * Check if the response carries no records.
+  *
+  * @return true if <code>resultMsg</code> is missing, empty or <code>0</code>
+  */
+  public boolean isEmpty() {
+    return ResultTokenizer.isEmpty(resultMsg);
+  }
+
+  /**
+  * Get a <code>ResultTokenizer</code> over <code>resultMsg</code>.
+  *
+  * @return the <code>ResultTokenizer</code>
+  */
+  public ResultTokenizer tokens() {
+    return new ResultTokenizer(resultMsg);
+  }
+}
@@ -1,24 +1,49 @@
 package io.arsha.api.market;
 
 import io.arsha.api.cache.V1Composite;
+import io.arsha.api.cluster.Cluster;
 import io.arsha.api.common.AppConfig;
 import io.arsha.api.market.enums.MarketEndpoint;
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.circuitbreaker.CircuitBreaker;
+import io.vertx.circuitbreaker.CircuitBreakerOptions;
+import io.vertx.circuitbreaker.CircuitBreakerState;
+import io.vertx.circuitbreaker.OpenCircuitException;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.ext.web.client.predicate.ResponsePredicate;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
 public class Marketplace {
+  // Reply codes of forwarded requests the owner rejected without sending them
+  private static final int OPEN = 503;
+  private static final int SHED = 429;
   private static JsonObject regions;
-  private static WebClient client;
+  private static Map<String, WebClient> clients = new ConcurrentHashMap<>();
+  private static Map<String, Dispatcher> dispatchers = new ConcurrentHashMap<>();
+  private static Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
 
   /**
   * Initialize and pass <code>Vertx</code> instance.
   *
+  * <p>Every region gets its own <code>WebClient</code> and therefore its own connection
+  * pool so slow regions can not starve the others of connections. Each region also
+  * gets its own <code>Dispatcher</code> limiting concurrency and
+  * <code>CircuitBreaker</code> failing fast while the trade host is down.
+  *
   * @param vertx the <code>Vertx</code> instance
   * @param conf  the <code>JsonObject</code> config
   * @return      <code>Future</code> with success or fail
@@ -26,8 +51,46 @@ public class Marketplace {
   public static Future<Void> init(Vertx vertx, AppConfig conf) {
     Promise<Void> init = Promise.promise();
     regions = conf.getUtil().getJsonObject("regions");
-    WebClientOptions options = new WebClientOptions().setSsl(true).setUserAgent("BlackDesert");
-    client = WebClient.create(vertx, options);
+    JsonObject dispatch = conf.getCache().getJsonObject("dispatcher", new JsonObject());
+    JsonObject defaults = conf.getClients().getJsonObject("default", new JsonObject());
+    JsonObject breaker = conf.getCache().getJsonObject("breaker", new JsonObject());
+
+    regions.fieldNames().forEach(region -> clients.computeIfAbsent(region, r -> {
+      JsonObject client = defaults.copy()
+          .mergeIn(conf.getClients().getJsonObject(r, new JsonObject()));
+      return WebClient.create(vertx, getClientOptions(regions.getString(r), client));
+    }));
+
+    regions.fieldNames().forEach(region -> dispatchers.computeIfAbsent(region, r -> {
+      Dispatcher dispatcher = new Dispatcher(vertx, r, dispatch);
+      Gauge.builder("arsha.market.inflight", dispatcher, Dispatcher::getInFlight)
+          .description("Market requests in flight")
+          .tag("region", r)
+          .register(Metrics.getRegistry());
+      Gauge.builder("arsha.market.queued", dispatcher, Dispatcher::getQueued)
+          .description("Market requests waiting for a free slot")
+          .tag("region", r)
+          .register(Metrics.getRegistry());
+      Gauge.builder("arsha.market.limit", dispatcher, Dispatcher::getLimit)
+          .description("Adaptive limit of market requests in flight")
+          .tag("region", r)
+          .register(Metrics.getRegistry());
+      return dispatcher;
+    }));
+
+    regions.fieldNames().forEach(region -> breakers.computeIfAbsent(region, r -> {
+      CircuitBreaker circuit = CircuitBreaker.create("market-" + r, vertx, new CircuitBreakerOptions()
+          .setMaxFailures(breaker.getInteger("maxFailures", 10))
+          .setTimeout(breaker.getLong("timeout", 10000L))
+          .setResetTimeout(breaker.getLong("resetTimeout", 30000L))
+          .setNotificationAddress(null));
+      Gauge.builder("arsha.market.breaker", circuit, c -> c.state() == CircuitBreakerState.OPEN ? 2
+              : c.state() == CircuitBreakerState.HALF_OPEN ? 1 : 0)
+          .description("Circuit breaker state, 0 closed, 1 half open, 2 open")
+          .tag("region", r)
+          .register(Metrics.getRegistry());
+      return circuit;
+    }));
 
     if (!regions.isEmpty() && regions != null) {
       init.complete();
@@ -38,6 +101,36 @@ public class Marketplace {
     return init.future();
   }
 
+  /**
+  * Build the <code>WebClientOptions</code> for a region.
+  *
+  * @param host   the host of the region
+  * @param client the <code>JsonObject</code> client config
+  * @return       the <code>WebClientOptions</code>
+  */
+  private static WebClientOptions getClientOptions(String host, JsonObject client) {
+    WebClientOptions options = new WebClientOptions()
+        .setUserAgent("BlackDesert")
+        .setDefaultHost(host)
+        .setDefaultPort(client.getInteger("port", 443))
+        .setSsl(client.getBoolean("ssl", true))
+        .setMaxPoolSize(client.getInteger("maxPoolSize", 8))
+        .setKeepAlive(client.getBoolean("keepAlive", true))
+        .setKeepAliveTimeout(client.getInteger("keepAliveTimeout", 60))
+        .setPipelining(client.getBoolean("pipelining", false))
+        .setPipeliningLimit(client.getInteger("pipeliningLimit", 10))
+        .setIdleTimeout(client.getInteger("idleTimeout", 120))
+        .setConnectTimeout(client.getInteger("connectTimeout", 5000));
+
+    if (client.getBoolean("http2", false)) {
+      options.setProtocolVersion(HttpVersion.HTTP_2)
+          .setUseAlpn(true)
+          .setHttp2MaxPoolSize(client.getInteger("http2MaxPoolSize", 1))
+          .setHttp2MultiplexingLimit(client.getInteger("http2MultiplexingLimit", 100));
+    }
+    return options;
+  }
+
   /**
   * Get supported regions.
   *
@@ -50,24 +143,121 @@ public class Marketplace {
   /**
   * Send a request to the BDO market.
   *
+  * <p>Concurrent requests for an equal key share a single upstream request. In a
+  * cluster, requests for keys owned by another node are forwarded to the owner so
+  * the whole cluster shares it, see <code>forward</code>.
+  *
   * @param request the <code>V1Composite</code> request to send
   * @return        <code>Future&lt;Buffer&gt;</code> with result of
   *                market response or <code>Throwable</code> on fail
   */
   public static Future<Buffer> request(V1Composite request) {
+    if (Cluster.forwards(request)) {
+      return Coalescer.coalesceForward(request, () -> forward(request));
+    }
+    return requestLocal(request);
+  }
+
+  /**
+  * Send a request to the BDO market from this node, even if another node owns its key.
+  *
+  * <p>Used to serve requests forwarded to this node, which must never be forwarded
+  * again. Concurrent requests for an equal key still share a single upstream request.
+  *
+  * @param request the <code>V1Composite</code> request to send
+  * @return        <code>Future&lt;Buffer&gt;</code> with result of
+  *                market response or <code>Throwable</code> on fail
+  */
+  public static Future<Buffer> requestLocal(V1Composite request) {
+    return Coalescer.coalesce(request, () -> send(request));
+  }
+
+  /**
+  * Fail a request another cluster node forwarded to this node with a reply code.
+  *
+  * <p>Requests of an open circuit or a full dispatcher fail with the codes
+  * <code>OPEN</code> and <code>SHED</code>, so the forwarding node falls back to stale
+  * data right away as well.
+  *
+  * @param fail the failure of the request
+  * @return     <code>Future</code> failed with a <code>ReplyException</code>
+  */
+  public static <T> Future<T> replyFailure(Throwable fail) {
+    int code = fail instanceof OpenCircuitException ? OPEN
+        : fail instanceof RejectedExecutionException ? SHED : -1;
+    return Future.failedFuture(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, code, fail.getMessage()));
+  }
+
+  /**
+  * Forward a request to the owner of its key.
+  *
+  * <p>Failures of the owner are passed on. If the owner left or did not answer in
+  * time, the request is sent by this node instead. Outcomes are counted as
+  * <code>arsha.market.forwarded</code> by region.
+  *
+  * @param request the <code>V1Composite</code> request to forward
+  * @return        <code>Future&lt;Buffer&gt;</code> with result of
+  *                market response or <code>Throwable</code> on fail
+  */
+  private static Future<Buffer> forward(V1Composite request) {
+    String region = request.getRegion();
+    return Cluster.forward(request).<Buffer>transform(forwarded -> {
+      if (forwarded.succeeded()) {
+        Metrics.counter("arsha.market.forwarded", "region", region, "outcome", "ok").increment();
+        return Future.succeededFuture(forwarded.result());
+      }
+      Throwable fail = forwarded.cause();
+      ReplyException reply = fail instanceof ReplyException ? (ReplyException) fail : null;
+      if (reply == null || reply.failureType() != ReplyFailure.RECIPIENT_FAILURE) {
+        Metrics.counter("arsha.market.forwarded", "region", region, "outcome", "fallback").increment();
+        return requestLocal(request);
+      }
+      Metrics.counter("arsha.market.forwarded", "region", region, "outcome", "error").increment();
+      if (reply.failureCode() == OPEN) {
+        return Future.failedFuture(OpenCircuitException.INSTANCE);
+      }
+      return Future.failedFuture(reply.failureCode() == SHED
+          ? new RejectedExecutionException(reply.getMessage()) : reply);
+    });
+  }
+
+  /**
+  * Send a request to the BDO market through the dispatcher of its region.
+  *
+  * <p>While the circuit of the region is open requests fail right away with
+  * <code>OpenCircuitException</code> without being queued, so callers fall back
+  * to stale data immediately.
+  *
+  * <p>The time from leaving the queue until the trade market answered is recorded
+  * as <code>arsha.market.request</code>.
+  *
+  * @param request the <code>V1Composite</code> request to send
+  * @return        <code>Future&lt;Buffer&gt;</code> with result of
+  *                market response or <code>Throwable</code> on fail
+  */
+  private static Future<Buffer> send(V1Composite request) {
     JsonObject params = parseRequest(request);
-    String url = getRegions().getString(params.getString("region"));
+    String region = params.getString("region");
     String endpoint = params.getString("endpoint");
     JsonObject body = params.getJsonObject("requestBody");
 
-    Promise<Buffer> response = Promise.promise();
-    client.post(443, url, "/Trademarket/" + endpoint)
-        .expect(ResponsePredicate.JSON)
-        .sendJsonObject(body)
-        .onSuccess(res -> response.complete(res.body()))
-        .onFailure(response::fail);
-
-    return response.future();
+    CircuitBreaker breaker = breakers.get(region);
+    if (breaker.state() == CircuitBreakerState.OPEN) {
+      return Future.failedFuture(OpenCircuitException.INSTANCE);
+    }
+    return dispatchers.get(region).submit(() -> {
+      Timer.Sample sample = Timer.start();
+      return breaker.<Buffer>execute(response ->
+        clients.get(region).post("/Trademarket/" + endpoint)
+            .expect(ResponsePredicate.JSON)
+            .sendJsonObject(body)
+            .onSuccess(res -> response.complete(res.body()))
+            .onFailure(response::fail)
+      ).onComplete(done -> sample.stop(Metrics.latency("arsha.market.request",
+          "region", region,
+          "endpoint", endpoint,
+          "outcome", done.succeeded() ? "ok" : "error")));
+    });
   }
 
   /**
@@ -77,8 +267,8 @@ public class Marketplace {
   * @return        <code>JsonObject</code> with request params
   */
   private static JsonObject parseRequest(V1Composite request) {
-    Object arg1 = request.getId();
-    Long arg2 = request.getSid();
+    long arg1 = request.getId();
+    long arg2 = request.getSid();
     String region = request.getRegion();
     MarketEndpoint requestId = request.getRequestId();
 
@@ -92,24 +282,24 @@ public class Marketplace {
         break;
       case GetWorldMarketList:
         requestBody.put("keyType", 0)
-            .put("mainCategory", (Long) arg1)
+            .put("mainCategory", arg1)
             .put("subCategory", arg2);
         break;
       case GetWorldMarketSubList:
         requestBody.put("keyType", 0)
-            .put("mainKey", (Long) arg1);
+            .put("mainKey", arg1);
         break;
       case GetWorldMarketSearchList:
-        requestBody.put("searchResult", (String) arg1);
+        requestBody.put("searchResult", request.getTerm());
         break;
       case GetBiddingInfoList:
         requestBody.put("keyType", 0)
-            .put("mainKey", (Long) arg1)
+            .put("mainKey", arg1)
             .put("subKey", arg2);
         break;
       case GetMarketPriceInfo:
         requestBody.put("keyType", 0)
-            .put("mainKey", (Long) arg1)
+            .put("mainKey", arg1)
             .put("subKey", arg2);
         break;
       default:
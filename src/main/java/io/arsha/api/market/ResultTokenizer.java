@@ -0,0 +1,146 @@
+package io.arsha.api.market;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Single pass tokenizer for the <code>resultMsg</code> of market responses.
+ *
+ * <p>Records are separated by <code>|</code> and fields by <code>-</code>, for example
+ * <code>10007-0-20-1000-5-2|10008-0-20-1200-1-0|</code>. Fields are parsed in place
+ * from the message, so no intermediate <code>String[]</code> or boxed values are created.
+ * Empty records, such as the trailing separator, are skipped.
+ *
+ * <p>A tokenizer is not thread safe but can be reused with <code>reset</code>.
+ */
+public final class ResultTokenizer {
+  public static final char RECORD = '|';
+  public static final char FIELD = '-';
+
+  private String message = "";
+  private int position = 0;
+  private int recordEnd = -1;
+
+  public ResultTokenizer() {
+  }
+
+  public ResultTokenizer(final String message) {
+    reset(message);
+  }
+
+  /**
+  * Start tokenizing a new message.
+  *
+  * @param message the <code>resultMsg</code> to tokenize
+  * @return        this tokenizer
+  */
+  public ResultTokenizer reset(String message) {
+    this.message = message == null ? "" : message;
+    this.position = 0;
+    this.recordEnd = -1;
+    return this;
+  }
+
+  /**
+  * Check if a <code>resultMsg</code> carries no records.
+  *
+  * @param message the <code>resultMsg</code>
+  * @return        true if the message is empty or <code>0</code>
+  */
+  public static boolean isEmpty(String message) {
+    return message == null || message.isEmpty() || message.equals("0");
+  }
+
+  /**
+  * Advance to the next record, skipping unread fields of the current one.
+  *
+  * @return true if there is a next record
+  */
+  public boolean nextRecord() {
+    int length = message.length();
+    int start = recordEnd < 0 ? 0 : recordEnd + 1;
+    while (start < length && message.charAt(start) == RECORD) {
+      start++;
+    }
+    if (start >= length) {
+      position = length;
+      recordEnd = length;
+      return false;
+    }
+
+    int end = message.indexOf(RECORD, start);
+    position = start;
+    recordEnd = end < 0 ? length : end;
+    return true;
+  }
+
+  /**
+  * Check if the current record has another field.
+  *
+  * @return true if a field is left in the current record
+  */
+  public boolean hasField() {
+    return position < recordEnd;
+  }
+
+  /**
+  * Parse the next field of the current record as <code>long</code>.
+  *
+  * <p>Fields are never negative since <code>-</code> is the field separator.
+  *
+  * @return the value of the field
+  * @throws NumberFormatException  if the field is empty or not a number
+  * @throws NoSuchElementException if the record has no fields left
+  */
+  public long nextLong() {
+    int end = fieldEnd();
+    if (end == position) {
+      throw new NumberFormatException("Empty field at " + position);
+    }
+
+    long value = 0;
+    for (int i = position; i < end; i++) {
+      int digit = message.charAt(i) - '0';
+      if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+        throw new NumberFormatException("Invalid number: " + message.substring(position, end));
+      }
+      value = value * 10 + digit;
+    }
+    position = end + 1;
+    return value;
+  }
+
+  /**
+  * Parse the next field of the current record as <code>int</code>.
+  *
+  * @return the value of the field
+  * @throws NumberFormatException  if the field is empty, not a number or out of range
+  * @throws NoSuchElementException if the record has no fields left
+  */
+  public int nextInt() {
+    long value = nextLong();
+    if (value > Integer.MAX_VALUE) {
+      throw new NumberFormatException("Out of int range: " + value);
+    }
+    return (int) value;
+  }
+
+  /**
+  * Skip the next field of the current record.
+  *
+  * @throws NoSuchElementException if the record has no fields left
+  */
+  public void skip() {
+    position = fieldEnd() + 1;
+  }
+
+  private int fieldEnd() {
+    if (position > recordEnd || recordEnd < 0) {
+      throw new NoSuchElementException("No field left in record");
+    }
+    int end = position;
+    while (end < recordEnd && message.charAt(end) != FIELD) {
+      end++;
+    }
+    return end;
+  }
+}
@@ -1,46 +1,65 @@
 package io.arsha.api.market.items;
 
+import io.arsha.api.market.ResultTokenizer;
+import io.arsha.api.util.json.JsonWritable;
+import io.arsha.api.util.json.JsonWriter;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 
-public class HotListItem {
+public class HotListItem implements JsonWritable {
+  private static final byte[] NAME = JsonWriter.name("name", true);
+  private static final byte[] ICON = JsonWriter.name("icon", false);
+  private static final byte[] ID = JsonWriter.name("id", false);
+  private static final byte[] SUB_ID = JsonWriter.name("subId", false);
+  private static final byte[] MIN_ENHANCE = JsonWriter.name("minEnhance", false);
+  private static final byte[] MAX_ENHANCE = JsonWriter.name("maxEnhance", false);
+  private static final byte[] BASE_PRICE = JsonWriter.name("basePrice", false);
+  private static final byte[] CURRENT_STOCK = JsonWriter.name("currentStock", false);
+  private static final byte[] TOTAL_TRADES = JsonWriter.name("totalTrades", false);
+  private static final byte[] PRICE_CHANGE_DIRECTION = JsonWriter.name("priceChangeDirection", false);
+  private static final byte[] PRICE_CHANGE_VALUE = JsonWriter.name("priceChangeValue", false);
+  private static final byte[] PRICE_MIN = JsonWriter.name("priceMin", false);
+  private static final byte[] PRICE_MAX = JsonWriter.name("priceMax", false);
+  private static final byte[] LAST_SOLD_PRICE = JsonWriter.name("lastSoldPrice", false);
+  private static final byte[] LAST_SOLD_TIME = JsonWriter.name("lastSoldTime", false);
 
   /**
   * Object for GetWorldMarketHotList result.
-  * @param itemString the <code>String[]</code> split resultMsg
-  *                   from central market response
+  * @param tokens the <code>ResultTokenizer</code> positioned at the record
+  *               from central market response
   */
-  public HotListItem(String[] itemString) {
-    this.id = Long.valueOf(itemString[0]);
-    this.subId = Long.valueOf(itemString[1]);
-    this.minEnhance = itemString[1];
-    this.maxEnhance = itemString[2];
-    this.basePrice = Long.valueOf(itemString[3]);
-    this.currentStock = Long.valueOf(itemString[4]);
-    this.totalTrades = Long.valueOf(itemString[5]);
-    this.priceChangeDirection = Integer.valueOf(itemString[6]);
-    this.priceChangeValue = Long.valueOf(itemString[7]);
-    this.priceMin = Long.valueOf(itemString[8]);
-    this.priceMax = Long.valueOf(itemString[9]);
-    this.lastSoldPrice = Long.valueOf(itemString[10]);
-    this.lastSoldTime = Long.valueOf(itemString[11]);
+  public HotListItem(ResultTokenizer tokens) {
+    this.id = tokens.nextLong();
+    this.minEnhance = tokens.nextInt();
+    this.subId = this.minEnhance;
+    this.maxEnhance = tokens.nextInt();
+    this.basePrice = tokens.nextLong();
+    this.currentStock = tokens.nextLong();
+    this.totalTrades = tokens.nextLong();
+    this.priceChangeDirection = tokens.nextInt();
+    this.priceChangeValue = tokens.nextLong();
+    this.priceMin = tokens.nextLong();
+    this.priceMax = tokens.nextLong();
+    this.lastSoldPrice = tokens.nextLong();
+    this.lastSoldTime = tokens.nextLong();
     this.name = null;
     this.icon = null;
   }
 
   private String name;
-  private Long id;
-  private Long subId;
-  private String minEnhance;
-  private String maxEnhance;
-  private Long basePrice;
-  private Long currentStock;
-  private Long totalTrades;
+  private long id;
+  private long subId;
+  private int minEnhance;
+  private int maxEnhance;
+  private long basePrice;
+  private long currentStock;
+  private long totalTrades;
   private int priceChangeDirection;
-  private Long priceChangeValue;
-  private Long priceMin;
-  private Long priceMax;
-  private Long lastSoldPrice;
-  private Long lastSoldTime;
+  private long priceChangeValue;
+  private long priceMin;
+  private long priceMax;
+  private long lastSoldPrice;
+  private long lastSoldTime;
   private String icon;
 
   public String getName() {
@@ -51,59 +70,59 @@ public class HotListItem {
     this.name = name;
   }
 
-  public Long getId() {
+  public long getId() {
     return this.id;
   }
 
-  public void setId(Long id) {
+  public void setId(long id) {
     this.id = id;
   }
 
-  public Long getSubId() {
+  public long getSubId() {
     return this.subId;
   }
 
-  public void setSubId(Long subId) {
+  public void setSubId(long subId) {
     this.subId = subId;
   }
 
-  public String getMinEnhance() {
+  public int getMinEnhance() {
     return this.minEnhance;
   }
 
-  public void setMinEnhance(String minEnhance) {
+  public void setMinEnhance(int minEnhance) {
     this.minEnhance = minEnhance;
   }
 
-  public String getMaxEnhance() {
+  public int getMaxEnhance() {
     return this.maxEnhance;
   }
 
-  public void setMaxEnhance(String maxEnhance) {
+  public void setMaxEnhance(int maxEnhance) {
     this.maxEnhance = maxEnhance;
   }
 
-  public Long getBasePrice() {
+  public long getBasePrice() {
     return this.basePrice;
   }
 
-  public void setBasePrice(Long basePrice) {
+  public void setBasePrice(long basePrice) {
     this.basePrice = basePrice;
   }
 
-  public Long getCurrentStock() {
+  public long getCurrentStock() {
     return this.currentStock;
   }
 
-  public void setCurrentStock(Long currentStock) {
+  public void setCurrentStock(long currentStock) {
     this.currentStock = currentStock;
   }
 
-  public Long getTotalTrades() {
+  public long getTotalTrades() {
     return this.totalTrades;
   }
 
-  public void setTotalTrades(Long totalTrades) {
+  public void setTotalTrades(long totalTrades) {
     this.totalTrades = totalTrades;
   }
 
@@ -115,43 +134,43 @@ public class HotListItem {
     this.priceChangeDirection = priceChangeDirection;
   }
 
-  public Long getPriceChangeValue() {
+  public long getPriceChangeValue() {
     return this.priceChangeValue;
   }
 
-  public void setPriceChangeValue(Long priceChangeValue) {
+  public void setPriceChangeValue(long priceChangeValue) {
     this.priceChangeValue = priceChangeValue;
   }
 
-  public Long getPriceMin() {
+  public long getPriceMin() {
     return this.priceMin;
   }
 
-  public void setPriceMin(Long priceMin) {
+  public void setPriceMin(long priceMin) {
     this.priceMin = priceMin;
   }
 
-  public Long getPriceMax() {
+  public long getPriceMax() {
     return this.priceMax;
   }
 
-  public void setPriceMax(Long priceMax) {
+  public void setPriceMax(long priceMax) {
     this.priceMax = priceMax;
   }
 
-  public Long getLastSoldPrice() {
+  public long getLastSoldPrice() {
     return this.lastSoldPrice;
   }
 
-  public void setLastSoldPrice(Long lastSoldPrice) {
+  public void setLastSoldPrice(long lastSoldPrice) {
     this.lastSoldPrice = lastSoldPrice;
   }
 
-  public Long getLastSoldTime() {
+  public long getLastSoldTime() {
     return this.lastSoldTime;
   }
 
-  public void setLastSoldTime(Long lastSoldTime) {
+  public void setLastSoldTime(long lastSoldTime) {
     this.lastSoldTime = lastSoldTime;
   }
 
@@ -174,8 +193,8 @@ public class HotListItem {
         .put("icon", icon)
         .put("id", id)
         .put("subId", subId)
-        .put("minEnhance", minEnhance)
-        .put("maxEnhance", maxEnhance)
+        .put("minEnhance", String.valueOf(minEnhance))
+        .put("maxEnhance", String.valueOf(maxEnhance))
         .put("basePrice", basePrice)
         .put("currentStock", currentStock)
         .put("totalTrades", totalTrades)
@@ -187,4 +206,44 @@ public class HotListItem {
         .put("lastSoldTime", lastSoldTime);
     return json;
   }
+
+  /**
+  * Writes <code>HotListItem</code> as compact JSON, equal to encoding <code>toJson()</code>.
+  *
+  * @param out the <code>Buffer</code> to append to
+  */
+  @Override
+  public void writeJson(Buffer out) {
+    out.appendBytes(NAME);
+    JsonWriter.writeString(out, name);
+    out.appendBytes(ICON);
+    JsonWriter.writeString(out, icon);
+    out.appendBytes(ID);
+    JsonWriter.writeLong(out, id);
+    out.appendBytes(SUB_ID);
+    JsonWriter.writeLong(out, subId);
+    out.appendBytes(MIN_ENHANCE);
+    JsonWriter.writeQuoted(out, minEnhance);
+    out.appendBytes(MAX_ENHANCE);
+    JsonWriter.writeQuoted(out, maxEnhance);
+    out.appendBytes(BASE_PRICE);
+    JsonWriter.writeLong(out, basePrice);
+    out.appendBytes(CURRENT_STOCK);
+    JsonWriter.writeLong(out, currentStock);
+    out.appendBytes(TOTAL_TRADES);
+    JsonWriter.writeLong(out, totalTrades);
+    out.appendBytes(PRICE_CHANGE_DIRECTION);
+    JsonWriter.writeLong(out, priceChangeDirection);
+    out.appendBytes(PRICE_CHANGE_VALUE);
+    JsonWriter.writeLong(out, priceChangeValue);
+    out.appendBytes(PRICE_MIN);
+    JsonWriter.writeLong(out, priceMin);
+    out.appendBytes(PRICE_MAX);
+    JsonWriter.writeLong(out, priceMax);
+    out.appendBytes(LAST_SOLD_PRICE);
+    JsonWriter.writeLong(out, lastSoldPrice);
+    out.appendBytes(LAST_SOLD_TIME);
+    JsonWriter.writeLong(out, lastSoldTime);
+    out.appendByte((byte) '}');
+  }
 }
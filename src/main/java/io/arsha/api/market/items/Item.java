@@ -1,48 +1,79 @@
 package io.arsha.api.market.items;
 
+import io.arsha.api.market.ResultTokenizer;
+import io.arsha.api.util.json.JsonWritable;
+import io.arsha.api.util.json.JsonWriter;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 
-public class Item {
+import java.nio.charset.StandardCharsets;
+
+public class Item implements JsonWritable {
+  private static final byte[] NAME = JsonWriter.name("name", true);
+  private static final byte[] ICON = JsonWriter.name("icon", false);
+  private static final byte[] ID = JsonWriter.name("id", false);
+  private static final byte[] SID = JsonWriter.name("sid", false);
+  private static final byte[] MIN_ENHANCE = JsonWriter.name("minEnhance", false);
+  private static final byte[] MAX_ENHANCE = JsonWriter.name("maxEnhance", false);
+  private static final byte[] BASE_PRICE = JsonWriter.name("basePrice", false);
+  private static final byte[] CURRENT_STOCK = JsonWriter.name("currentStock", false);
+  private static final byte[] TOTAL_TRADES = JsonWriter.name("totalTrades", false);
+  private static final byte[] PRICE_MIN = JsonWriter.name("priceMin", false);
+  private static final byte[] PRICE_MAX = JsonWriter.name("priceMax", false);
+  private static final byte[] LAST_SOLD_PRICE = JsonWriter.name("lastSoldPrice", false);
+  private static final byte[] LAST_SOLD_TIME = JsonWriter.name("lastSoldTime", false);
+  private static final byte[] PLACEHOLDER = (",\"minEnhance\":null,\"maxEnhance\":null,\"basePrice\":null"
+      + ",\"currentStock\":null,\"totalTrades\":null,\"priceMin\":null,\"priceMax\":null"
+      + ",\"lastSoldPrice\":null,\"lastSoldTime\":null}").getBytes(StandardCharsets.US_ASCII);
 
-  public Item(Object id, Long sid) {
-    this.id = (Long) id;
+  /**
+  * Placeholder <code>Item</code> for items without listings.
+  *
+  * <p>All market fields are written as <code>null</code>.
+  *
+  * @param id  the item id
+  * @param sid the item sub id
+  */
+  public Item(long id, long sid) {
+    this.id = id;
     this.sid = sid;
+    this.placeholder = true;
   }
 
   /**
   * Object for GetWorldMarketSubList result.
-  * @param itemString the <code>String[]</code> split resultMsg
-  *                   from central market response
+  * @param tokens the <code>ResultTokenizer</code> positioned at the record
+  *               from central market response
   */
-  public Item(String[] itemString) {
-    this.id = Long.valueOf(itemString[0]);
-    this.sid = Long.valueOf(itemString[1]);
-    this.minEnhance = itemString[1];
-    this.maxEnhance = itemString[2];
-    this.basePrice = Long.valueOf(itemString[3]);
-    this.currentStock = Long.valueOf(itemString[4]);
-    this.totalTrades = Long.valueOf(itemString[5]);
-    this.priceMin = Long.valueOf(itemString[6]);
-    this.priceMax = Long.valueOf(itemString[7]);
-    this.lastSoldPrice = Long.valueOf(itemString[8]);
-    this.lastSoldTime = Long.valueOf(itemString[9]);
-    this.name = null;
-    this.icon = null;
+  public Item(ResultTokenizer tokens) {
+    this.id = tokens.nextLong();
+    this.minEnhance = tokens.nextInt();
+    this.sid = this.minEnhance;
+    this.maxEnhance = tokens.nextInt();
+    this.basePrice = tokens.nextLong();
+    this.currentStock = tokens.nextLong();
+    this.totalTrades = tokens.nextLong();
+    this.priceMin = tokens.nextLong();
+    this.priceMax = tokens.nextLong();
+    this.lastSoldPrice = tokens.nextLong();
+    this.lastSoldTime = tokens.nextLong();
+    this.placeholder = false;
   }
 
   private String name;
-  private Long id;
-  private Long sid;
-  private String minEnhance;
-  private String maxEnhance;
-  private Long basePrice;
-  private Long currentStock;
-  private Long totalTrades;
-  private Long priceMin;
-  private Long priceMax;
-  private Long lastSoldPrice;
-  private Long lastSoldTime;
+  private long id;
+  private long sid;
+  private int minEnhance;
+  private int maxEnhance;
+  private long basePrice;
+  private long currentStock;
+  private long totalTrades;
+  private long priceMin;
+  private long priceMax;
+  private long lastSoldPrice;
+  private long lastSoldTime;
   private String icon;
+  private final boolean placeholder;
 
   public String getName() {
     return this.name;
@@ -52,91 +83,91 @@ public class Item {
     this.name = name;
   }
 
-  public Long getId() {
+  public long getId() {
     return this.id;
   }
 
-  public void setId(Long id) {
+  public void setId(long id) {
     this.id = id;
   }
 
-  public Long getSid() {
+  public long getSid() {
     return this.sid;
   }
 
-  public void setSid(Long sid) {
+  public void setSid(long sid) {
     this.sid = sid;
   }
 
-  public String getMinEnhance() {
+  public int getMinEnhance() {
     return this.minEnhance;
   }
 
-  public void setMinEnhance(String minEnhance) {
+  public void setMinEnhance(int minEnhance) {
     this.minEnhance = minEnhance;
   }
 
-  public String getMaxEnhance() {
+  public int getMaxEnhance() {
     return this.maxEnhance;
   }
 
-  public void setMaxEnhance(String maxEnhance) {
+  public void setMaxEnhance(int maxEnhance) {
     this.maxEnhance = maxEnhance;
   }
 
-  public Long getBasePrice() {
+  public long getBasePrice() {
     return this.basePrice;
   }
 
-  public void setBasePrice(Long basePrice) {
+  public void setBasePrice(long basePrice) {
     this.basePrice = basePrice;
   }
 
-  public Long getCurrentStock() {
+  public long getCurrentStock() {
     return this.currentStock;
   }
 
-  public void setCurrentStock(Long currentStock) {
+  public void setCurrentStock(long currentStock) {
     this.currentStock = currentStock;
   }
 
-  public Long getTotalTrades() {
+  public long getTotalTrades() {
     return this.totalTrades;
   }
 
-  public void setTotalTrades(Long totalTrades) {
+  public void setTotalTrades(long totalTrades) {
     this.totalTrades = totalTrades;
   }
 
-  public Long getPriceMin() {
+  public long getPriceMin() {
     return this.priceMin;
   }
 
-  public void setPriceMin(Long priceMin) {
+  public void setPriceMin(long priceMin) {
     this.priceMin = priceMin;
   }
 
-  public Long getPriceMax() {
+  public long getPriceMax() {
     return this.priceMax;
   }
 
-  public void setPriceMax(Long priceMax) {
+  public void setPriceMax(long priceMax) {
     this.priceMax = priceMax;
   }
 
-  public Long getLastSoldPrice() {
+  public long getLastSoldPrice() {
     return this.lastSoldPrice;
   }
 
-  public void setLastSoldPrice(Long lastSoldPrice) {
+  public void setLastSoldPrice(long lastSoldPrice) {
     this.lastSoldPrice = lastSoldPrice;
   }
 
-  public Long getLastSoldTime() {
+  public long getLastSoldTime() {
     return this.lastSoldTime;
   }
 
-  public void setLastSoldTime(Long lastSoldTime) {
+  public void setLastSoldTime(long lastSoldTime) {
     this.lastSoldTime = lastSoldTime;
   }
 
@@ -158,9 +189,22 @@ public class Item {
         .put("name", name)
         .put("icon", icon)
         .put("id", id)
-        .put("sid", sid)
-        .put("minEnhance", minEnhance)
-        .put("maxEnhance", maxEnhance)
+        .put("sid", sid);
+    if (placeholder) {
+      return json
+          .putNull("minEnhance")
+          .putNull("maxEnhance")
+          .putNull("basePrice")
+          .putNull("currentStock")
+          .putNull("totalTrades")
+          .putNull("priceMin")
+          .putNull("priceMax")
+          .putNull("lastSoldPrice")
+          .putNull("lastSoldTime");
+    }
+    return json
+        .put("minEnhance", String.valueOf(minEnhance))
+        .put("maxEnhance", String.valueOf(maxEnhance))
         .put("basePrice", basePrice)
         .put("currentStock", currentStock)
         .put("totalTrades", totalTrades)
@@ -168,6 +212,45 @@ public class Item {
         .put("priceMax", priceMax)
         .put("lastSoldPrice", lastSoldPrice)
         .put("lastSoldTime", lastSoldTime);
-    return json;
+  }
+
+  /**
+  * Writes <code>Item</code> as compact JSON, equal to encoding <code>toJson()</code>.
+  *
+  * @param out the <code>Buffer</code> to append to
+  */
+  @Override
+  public void writeJson(Buffer out) {
+    out.appendBytes(NAME);
+    JsonWriter.writeString(out, name);
+    out.appendBytes(ICON);
+    JsonWriter.writeString(out, icon);
+    out.appendBytes(ID);
+    JsonWriter.writeLong(out, id);
+    out.appendBytes(SID);
+    JsonWriter.writeLong(out, sid);
+    if (placeholder) {
+      out.appendBytes(PLACEHOLDER);
+      return;
+    }
+    out.appendBytes(MIN_ENHANCE);
+    JsonWriter.writeQuoted(out, minEnhance);
+    out.appendBytes(MAX_ENHANCE);
+    JsonWriter.writeQuoted(out, maxEnhance);
+    out.appendBytes(BASE_PRICE);
+    JsonWriter.writeLong(out, basePrice);
+    out.appendBytes(CURRENT_STOCK);
+    JsonWriter.writeLong(out, currentStock);
+    out.appendBytes(TOTAL_TRADES);
+    JsonWriter.writeLong(out, totalTrades);
+    out.appendBytes(PRICE_MIN);
+    JsonWriter.writeLong(out, priceMin);
+    out.appendBytes(PRICE_MAX);
+    JsonWriter.writeLong(out, priceMax);
+    out.appendBytes(LAST_SOLD_PRICE);
+    JsonWriter.writeLong(out, lastSoldPrice);
+    out.appendBytes(LAST_SOLD_TIME);
+    JsonWriter.writeLong(out, lastSoldTime);
+    out.appendByte((byte) '}');
   }
 }
@@ -1,45 +1,52 @@
 package io.arsha.api.market.items;
 
+import io.arsha.api.market.ResultTokenizer;
+import io.arsha.api.util.json.JsonWritable;
+import io.arsha.api.util.json.JsonWriter;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 
-public class Order {
+public class Order implements JsonWritable {
+  private static final byte[] PRICE = JsonWriter.name("price", true);
+  private static final byte[] BUYERS = JsonWriter.name("buyers", false);
+  private static final byte[] SELLERS = JsonWriter.name("sellers", false);
 
   /**
    * Object for GetBiddingInfoList result.
-   * @param orderString the <code>String[]</code> split resultMsg
-   *                    from central market response
+   * @param tokens the <code>ResultTokenizer</code> positioned at the record
+   *               from central market response
    */
-  public Order(String[] orderString) {
-    this.price = Long.valueOf(orderString[0]);
-    this.buyers = Long.valueOf(orderString[1]);
-    this.sellers = Long.valueOf(orderString[2]);
+  public Order(ResultTokenizer tokens) {
+    this.price = tokens.nextLong();
+    this.buyers = tokens.nextLong();
+    this.sellers = tokens.nextLong();
   }
 
-  private Long price;
-  private Long buyers;
-  private Long sellers;
+  private long price;
+  private long buyers;
+  private long sellers;
 
-  public Long getPrice() {
+  public long getPrice() {
     return this.price;
   }
 
-  public void setPrice(Long price) {
+  public void setPrice(long price) {
     this.price = price;
   }
 
-  public Long getBuyers() {
+  public long getBuyers() {
     return this.buyers;
   }
 
-  public void setBuyers(Long buyers) {
+  public void setBuyers(long buyers) {
     this.buyers = buyers;
   }
 
-  public Long getSellers() {
+  public long getSellers() {
     return this.sellers;
   }
 
-  public void setSellers(Long sellers) {
+  public void setSellers(long sellers) {
     this.sellers = sellers;
   }
 
@@ -56,4 +63,19 @@ public class Order {
     return json;
   }
 
+  /**
+  * Writes <code>Order</code> as compact JSON, equal to encoding <code>toJson()</code>.
+  *
+  * @param out the <code>Buffer</code> to append to
+  */
+  @Override
+  public void writeJson(Buffer out) {
+    out.appendBytes(PRICE);
+    JsonWriter.writeLong(out, price);
+    out.appendBytes(BUYERS);
+    JsonWriter.writeLong(out, buyers);
+    out.appendBytes(SELLERS);
+    JsonWriter.writeLong(out, sellers);
+    out.appendByte((byte) '}');
+  }
 }
@@ -1,58 +1,81 @@
 package io.arsha.api.market.items;
 
+import io.arsha.api.market.ResultTokenizer;
+import io.arsha.api.util.json.JsonWritable;
+import io.arsha.api.util.json.JsonWriter;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 
-public class SearchItem {
-  public SearchItem(Object id) {
-    this.id = Long.valueOf((String) id);
+import java.nio.charset.StandardCharsets;
+
+public class SearchItem implements JsonWritable {
+  private static final byte[] ID = JsonWriter.name("id", true);
+  private static final byte[] CURRENT_STOCK = JsonWriter.name("currentStock", false);
+  private static final byte[] TOTAL_TRADES = JsonWriter.name("totalTrades", false);
+  private static final byte[] BASE_PRICE = JsonWriter.name("basePrice", false);
+  private static final byte[] PLACEHOLDER =
+      ",\"currentStock\":null,\"totalTrades\":null,\"basePrice\":null}".getBytes(StandardCharsets.US_ASCII);
+
+  /**
+   * Placeholder <code>SearchItem</code> for items without listings.
+   *
+   * <p>All market fields are written as <code>null</code>.
+   *
+   * @param id the item id
+   */
+  public SearchItem(long id) {
+    this.id = id;
+    this.placeholder = true;
   }
 
   /**
    * Object for GetMarketSearchList result.
-   * @param detailString the <code>String[]</code> split resultMsg
-   *                     from central market response
+   * @param tokens the <code>ResultTokenizer</code> positioned at the record
+   *               from central market response
    */
-  public SearchItem(String[] detailString) {
-    this.id = Long.valueOf(detailString[0]);
-    this.currentStock = Long.valueOf(detailString[1]);
-    this.totalTrades = Long.valueOf(detailString[3]);
-    this.basePrice = Long.valueOf(detailString[2]);
+  public SearchItem(ResultTokenizer tokens) {
+    this.id = tokens.nextLong();
+    this.currentStock = tokens.nextLong();
+    this.basePrice = tokens.nextLong();
+    this.totalTrades = tokens.nextLong();
+    this.placeholder = false;
   }
 
-  private Long id;
-  private Long currentStock;
-  private Long totalTrades;
-  private Long basePrice;
+  private long id;
+  private long currentStock;
+  private long totalTrades;
+  private long basePrice;
+  private final boolean placeholder;
 
-  public Long getId() {
+  public long getId() {
     return this.id;
   }
 
-  public void setId(Long id) {
+  public void setId(long id) {
     this.id = id;
   }
 
-  public Long getCurrentStock() {
+  public long getCurrentStock() {
     return this.currentStock;
   }
 
-  public void setCurrentStock(Long currentStock) {
+  public void setCurrentStock(long currentStock) {
     this.currentStock = currentStock;
   }
 
-  public Long getTotalTrades() {
+  public long getTotalTrades() {
     return this.totalTrades;
   }
 
-  public void setTotalTrades(Long totalTrades) {
+  public void setTotalTrades(long totalTrades) {
     this.totalTrades = totalTrades;
   }
 
-  public Long getBasePrice() {
+  public long getBasePrice() {
     return this.basePrice;
   }
 
-  public void setBasePrice(Long basePrice) {
+  public void setBasePrice(long basePrice) {
     this.basePrice = basePrice;
   }
 
@@ -63,10 +86,38 @@ public class SearchItem {
   */
   public JsonObject toJson() {
     JsonObject json = new JsonObject()
-        .put("id", id)
+        .put("id", id);
+    if (placeholder) {
+      return json
+          .putNull("currentStock")
+          .putNull("totalTrades")
+          .putNull("basePrice");
+    }
+    return json
         .put("currentStock", currentStock)
         .put("totalTrades", totalTrades)
         .put("basePrice", basePrice);
-    return json;
+  }
+
+  /**
+  * Writes <code>SearchItem</code> as compact JSON, equal to encoding <code>toJson()</code>.
+  *
+  * @param out the <code>Buffer</code> to append to
+  */
+  @Override
+  public void writeJson(Buffer out) {
+    out.appendBytes(ID);
+    JsonWriter.writeLong(out, id);
+    if (placeholder) {
+      out.appendBytes(PLACEHOLDER);
+      return;
+    }
+    out.appendBytes(CURRENT_STOCK);
+    JsonWriter.writeLong(out, currentStock);
+    out.appendBytes(TOTAL_TRADES);
+    JsonWriter.writeLong(out, totalTrades);
+    out.appendBytes(BASE_PRICE);
+    JsonWriter.writeLong(out, basePrice);
+    out.appendByte((byte) '}');
   }
 }
@@ -1,28 +1,37 @@
 package io.arsha.api.market.items;
 
+import io.arsha.api.market.ResultTokenizer;
+import io.arsha.api.util.json.JsonWritable;
+import io.arsha.api.util.json.JsonWriter;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 
-public class WaitListItem {
+public class WaitListItem implements JsonWritable {
+  private static final byte[] NAME = JsonWriter.name("name", true);
+  private static final byte[] ID = JsonWriter.name("id", false);
+  private static final byte[] SUB_ID = JsonWriter.name("subId", false);
+  private static final byte[] PRICE = JsonWriter.name("price", false);
+  private static final byte[] LIVE_AT = JsonWriter.name("liveAt", false);
 
   /**
    * Object for GetWorldMarketWaitList result.
    *
-   * @param itemString the <code>String[]</code> split resultMsg
-   *                   from central market response
+   * @param tokens the <code>ResultTokenizer</code> positioned at the record
+   *               from central market response
    */
-  public WaitListItem(String[] itemString) {
-    this.id = Long.valueOf(itemString[0]);
-    this.sid = Long.valueOf(itemString[1]);
-    this.price = Long.valueOf(itemString[2]);
-    this.available = Long.valueOf(itemString[3]);
+  public WaitListItem(ResultTokenizer tokens) {
+    this.id = tokens.nextLong();
+    this.sid = tokens.nextLong();
+    this.price = tokens.nextLong();
+    this.available = tokens.nextLong();
     this.name = null;
   }
 
   private String name;
-  private Long id;
-  private Long sid;
-  private Long price;
-  private Long available;
+  private long id;
+  private long sid;
+  private long price;
+  private long available;
 
   public String getName() {
     return this.name;
@@ -32,35 +41,35 @@ public class WaitListItem {
     this.name = name;
   }
 
-  public Long getId() {
+  public long getId() {
     return this.id;
   }
 
-  public void setId(Long id) {
+  public void setId(long id) {
     this.id = id;
   }
 
-  public Long getSid() {
+  public long getSid() {
     return this.sid;
   }
 
-  public void setSid(Long sid) {
+  public void setSid(long sid) {
     this.sid = sid;
   }
 
-  public Long getPrice() {
+  public long getPrice() {
     return this.price;
   }
 
-  public void setPrice(Long price) {
+  public void setPrice(long price) {
     this.price = price;
   }
 
-  public Long getAvailable() {
+  public long getAvailable() {
     return this.available;
   }
 
-  public void setAvailable(Long available) {
+  public void setAvailable(long available) {
     this.available = available;
   }
 
@@ -80,4 +89,23 @@ public class WaitListItem {
     return json;
   }
 
+  /**
+  * Writes <code>WaitListItem</code> as compact JSON, equal to encoding <code>toJson()</code>.
+  *
+  * @param out the <code>Buffer</code> to append to
+  */
+  @Override
+  public void writeJson(Buffer out) {
+    out.appendBytes(NAME);
+    JsonWriter.writeString(out, name);
+    out.appendBytes(ID);
+    JsonWriter.writeLong(out, id);
+    out.appendBytes(SUB_ID);
+    JsonWriter.writeLong(out, sid);
+    out.appendBytes(PRICE);
+    JsonWriter.writeLong(out, price);
+    out.appendBytes(LIVE_AT);
+    JsonWriter.writeLong(out, available);
+    out.appendByte((byte) '}');
+  }
 }
@@ -0,0 +1,211 @@
+package io.arsha.api.routes.utility;
+
+import io.arsha.api.cache.CacheManager;
+import io.arsha.api.cache.Snapshot;
+import io.arsha.api.cache.UtilComposite;
+import io.arsha.api.util.mongodb.Mongo;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.mongo.FindOptions;
+import io.vertx.ext.mongo.MongoClient;
+
+import java.util.Iterator;
+import java.util.List;
+
+public class DumpWriter {
+  private static final int BATCH_SIZE = 500;
+
+  private final HttpServerResponse response;
+  private final List<String> collections;
+  private final Promise<Void> done = Promise.promise();
+  private int current = 0;
+  private boolean first = true;
+  private boolean closed = false;
+  private ReadStream<JsonObject> stream = null;
+
+  /**
+  * Streams full collections as one JSON object keyed by collection name.
+  *
+  * <p>Collections are written one after another as chunks and each document is
+  * written as soon as it is read, pausing while the response write queue is full.
+  * Memory use is bounded by the write queue and the Mongo batch size, not by the
+  * size of the collections.
+  *
+  * @param response    the <code>HttpServerResponse</code> to write to
+  * @param collections the names of the collections to dump
+  */
+  public DumpWriter(HttpServerResponse response, List<String> collections) {
+    this.response = response;
+    this.collections = collections;
+  }
+
+  /**
+  * Check if every collection can be written, from the snapshot, a cache entry or
+  * the database.
+  *
+  * <p>Headers are sent with the first chunk, so this is checked before
+  * <code>start</code> to still answer with an error status. Without a snapshot the
+  * database clients are missing until Mongo connected.
+  *
+  * @return true if no collection needs a database client that is not connected
+  */
+  public boolean isAvailable() {
+    for (String collection : collections) {
+      if (cached(collection) == null && getClient(collection) == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+  * Start writing the dump.
+  *
+  * @return <code>Future</code> completed once the response ended
+  */
+  public Future<Void> start() {
+    response.setChunked(true);
+    response.closeHandler(v -> {
+      closed = true;
+      // A closed response never drains, so a paused cursor would only time out
+      if (stream != null) {
+        stream.handler(null);
+        stream = null;
+      }
+      done.tryFail("Connection closed");
+    });
+    response.write("{");
+    next();
+    return done.future();
+  }
+
+  /**
+  * Write the next collection or end the response if all are written.
+  */
+  private void next() {
+    if (closed) {
+      return;
+    }
+    if (current == collections.size()) {
+      response.end("}");
+      done.tryComplete();
+      return;
+    }
+
+    String collection = collections.get(current);
+    response.write((current > 0 ? "," : "") + Json.encode(collection) + ":[");
+    current++;
+    first = true;
+
+    Iterator<Buffer> cached = cached(collection);
+    MongoClient client = getClient(collection);
+    if (cached != null) {
+      writeCached(cached);
+    } else if (client != null) {
+      writeStream(client.findBatchWithOptions(
+          collection, new JsonObject(), new FindOptions().setBatchSize(BATCH_SIZE)));
+    } else {
+      // The cache entry checked by isAvailable was evicted since
+      fail(new IllegalStateException("Database is unreachable"));
+    }
+  }
+
+  /**
+  * Get the documents of a collection from the snapshot or a fully loaded cache entry.
+  *
+  * @param collection the name of the collection
+  * @return           the <code>Iterator</code> over the encoded documents or
+  *                   <code>null</code> if the collection must be read from the database
+  */
+  private static Iterator<Buffer> cached(String collection) {
+    Snapshot snapshot = CacheManager.getSnapshot();
+    if (snapshot != null && snapshot.contains(collection)) {
+      return snapshot.iterate(collection);
+    }
+    UtilComposite key = new UtilComposite(collection, new JsonObject());
+    Future<List<JsonObject>> cached = CacheManager.getFullDbCache().peek(key);
+    if (cached != null && cached.succeeded()) {
+      return cached.result().stream().map(DumpWriter::encode).iterator();
+    }
+    return null;
+  }
+
+  /**
+  * Write encoded documents from a cached collection until the write queue is full.
+  *
+  * @param documents the <code>Iterator</code> over the encoded documents
+  */
+  private void writeCached(Iterator<Buffer> documents) {
+    while (documents.hasNext()) {
+      if (closed) {
+        return;
+      }
+      write(documents.next());
+      if (response.writeQueueFull()) {
+        response.drainHandler(v -> writeCached(documents));
+        return;
+      }
+    }
+    response.write("]");
+    next();
+  }
+
+  /**
+  * Write documents from a database cursor, pausing on back pressure.
+  *
+  * <p>The cursor is stopped if the connection closes.
+  *
+  * @param documents the <code>ReadStream</code> of documents
+  */
+  private void writeStream(ReadStream<JsonObject> documents) {
+    stream = documents;
+    documents.exceptionHandler(this::fail);
+    documents.endHandler(v -> {
+      stream = null;
+      if (closed) {
+        return;
+      }
+      response.write("]");
+      next();
+    });
+    documents.handler(document -> {
+      if (closed) {
+        return;
+      }
+      write(encode(document));
+      if (response.writeQueueFull()) {
+        documents.pause();
+        response.drainHandler(v -> documents.resume());
+      }
+    });
+  }
+
+  private static Buffer encode(JsonObject document) {
+    document.remove("_id");
+    return document.toBuffer();
+  }
+
+  private void write(Buffer chunk) {
+    if (first) {
+      first = false;
+      response.write(chunk);
+    } else {
+      response.write(Buffer.buffer(chunk.length() + 1).appendByte((byte) ',').appendBuffer(chunk));
+    }
+  }
+
+  private void fail(Throwable cause) {
+    // Headers are already sent, so the only way to signal failure is to reset
+    response.reset();
+    done.tryFail(cause);
+  }
+
+  private static MongoClient getClient(String collection) {
+    return collection.contains("recipe") ? Mongo.getRecipeClient() : Mongo.getItemClient();
+  }
+}
@@ -1,20 +1,12 @@
 package io.arsha.api.routes.utility;
 
 import io.arsha.api.cache.CacheManager;
-import io.arsha.api.cache.UtilComposite;
 import io.arsha.api.util.Util;
-import io.arsha.api.util.mongodb.Mongo;
-import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
-import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 
-import java.util.ArrayList;
-import java.util.List;
-
-@SuppressWarnings({ "unchecked", "rawtypes" })
 public class Scraper {
   private static String apiKey = "";
   private static Vertx vertx = null;
@@ -58,23 +50,10 @@ public class Scraper {
           System.gc();
           ctx.response().end();
         } else {
-          List<Future> collections = new ArrayList<>();
-          collections.add(Mongo.getItemClient().getCollections());
-          collections.add(Mongo.getRecipeClient().getCollections());
-
-          CompositeFuture.all(collections).onSuccess(cf -> {
-            List<Future> caches = new ArrayList<>();
-            for (Future<List<String>> db : collections) {
-              db.result().forEach(result -> {
-                UtilComposite query = new UtilComposite(result, new JsonObject());
-                CacheManager.getFullDbCache().get(query);
-              });
-            }
-
-            CompositeFuture.all(caches)
-              .onSuccess(cached -> ctx.response().end())
-              .onFailure(fail -> ctx.fail(500));
-          }).onFailure(fail -> ctx.fail(500));
+          // Rebuild the snapshot from the database, the caches reload from it lazily
+          CacheManager.refreshSnapshot()
+            .onSuccess(refreshed -> ctx.response().end())
+            .onFailure(fail -> ctx.fail(500));
         }
       }
     }).failureHandler(Util::handleError);
@@ -2,8 +2,13 @@ package io.arsha.api.routes.utility;
 
 import io.arsha.api.API;
 import io.arsha.api.cache.CacheManager;
+import io.arsha.api.cache.DbKey;
+import io.arsha.api.cache.ItemIndex;
+import io.arsha.api.cache.Payload;
 import io.arsha.api.cache.UtilComposite;
 import io.arsha.api.util.Util;
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.http.HttpMethod;
@@ -18,9 +23,7 @@ import io.vertx.ext.web.validation.RequestParameters;
 import io.vertx.ext.web.validation.ValidationHandler;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 public class Utility {
@@ -169,22 +172,52 @@ public class Utility {
       idsParam = params.queryParameter("id").getJsonArray();
     }
 
-    List<String> ids = idsParam.stream()
-        .map(String::valueOf)
-        .collect(Collectors.toList());
+    // Ids that are no numbers or can't be packed can't exist either
+    List<Long> ids = new ArrayList<>();
+    try {
+      for (Object id : idsParam) {
+        ids.add(Long.valueOf(String.valueOf(id)));
+      }
+    } catch (NumberFormatException e) {
+      ctx.fail(452);
+      return;
+    }
+    if (!ids.stream().allMatch(DbKey::isValid)) {
+      ctx.fail(452);
+      return;
+    }
+
+    Timer.Sample sample = Timer.start();
     List<Future> db = new ArrayList<>();
-    for (String id : ids) {
-      UtilComposite util = new UtilComposite(lang, new JsonObject().put("id", Integer.valueOf(id)));
-      db.add(CacheManager.getDbCache().get(util));
+    if (collection.isEmpty()) {
+      // Items are served from the in-memory index of the language
+      Future<ItemIndex> index = CacheManager.getItemIndex(lang);
+      for (long id : ids) {
+        db.add(index.map(idx -> idx.getDocument(id)));
+      }
+    } else {
+      for (long id : ids) {
+        db.add(CacheManager.getDbCache().get(DbKey.of(lang, id)));
+      }
+    }
+
+    CompositeFuture lookups = CompositeFuture.all(db);
+    // Item lookups are recorded by getItemIndex
+    if (!collection.isEmpty()) {
+      String language = langParam == null ? "en" : langParam.getString();
+      lookups.onComplete(done -> sample.stop(Metrics.latency("arsha.db.lookup",
+          "collection", collection.substring(1),
+          "lang", language,
+          "outcome", done.succeeded() ? "ok" : "error")));
     }
 
-    CompositeFuture.all(db).onSuccess(cf -> {
+    lookups.onSuccess(cf -> {
       JsonArray items = new JsonArray();
       for (int i = 0; i < db.size(); i++) {
         Future<JsonObject> item = (Future<JsonObject>) db.get(i);
         if (item.result() == null) {
           items.add(new JsonObject()
-              .put("id", Integer.valueOf(ids.get(i)))
+              .put("id", ids.get(i))
               .put("error", 452)
               .put("message", "Does not exist in database"));
         } else {
@@ -201,14 +234,15 @@ public class Utility {
         ctx.response().end(items.getJsonObject(0).encodePrettily());
         logger.info(Util.formatLog(ctx.request()));
       }
-    }).onFailure(fail -> ctx.fail(513));
+    }).onFailure(fail -> ctx.fail(512));
   }
 
   /**
   * Get an entire collection from MongoDB - if no language parameter is found
   * all collections of that type (item or recipe) are returned.
   *
-  * <p>The result is sent as <code>RoutingContext</code> response.
+  * <p>The result is sent as <code>RoutingContext</code> response. Single collections
+  * are served pre-compressed from cache while all collections are streamed.
   *
   * @param ctx        the <code>RoutingContext</code>
   * @param collection the name of the collection (without language prefix) to get elements from
@@ -229,34 +263,22 @@ public class Utility {
     }
 
     if (lang == null) {
-      List<String> langs = Util.getLangs();
-      Map<String, Future> dbs = new HashMap<>();
-      langs.forEach(l -> {
-        UtilComposite key = new UtilComposite(l + collection, new JsonObject());
-        dbs.put(l + collection, CacheManager.getFullDbCache().get(key));
-      });
-      CompositeFuture.all(new ArrayList(dbs.values())).onSuccess(cf -> {
-        JsonObject all = new JsonObject();
-        dbs.forEach((k, v) -> {
-          List<JsonObject> dbRes = (List<JsonObject>) v.result();
-          List<JsonObject> items = new ArrayList<>();
-          for (JsonObject item : dbRes) {
-            item.remove("_id");
-            items.add(item);
-          }
-          all.put(k, items);
-        });
-        ctx.response().end(all.encode());
-      });
+      List<String> collections = Util.getLangs().stream()
+          .map(l -> l + collection)
+          .collect(Collectors.toList());
+      DumpWriter dump = new DumpWriter(ctx.response(), collections);
+      if (!dump.isAvailable()) {
+        ctx.fail(512);
+        return;
+      }
+      dump.start()
+          .onSuccess(done -> logger.info(Util.formatLog(ctx.request())))
+          .onFailure(fail -> logger.error("Failed streaming dump: " + fail.getMessage()));
     } else {
       UtilComposite key = new UtilComposite(lang.getString() + collection, new JsonObject());
-      Future<List<JsonObject>> itemDB = CacheManager.getFullDbCache().get(key);
-      itemDB.onSuccess(future -> {
-        List<JsonObject> localeDB = future;
-        for (JsonObject item : localeDB) {
-          item.remove("_id");
-        }
-        ctx.response().end(new JsonArray(localeDB).encode());
+      Future<Payload> itemDB = CacheManager.getDumpCache().get(key);
+      itemDB.onSuccess(dump -> {
+        Util.end(ctx, dump.getBody(), dump.getGzip());
         logger.info(Util.formatLog(ctx.request()));
       }).onFailure(fail -> ctx.fail(512));
     }
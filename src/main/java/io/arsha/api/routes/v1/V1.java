@@ -1,11 +1,14 @@
 package io.arsha.api.routes.v1;
 
 import io.arsha.api.cache.CacheManager;
+import io.arsha.api.cache.Payload;
 import io.arsha.api.cache.V1Composite;
 import io.arsha.api.cache.V2Composite;
 import io.arsha.api.market.Marketplace;
 import io.arsha.api.market.enums.MarketEndpoint;
 import io.arsha.api.util.Util;
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.buffer.Buffer;
@@ -27,7 +30,6 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
-import org.cache2k.Cache;
 
 @SuppressWarnings({ "unchecked", "rawtypes" })
 public class V1 {
@@ -162,8 +164,8 @@ public class V1 {
       return;
     }
 
-    Future<Buffer> cacheResponse = CacheManager.getV1Cache(region)
-        .get(new V1Composite(0L, 0L, region, MarketEndpoint.GetWorldMarketHotList));
+    Future<Buffer> cacheResponse = CacheManager.fetchV1(
+        new V1Composite(0L, 0L, region, MarketEndpoint.GetWorldMarketHotList));
 
     cacheResponse.onSuccess(hotList -> {
       logger.info(Util.formatLog(ctx.request()));
@@ -201,7 +203,7 @@ public class V1 {
 
     V1Composite request = new V1Composite(mainCategory, subCategory,
         region, MarketEndpoint.GetWorldMarketList);
-    Future<Buffer> cacheResponse = CacheManager.getV1Cache(region).get(request);
+    Future<Buffer> cacheResponse = CacheManager.fetchV1(request);
 
     cacheResponse.onSuccess(marketList -> {
       try {
@@ -233,7 +235,6 @@ public class V1 {
       return;
     }
 
-    Cache<V1Composite, Future<Buffer>> cache = CacheManager.getV1Cache(region);
     JsonArray param = new JsonArray();
     if (ctx.request().method() == HttpMethod.POST) {
       param = params.headerParameter("id").getJsonArray();
@@ -244,14 +245,17 @@ public class V1 {
         .map(Long.class::cast)
         .collect(Collectors.toList());
 
+    Timer.Sample sample = Timer.start();
     List<Future> buffers = new ArrayList<>();
     ids.forEach(id -> {
       V1Composite request = new V1Composite(id, 0L, region, MarketEndpoint.GetWorldMarketSubList);
-      Future cacheResponse = cache.get(request);
+      Future cacheResponse = CacheManager.fetchV1(request);
       buffers.add(cacheResponse);
     });
 
-    CompositeFuture.all(buffers).onSuccess(ar -> {
+    CompositeFuture.all(buffers).onComplete(done -> sample.stop(
+        Metrics.timer("arsha.sublist", "api", "v1", "ids", Metrics.sizeBucket(ids.size()))
+    )).onSuccess(ar -> {
       JsonArray items = new JsonArray();
       for (Future<Buffer> buffer : buffers) {
         items.add(buffer.result().toJsonObject());
@@ -289,11 +293,9 @@ public class V1 {
     }
 
     String ids = StringUtils.join(param.getList().toArray(), ",");
-    Cache<V1Composite, Future<Buffer>> cache = CacheManager.getV1Cache(region);
-    V1Composite request = new V1Composite(ids, 0L,
-        region, MarketEndpoint.GetWorldMarketSearchList);
+    V1Composite request = V1Composite.search(ids, region);
 
-    cache.get(request).onSuccess(res -> {
+    CacheManager.fetchV1(request).onSuccess(res -> {
       logger.info(Util.formatLog(ctx.request()));
       ctx.response().end(res.toJsonObject().encodePrettily());
     }).onFailure(fail -> ctx.fail(500));
@@ -339,7 +341,6 @@ public class V1 {
       return;
     }
 
-    Cache<V1Composite, Future<Buffer>> cache = CacheManager.getV1Cache(region);
     List<Future> futures = new ArrayList<>();
 
     for (int i = 0; i < ids.size(); i++) {
@@ -347,7 +348,7 @@ public class V1 {
       Long sid = (sids.isEmpty() ? 0L : sids.get(i));
 
       V1Composite request = new V1Composite(id, sid, region, requestId);
-      futures.add(cache.get(request));
+      futures.add(CacheManager.fetchV1(request));
     }
 
     CompositeFuture.all(futures).onSuccess(ar -> {
@@ -403,7 +404,7 @@ public class V1 {
 
     V2Composite request = new V2Composite(id, sid,
         region, MarketEndpoint.GetWorldMarketSubList, lang);
-    Future<Buffer> sublistItem = CacheManager.getV2Cache(region).get(request);
+    Future<Payload> sublistItem = CacheManager.fetchV2(request);
     sublistItem.onSuccess(res -> {
       JsonArray result = res.toJsonArray();
       if (result.size() == 1 && sid != 0)  {
@@ -1,10 +1,13 @@
 package io.arsha.api.routes.v2;
 
 import io.arsha.api.cache.CacheManager;
-import io.arsha.api.cache.UtilComposite;
+import io.arsha.api.cache.ItemIndex;
+import io.arsha.api.cache.Payload;
 import io.arsha.api.cache.V1Composite;
 import io.arsha.api.cache.V2Composite;
+import io.arsha.api.market.MarketResponse;
 import io.arsha.api.market.Marketplace;
+import io.arsha.api.market.ResultTokenizer;
 import io.arsha.api.market.enums.MarketEndpoint;
 import io.arsha.api.market.items.History;
 import io.arsha.api.market.items.HotListItem;
@@ -14,8 +17,12 @@ import io.arsha.api.market.items.Order;
 import io.arsha.api.market.items.SearchItem;
 import io.arsha.api.market.items.WaitListItem;
 import io.arsha.api.util.Util;
+import io.arsha.api.util.json.JsonWriter;
+import io.arsha.api.util.metrics.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
@@ -30,6 +37,7 @@ import io.vertx.ext.web.validation.RequestParameters;
 import io.vertx.ext.web.validation.ValidationHandler;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -39,6 +47,9 @@ import org.cache2k.Cache;
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class V2 {
   private static Logger logger = LoggerFactory.getLogger(V2.class);
+  private static final byte[] BIDDING_ID = JsonWriter.name("id", true);
+  private static final byte[] BIDDING_SID = JsonWriter.name("sid", false);
+  private static final byte[] BIDDING_ORDERS = JsonWriter.name("orders", false);
 
   /**
    * Register V2 operations.
@@ -123,47 +134,36 @@ public class V2 {
   * Due to frequent wait list changes, this endpoint is not cached.
   *
   * @param request the <code>V2Composite</code> composite key
-  * @return        <code>Future&lt;Buffer&gt;</code> of the list to grab
+  * @return        <code>Future&lt;Payload&gt;</code> of the list to grab
   */
-  public static Future<Buffer> getWaitList(V2Composite request) {
-    Promise<Buffer> response = Promise.promise();
+  public static Future<Payload> getWaitList(V2Composite request) {
+    Promise<Payload> response = Promise.promise();
     Future<Buffer> waitList = Marketplace.request(request);
+    Future<ItemIndex> itemIndex = CacheManager.getItemIndex(request.getLang());
 
-    waitList.onSuccess(list -> {
-      List<Future> dbFutures = new ArrayList<>();
-      List<WaitListItem> waitListItems = new ArrayList<>();
-      JsonObject res = waitList.result().toJsonObject();
-      if (res.getString("resultMsg").equals("0")) {
+    CompositeFuture.all(waitList, itemIndex).onSuccess(parsing(response, cf -> {
+      MarketResponse res = MarketResponse.parse(waitList.result());
+      if (res.getResultMsg().equals("0")) {
         response.fail("515");
         return;
       }
-      for (String subItem : res.getString("resultMsg").split("[|]")) {
-        WaitListItem i = new WaitListItem(subItem.split("[-]"));
-        waitListItems.add(i);
-        UtilComposite util = new UtilComposite(
-            request.getLang(),
-            new JsonObject().put("id", i.getId())
+
+      ItemIndex index = itemIndex.result();
+      List<WaitListItem> items = new ArrayList<>();
+      ResultTokenizer tokens = res.tokens();
+      while (tokens.nextRecord()) {
+        WaitListItem item = new WaitListItem(tokens);
+        String prefix = Util.getItemPrefix(
+            item.getId(),
+            (int) item.getSid(),
+            (int) item.getSid()
         );
-        dbFutures.add(CacheManager.getDbCache().get(util));
-      }
 
-      CompositeFuture.all(dbFutures).onSuccess(cf -> {
-        JsonArray items = new JsonArray();
-        for (int i = 0; i < waitListItems.size(); i++) {
-          JsonObject dbItem = (JsonObject) dbFutures.get(i).result();
-          WaitListItem item = waitListItems.get(i);
-          String prefix = Util.getItemPrefix(
-              item.getId(),
-              String.valueOf(item.getSid()),
-              String.valueOf(item.getSid())
-          );
-
-          item.setName(prefix + dbItem.getString("name"));
-          items.add(item.toJson());
-        }
-        response.complete(items.toBuffer());
-      }).onFailure(response::fail);
-    });
+        item.setName(name(index, item.getId(), prefix));
+        items.add(item);
+      }
+      response.complete(Payload.of(items));
+    })).onFailure(response::fail);
 
     return response.future();
   }
@@ -172,44 +172,31 @@ public class V2 {
   * Get current hot list.
   *
   * @param request the <code>V2Composite</code> composite key
-  * @return        <code>Future&lt;Buffer&gt;</code> of the list to grab
+  * @return        <code>Future&lt;Payload&gt;</code> of the list to grab
   */
-  public static Future<Buffer> getHotList(V2Composite request) {
-    Promise<Buffer> response = Promise.promise();
+  public static Future<Payload> getHotList(V2Composite request) {
+    Promise<Payload> response = Promise.promise();
     Future<Buffer> hotlist = CacheManager.getV1Cache(request.getRegion()).get(request.getParent());
-
-    hotlist.onSuccess(list -> {
-      List<Future> dbFutures = new ArrayList<>();
-      List<HotListItem> hotlistItems = new ArrayList<>();
-      JsonObject res = hotlist.result().toJsonObject();
-      for (String subItem : res.getString("resultMsg").split("[|]")) {
-        HotListItem i = new HotListItem(subItem.split("[-]"));
-        hotlistItems.add(i);
-        UtilComposite util = new UtilComposite(
-            request.getLang(),
-            new JsonObject().put("id", i.getId())
+    Future<ItemIndex> itemIndex = CacheManager.getItemIndex(request.getLang());
+
+    CompositeFuture.all(hotlist, itemIndex).onSuccess(parsing(response, cf -> {
+      ItemIndex index = itemIndex.result();
+      List<HotListItem> items = new ArrayList<>();
+      ResultTokenizer tokens = MarketResponse.parse(hotlist.result()).tokens();
+      while (tokens.nextRecord()) {
+        HotListItem item = new HotListItem(tokens);
+        String prefix = Util.getItemPrefix(
+            item.getId(),
+            item.getMinEnhance(),
+            item.getMaxEnhance()
         );
-        dbFutures.add(CacheManager.getDbCache().get(util));
-      }
 
-      CompositeFuture.all(dbFutures).onSuccess(cf -> {
-        JsonArray items = new JsonArray();
-        for (int i = 0; i < hotlistItems.size(); i++) {
-          JsonObject dbItem = (JsonObject) dbFutures.get(i).result();
-          HotListItem item = hotlistItems.get(i);
-          String prefix = Util.getItemPrefix(
-              item.getId(),
-              item.getMinEnhance(),
-              item.getMaxEnhance()
-          );
-
-          item.setName(prefix + dbItem.getString("name"));
-          item.setIcon(dbItem.getString("icon"));
-          items.add(item.toJson());
-        }
-        response.complete(items.toBuffer());
-      }).onFailure(response::fail);
-    });
+        item.setName(name(index, item.getId(), prefix));
+        item.setIcon(index.getIcon(item.getId()));
+        items.add(item);
+      }
+      response.complete(Payload.of(items));
+    })).onFailure(response::fail);
     return response.future();
   }
 
@@ -217,25 +204,26 @@ public class V2 {
   * Get all items in specified (sub)category.
   *
   * @param request the <code>V2Composite</code> list composite key
-  * @return        <code>Future&lt;Buffer&gt;</code> of the list to grab
+  * @return        <code>Future&lt;Payload&gt;</code> of the list to grab
   */
-  public static Future<Buffer> getMarketList(V2Composite request) {
-    Promise<Buffer> response = Promise.promise();
+  public static Future<Payload> getMarketList(V2Composite request) {
+    Promise<Payload> response = Promise.promise();
     Cache<V1Composite, Future<Buffer>> cache = CacheManager.getV1Cache(request.getRegion());
     Future<Buffer> marketList = cache.get(request.getParent());
 
-    marketList.onSuccess(list -> {
-      JsonArray res = new JsonArray();
-      String resultMsg = list.toJsonObject().getString("resultMsg");
+    marketList.onSuccess(parsing(response, list -> {
+      List<ListItem> res = new ArrayList<>();
+      String resultMsg = MarketResponse.parse(list).getResultMsg();
       if (resultMsg.equals("0")) {
-        response.complete(res.toBuffer());
+        response.complete(Payload.of(res));
       } else {
-        for (String listItem : resultMsg.split("[|]")) {
-          res.add(new ListItem(listItem.split("[-]")).toJson());
+        ResultTokenizer tokens = new ResultTokenizer(resultMsg);
+        while (tokens.nextRecord()) {
+          res.add(new ListItem(tokens));
         }
-        response.complete(res.toBuffer());
+        response.complete(Payload.of(res));
       }
-    }).onFailure(response::fail);
+    })).onFailure(response::fail);
 
     return response.future();
   }
@@ -244,38 +232,36 @@ public class V2 {
   * Get information for item and variants (enhancement levels).
   *
   * @param request the <code>V2Composite</code> item composite key
-  * @return        <code>Future&lt;Buffer&gt;</code> of the item to grab
+  * @return        <code>Future&lt;Payload&gt;</code> of the item to grab
   */
-  public static Future<Buffer> getSubListItem(V2Composite request) {
-    Promise<Buffer> response = Promise.promise();
+  public static Future<Payload> getSubListItem(V2Composite request) {
+    Promise<Payload> response = Promise.promise();
     Cache<V1Composite, Future<Buffer>> cache = CacheManager.getV1Cache(request.getRegion());
     Future<Buffer> itemFuture = cache.get(request.getParent());
-    UtilComposite util = new UtilComposite(request.getLang(),
-        new JsonObject().put("id", request.getId()));
-
-    Future<JsonObject> dbFuture = CacheManager.getDbCache().get(util);
+    Future<ItemIndex> itemIndex = CacheManager.getItemIndex(request.getLang());
 
-    CompositeFuture.all(itemFuture, dbFuture).onSuccess(cf -> {
-      JsonObject res = itemFuture.result().toJsonObject();
-      JsonObject db = dbFuture.result();
+    CompositeFuture.all(itemFuture, itemIndex).onSuccess(parsing(response, cf -> {
+      MarketResponse res = MarketResponse.parse(itemFuture.result());
+      ItemIndex index = itemIndex.result();
 
-      if (res.getString("resultMsg").equals("0")) {
-        JsonObject item = new Item(request.getId(), request.getSid()).toJson();
+      if (res.getResultMsg().equals("0")) {
+        Item item = new Item(request.getId(), request.getSid());
 
-        response.complete(new JsonArray().add(item).toBuffer());
+        response.complete(Payload.of(Collections.singletonList(item)));
       } else {
-        JsonArray items = new JsonArray();
-        for (String subItem : res.getString("resultMsg").split("[|]")) {
-          Item i = new Item(subItem.split("[-]"));
+        List<Item> items = new ArrayList<>();
+        ResultTokenizer tokens = res.tokens();
+        while (tokens.nextRecord()) {
+          Item i = new Item(tokens);
           String prefix = Util.getItemPrefix(i.getId(), i.getMinEnhance(), i.getMaxEnhance());
 
-          i.setName(prefix + db.getString("name"));
-          i.setIcon(db.getString("icon"));
-          items.add(i.toJson());
+          i.setName(name(index, i.getId(), prefix));
+          i.setIcon(index.getIcon(i.getId()));
+          items.add(i);
         }
-        response.complete(items.toBuffer());
+        response.complete(Payload.of(items));
       }
-    }).onFailure(response::fail);
+    })).onFailure(response::fail);
 
     return response.future();
   }
@@ -284,20 +270,21 @@ public class V2 {
   * Get item search information.
   *
   * @param request the <code>V2Composite</code> item composite key
-  * @return        <code>Future&lt;Buffer&gt;</code> of the item to grab
+  * @return        <code>Future&lt;Payload&gt;</code> of the item to grab
   */
-  public static Future<Buffer> getSearchItem(V2Composite request) {
-    Promise<Buffer> response = Promise.promise();
+  public static Future<Payload> getSearchItem(V2Composite request) {
+    Promise<Payload> response = Promise.promise();
     Cache<V1Composite, Future<Buffer>> cache = CacheManager.getV1Cache(request.getRegion());
-    cache.get(request.getParent()).onSuccess(result -> {
-      JsonObject asJson = result.toJsonObject();
-      if (asJson.getString("resultMsg").equals("0")) {
-        response.complete(new SearchItem(request.getId()).toJson().toBuffer());
+    cache.get(request.getParent()).onSuccess(parsing(response, result -> {
+      MarketResponse res = MarketResponse.parse(result);
+      if (res.getResultMsg().equals("0")) {
+        response.complete(Payload.of(new SearchItem(Long.parseLong(request.getTerm()))));
       } else {
-        String[] details = asJson.getString("resultMsg").split("[|]");
-        response.complete(new SearchItem(details[0].split("[-]")).toJson().toBuffer());
+        ResultTokenizer tokens = res.tokens();
+        tokens.nextRecord();
+        response.complete(Payload.of(new SearchItem(tokens)));
       }
-    }).onFailure(response::fail);
+    })).onFailure(response::fail);
 
     return response.future();
   }
@@ -306,34 +293,31 @@ public class V2 {
   * Get item order information.
   *
   * @param request the <code>V2Composite</code> item composite key
-  * @return        <code>Future&lt;Buffer&gt;</code> of the item to grab
+  * @return        <code>Future&lt;Payload&gt;</code> of the item to grab
   */
-  public static Future<Buffer> getBiddingList(V2Composite request) {
-    Promise<Buffer> response = Promise.promise();
+  public static Future<Payload> getBiddingList(V2Composite request) {
+    Promise<Payload> response = Promise.promise();
     Cache<V1Composite, Future<Buffer>> cache = CacheManager.getV1Cache(request.getRegion());
-    cache.get(request.getParent()).onSuccess(result -> {
-      JsonObject asJson = result.toJsonObject();
-      if (asJson.getString("resultMsg").equals("0") || asJson.getInteger("resultCode") == 8) {
-        JsonObject order = new JsonObject()
-            .put("id", request.getId())
-            .put("sid", request.getSid())
-            .put("orders", new JsonArray());
-
-        response.complete(order.toBuffer());
-      } else {
-        String[] details = asJson.getString("resultMsg").split("[|]");
-        JsonArray orders = new JsonArray();
-        for (String detail : details) {
-          orders.add(new Order(detail.split("[-]")).toJson());
+    cache.get(request.getParent()).onSuccess(parsing(response, result -> {
+      MarketResponse res = MarketResponse.parse(result);
+      List<Order> orders = new ArrayList<>();
+      if (!res.getResultMsg().equals("0") && res.getResultCode() != 8) {
+        ResultTokenizer tokens = res.tokens();
+        while (tokens.nextRecord()) {
+          orders.add(new Order(tokens));
         }
-        JsonObject res = new JsonObject()
-            .put("id", request.getId())
-            .put("sid", request.getSid())
-            .put("orders", orders);
-
-        response.complete(res.toBuffer());
       }
-    }).onFailure(response::fail);
+
+      response.complete(Payload.of(out -> {
+        out.appendBytes(BIDDING_ID);
+        JsonWriter.writeLong(out, request.getId());
+        out.appendBytes(BIDDING_SID);
+        JsonWriter.writeLong(out, request.getSid());
+        out.appendBytes(BIDDING_ORDERS);
+        JsonWriter.writeArray(out, orders);
+        out.appendByte((byte) '}');
+      }));
+    })).onFailure(response::fail);
 
     return response.future();
   }
@@ -342,28 +326,61 @@ public class V2 {
   * Get item price history information.
   *
   * @param request the <code>V2Composite</code> item composite key
-  * @return        <code>Future&lt;Buffer&gt;</code> of the item to grab
+  * @return        <code>Future&lt;Payload&gt;</code> of the item to grab
   */
-  public static Future<Buffer> getPriceInfo(V2Composite request) {
-    Promise<Buffer> response = Promise.promise();
+  public static Future<Payload> getPriceInfo(V2Composite request) {
+    Promise<Payload> response = Promise.promise();
     Cache<V1Composite, Future<Buffer>> cache = CacheManager.getV1Cache(request.getRegion());
-    cache.get(request.getParent()).onSuccess(result -> {
-      JsonObject asJson = result.toJsonObject();
+    cache.get(request.getParent()).onSuccess(parsing(response, result -> {
+      MarketResponse res = MarketResponse.parse(result);
       JsonObject history = new JsonObject()
           .put("id", request.getId())
           .put("sid", request.getSid());
-      if (asJson.getString("resultMsg").equals("0") || asJson.getInteger("resultCode") == 8) {
+      if (res.getResultMsg().equals("0") || res.getResultCode() == 8) {
         history.put("history", new JsonObject());
       } else {
-        History hist = Util.parseHistory(asJson.getString("resultMsg"), request.getRegion());
+        History hist = Util.parseHistory(res.getResultMsg(), request.getRegion());
         history.put("history", hist.toJson().getJsonObject("history"));
       }
-      response.complete(history.toBuffer());
-    }).onFailure(response::fail);
+      response.complete(Payload.of(history));
+    })).onFailure(response::fail);
 
     return response.future();
   }
 
+  /**
+  * Get the name of an item with its enhancement prefix.
+  *
+  * @param index  the <code>ItemIndex</code> of the language
+  * @param id     the id of the item
+  * @param prefix the enhancement prefix
+  * @return       the prefixed name or <code>null</code> if the item is not indexed
+  */
+  private static String name(ItemIndex index, long id, String prefix) {
+    String name = index.getName(id);
+    return name == null ? null : prefix + name;
+  }
+
+  /**
+  * Wrap a handler building a payload from a market response.
+  *
+  * <p>Malformed responses throw while parsing, the exception fails the
+  * <code>response</code> instead of leaving it pending forever.
+  *
+  * @param response the <code>Promise</code> the handler completes
+  * @param handler  the handler parsing the market response
+  * @return         the wrapped handler
+  */
+  private static <T> Handler<T> parsing(Promise<Payload> response, Handler<T> handler) {
+    return result -> {
+      try {
+        handler.handle(result);
+      } catch (RuntimeException e) {
+        response.tryFail(e);
+      }
+    };
+  }
+
   /**
    * GetWorldMarketWaitList.
    *
@@ -390,13 +407,9 @@ public class V2 {
 
     V2Composite request = new V2Composite(0L, 0L,
         region, MarketEndpoint.GetWorldMarketWaitList, lang);
-    Future<Buffer> waitlist = V2.getWaitList(request);
+    Future<Payload> waitlist = V2.getWaitList(request);
     waitlist.onSuccess(list -> {
-      if (list.toJsonArray().size() == 1) {
-        ctx.response().end(list.toJsonArray().getJsonObject(0).encodePrettily());
-      } else {
-        ctx.response().end(list.toJsonArray().encodePrettily());
-      }
+      Util.end(ctx, list.unwrap(), list.unwrapGzip());
       logger.info(Util.formatLog(ctx.request()));
     }).onFailure(fail -> {
       if (fail.getMessage().equals("515")) {
@@ -433,13 +446,10 @@ public class V2 {
 
     V2Composite request = new V2Composite(0L, 0L,
         region, MarketEndpoint.GetWorldMarketHotList, lang);
-    Future<Buffer> hotlist = CacheManager.getV2Cache(region).get(request);
+    Future<Payload> hotlist = CacheManager.fetchV2(request);
     hotlist.onSuccess(list -> {
-      if (list.toJsonArray().size() == 1) {
-        ctx.response().end(list.toJsonArray().getJsonObject(0).encodePrettily());
-      } else {
-        ctx.response().end(list.toJsonArray().encodePrettily());
-      }
+      ctx.response().putHeader("Age", String.valueOf(list.getAge()));
+      Util.end(ctx, list.unwrap(), list.unwrapGzip());
       logger.info(Util.formatLog(ctx.request()));
     }).onFailure(fail -> ctx.fail(500));
   }
@@ -472,12 +482,13 @@ public class V2 {
 
     V2Composite request = new V2Composite(mainCategory, subCategory,
         region, MarketEndpoint.GetWorldMarketList, "x");
-    Future<Buffer> res = CacheManager.getV2Cache(region).get(request);
+    Future<Payload> res = CacheManager.fetchV2(request);
     res.onSuccess(list -> {
-      if (list.toJsonArray().isEmpty()) {
+      if (list.size() == 0) {
         ctx.fail(513);
       } else {
-        ctx.response().end(list.toJsonArray().encodePrettily());
+        ctx.response().putHeader("Age", String.valueOf(list.getAge()));
+        Util.end(ctx, list.getBody(), list.getGzip());
       }
       logger.info(Util.formatLog(ctx.request()));
     }).onFailure(fail -> ctx.fail(500));
@@ -519,24 +530,24 @@ public class V2 {
       return;
     }
 
+    Timer.Sample sample = Timer.start();
     List<Future> requests = new ArrayList<>();
     ids.forEach(id -> {
       V2Composite request = new V2Composite(id, 0L,
           region, MarketEndpoint.GetWorldMarketSubList, lang);
-      requests.add(CacheManager.getV2Cache(region).get(request));
+      requests.add(CacheManager.fetchV2(request));
     });
 
-    CompositeFuture.all(requests).onSuccess(cf -> {
-      JsonArray res = new JsonArray();
-      for (Future<Buffer> item : requests) {
-        res.add(item.result().toJsonArray());
+    CompositeFuture.all(requests).onComplete(done -> sample.stop(
+        Metrics.timer("arsha.sublist", "api", "v2", "ids", Metrics.sizeBucket(ids.size()))
+    )).onSuccess(cf -> {
+      List<Payload> res = new ArrayList<>();
+      for (Future<Payload> item : requests) {
+        res.add(item.result());
       }
 
-      if (res.size() == 1) {
-        ctx.response().end(res.getJsonArray(0).encodePrettily());
-      } else {
-        ctx.response().end(res.encodePrettily());
-      }
+      ctx.response().putHeader("Age", String.valueOf(Payload.getAge(res)));
+      Util.end(ctx, Payload.join(res));
       logger.info(Util.formatLog(ctx.request()));
     }).onFailure(fail -> ctx.fail(500));
   }
@@ -569,22 +580,18 @@ public class V2 {
 
     List<Future> searchItems = new ArrayList<>();
     ids.forEach(id -> {
-      V2Composite request = new V2Composite(id, 0L,
-          region, MarketEndpoint.GetWorldMarketSearchList, "x");
+      V2Composite request = V2Composite.search(id, region, "x");
       searchItems.add(getSearchItem(request));
     });
 
     CompositeFuture.all(searchItems).onSuccess(cf -> {
-      JsonArray res = new JsonArray();
-      for (Future<Buffer> item : searchItems) {
-        res.add(item.result().toJsonObject());
+      List<Payload> res = new ArrayList<>();
+      for (Future<Payload> item : searchItems) {
+        res.add(item.result());
       }
 
-      if (res.size() == 1) {
-        ctx.response().end(res.getJsonObject(0).encodePrettily());
-      } else {
-        ctx.response().end(res.encodePrettily());
-      }
+      ctx.response().putHeader("Age", String.valueOf(Payload.getAge(res)));
+      Util.end(ctx, Payload.join(res));
       logger.info(Util.formatLog(ctx.request()));
     }).onFailure(fail -> ctx.fail(500));
   }
@@ -633,20 +640,17 @@ public class V2 {
       Long id = ids.get(i);
       Long sid = sids.isEmpty() ? 0L : sids.get(i);
       V2Composite request = new V2Composite(id, sid, region, requestId, "x");
-      requests.add(CacheManager.getV2Cache(region).get(request));
+      requests.add(CacheManager.fetchV2(request));
     }
 
     CompositeFuture.all(requests).onSuccess(ar -> {
-      JsonArray items = new JsonArray();
-      for (Future<Buffer> item : requests) {
-        items.add(item.result().toJsonObject());
+      List<Payload> items = new ArrayList<>();
+      for (Future<Payload> item : requests) {
+        items.add(item.result());
       }
 
-      if (items.size() == 1) {
-        ctx.response().end(items.getJsonObject(0).encodePrettily());
-      } else {
-        ctx.response().end(items.encodePrettily());
-      }
+      ctx.response().putHeader("Age", String.valueOf(Payload.getAge(items)));
+      Util.end(ctx, Payload.join(items));
       logger.info(Util.formatLog(ctx.request()));
     }).onFailure(fail -> ctx.fail(500));
   }
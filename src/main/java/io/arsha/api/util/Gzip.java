@@ -0,0 +1,90 @@
+package io.arsha.api.util;
+
+import io.arsha.api.cache.Segment;
+import io.vertx.core.buffer.Buffer;
+
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+public class Gzip {
+  private static final byte[] HEADER = {
+    0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+  };
+  // Empty final block with fixed huffman codes terminating the deflate stream
+  private static final byte[] FINAL_BLOCK = { 0x03, 0x00 };
+
+  /**
+   * Raw deflate the given buffer and end on a byte aligned sync flush.
+   *
+   * <p>Blocks produced this way can be concatenated in any order and terminated with
+   * an empty final block, so cached bodies are compressed once and stitched into
+   * a gzip stream per response without compressing again.
+   *
+   * @param plain the <code>Buffer</code> to compress
+   * @return the deflated <code>Buffer</code> without header or final block
+   */
+  public static Buffer deflate(Buffer plain) {
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+    try {
+      deflater.setInput(plain.getBytes());
+      Buffer deflated = Buffer.buffer(plain.length() / 4 + 16);
+      byte[] chunk = new byte[8192];
+      int written;
+      do {
+        written = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH);
+        deflated.appendBytes(chunk, 0, written);
+      } while (written == chunk.length);
+      return deflated;
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Stitch deflated segments into a single gzip member.
+   *
+   * @param segments the <code>Segment</code>s in order
+   * @return the gzip encoded <code>Buffer</code>
+   */
+  public static Buffer gzip(List<Segment> segments) {
+    CRC32 crc = new CRC32();
+    long size = 0;
+    int length = HEADER.length + FINAL_BLOCK.length + 8;
+    for (Segment segment : segments) {
+      length += segment.getDeflated().length();
+    }
+
+    Buffer gzip = Buffer.buffer(length).appendBytes(HEADER);
+    for (Segment segment : segments) {
+      crc.update(segment.getPlain().getByteBuf().nioBuffer());
+      size += segment.getPlain().length();
+      gzip.appendBuffer(segment.getDeflated());
+    }
+    return gzip.appendBytes(FINAL_BLOCK)
+      .appendIntLE((int) crc.getValue())
+      .appendIntLE((int) size);
+  }
+
+  /**
+   * Concatenate the uncompressed content of segments.
+   *
+   * @param segments the <code>Segment</code>s in order
+   * @return the plain <code>Buffer</code>
+   */
+  public static Buffer plain(List<Segment> segments) {
+    if (segments.size() == 1) {
+      return segments.get(0).getPlain();
+    }
+
+    int length = 0;
+    for (Segment segment : segments) {
+      length += segment.getPlain().length();
+    }
+    Buffer plain = Buffer.buffer(length);
+    for (Segment segment : segments) {
+      plain.appendBuffer(segment.getPlain());
+    }
+    return plain;
+  }
+}
@@ -1,7 +1,9 @@
 package io.arsha.api.util;
 
+import io.arsha.api.cache.Segment;
 import io.arsha.api.common.AppConfig;
 import io.arsha.api.market.Marketplace;
+import io.arsha.api.market.ResultTokenizer;
 import io.arsha.api.market.items.History;
 import io.arsha.api.market.items.Item;
 import io.vertx.core.Future;
@@ -105,22 +107,24 @@ public class Util {
    * @return the selected <code>Item</code> or null if not found
    */
   public static Item selectItemBySid(JsonObject response, Integer sid) {
-    String[] resultMsg = response.getString("resultMsg").split("[|]");
-    if (response.getString("resultMsg").equals("0")) {
+    String resultMsg = response.getString("resultMsg");
+    ResultTokenizer tokens = new ResultTokenizer(resultMsg);
+    if (ResultTokenizer.isEmpty(resultMsg) || !tokens.nextRecord()) {
       return null;
     }
 
-    if (resultMsg.length > 1) {
-      for (String result : resultMsg) {
-        String[] details = result.split("[-]");
-        if (Integer.valueOf(details[1]) == sid) {
-          return new Item(details);
-        }
-      }
-      return null;
+    Item item = new Item(tokens);
+    if (!tokens.nextRecord()) {
+      return item;
     }
 
-    return new Item(resultMsg[0].split("[-]"));
+    do {
+      if (item.getSid() == sid) {
+        return item;
+      }
+      item = new Item(tokens);
+    } while (tokens.nextRecord());
+    return item.getSid() == sid ? item : null;
   }
 
   /**
@@ -133,14 +137,14 @@ public class Util {
    * @param maxEnhance the maximum enhancement level
    * @return the <code>String</code> item prefix
    */
-  public static String getItemPrefix(Long id, String minEnhance, String maxEnhance) {
+  public static String getItemPrefix(long id, int minEnhance, int maxEnhance) {
     // Silver Embroidered Goes 0,1,2,3,4,5 instead of 0,PRI,DUO,TRI,TET,PEN
     List<Long> specialCases = Arrays.asList(14025L, 14019L, 14026L, 14028L,
         14020L, 14022L, 14024L,
         14029L, 14021L, 14023L);
 
-    Integer min = Integer.valueOf(minEnhance);
-    Integer max = Integer.valueOf(maxEnhance);
+    int min = minEnhance;
+    int max = maxEnhance;
 
     if (min < max && min != 0) {
       return String.format("+%s ", min);
@@ -333,6 +337,93 @@ public class Util {
     ctx.response().setStatusCode(error.getInteger("error")).end(error.encodePrettily());
   }
 
+  /**
+   * End the response with a pre-compressed body if the client accepts gzip.
+   *
+   * <p>The server never compresses a response with <code>Content-Encoding</code> set,
+   * so the gzip body is sent as is. The plain body is only sent to clients not
+   * accepting gzip, the server only compresses it for clients accepting
+   * <code>deflate</code>. RFC 7231 discourages sending <code>identity</code> as a
+   * content coding.
+   *
+   * @param ctx   the <code>RoutingContext</code>
+   * @param plain the uncompressed body
+   * @param gzip  the gzip encoded body
+   */
+  public static void end(RoutingContext ctx, Buffer plain, Buffer gzip) {
+    ctx.response().putHeader("Vary", "Accept-Encoding");
+    if (acceptsGzip(ctx.request().getHeader("Accept-Encoding"))) {
+      ctx.response().putHeader("Content-Encoding", "gzip").end(gzip);
+    } else {
+      ctx.response().end(plain);
+    }
+  }
+
+  /**
+   * End the response with the given segments, stitched into a gzip stream
+   * if the client accepts gzip.
+   *
+   * @param ctx      the <code>RoutingContext</code>
+   * @param segments the <code>Segment</code>s of the body in order
+   * @see            #end(RoutingContext, Buffer, Buffer)
+   */
+  public static void end(RoutingContext ctx, List<Segment> segments) {
+    ctx.response().putHeader("Vary", "Accept-Encoding");
+    if (acceptsGzip(ctx.request().getHeader("Accept-Encoding"))) {
+      ctx.response().putHeader("Content-Encoding", "gzip").end(Gzip.gzip(segments));
+    } else {
+      ctx.response().end(Gzip.plain(segments));
+    }
+  }
+
+  /**
+   * Check if the request accepts gzip encoded responses.
+   *
+   * <p>An explicit <code>gzip</code> coding decides over <code>*</code>, and a coding
+   * with <code>q=0</code> is refused, so <code>*;q=0, gzip</code> accepts gzip and
+   * <code>gzip;q=0, *</code> does not.
+   *
+   * @param accept the <code>Accept-Encoding</code> header or <code>null</code>
+   * @return <code>true</code> if gzip is accepted
+   */
+  static boolean acceptsGzip(String accept) {
+    if (accept == null) {
+      return false;
+    }
+    Double gzip = null;
+    Double any = null;
+    for (String encoding : accept.split(",")) {
+      String[] parts = encoding.split(";");
+      String coding = parts[0].trim();
+      if (coding.equalsIgnoreCase("gzip")) {
+        gzip = quality(parts);
+      } else if (coding.equals("*")) {
+        any = quality(parts);
+      }
+    }
+    return gzip != null ? gzip > 0 : any != null && any > 0;
+  }
+
+  /**
+   * Get the <code>q</code> parameter of a content coding.
+   *
+   * @param parts the coding and its parameters
+   * @return the quality, <code>1</code> if missing or not a number
+   */
+  private static double quality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String param = parts[i].trim();
+      if (param.startsWith("q=") || param.startsWith("Q=")) {
+        try {
+          return Double.parseDouble(param.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 1;
+        }
+      }
+    }
+    return 1;
+  }
+
   /**
    * Check if the region is valid.
    *
@@ -0,0 +1,14 @@
+package io.arsha.api.util.json;
+
+import io.vertx.core.buffer.Buffer;
+
+public interface JsonWritable {
+
+  /**
+  * Append this object as compact JSON, byte for byte equal to encoding
+  * <code>toJson()</code>.
+  *
+  * @param out the <code>Buffer</code> to append to
+  */
+  void writeJson(Buffer out);
+}
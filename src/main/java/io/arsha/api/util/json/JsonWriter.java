@@ -0,0 +1,208 @@
+package io.arsha.api.util.json;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Helpers to write compact JSON straight into a <code>Buffer</code>.
+ *
+ * <p>The output matches Jackson as used by <code>JsonObject.encode()</code>: no
+ * whitespace, non ASCII characters written as UTF-8, and only quotes, backslashes,
+ * control characters and surrogates escaped. Like Jackson, characters outside the
+ * BMP are written as escaped surrogate pairs rather than 4 byte UTF-8.
+ */
+public final class JsonWriter {
+  private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+  private static final int MAX_SCRATCH = 1 << 20;
+  // Responses are written into a per thread scratch buffer and copied out once at
+  // their final size, so large lists do not pay for repeated growth
+  private static final ThreadLocal<ByteBuf> SCRATCH = ThreadLocal.withInitial(() -> Unpooled.buffer(64 * 1024));
+
+  private JsonWriter() {
+  }
+
+  /**
+  * Pre-encode a field name with its separator and colon.
+  *
+  * @param name  the field name, must not need escaping
+  * @param first true for the first field, which opens the object
+  * @return      the encoded bytes, for example <code>,"name":</code>
+  */
+  public static byte[] name(String name, boolean first) {
+    return ((first ? "{" : ",") + "\"" + name + "\":").getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+  * Write elements as a JSON array.
+  *
+  * @param elements the elements to write
+  * @return         the <code>Buffer</code> holding the array
+  */
+  public static Buffer array(List<? extends JsonWritable> elements) {
+    ByteBuf scratch = SCRATCH.get().clear();
+    writeArray(Buffer.buffer(scratch), elements);
+    return copy(scratch);
+  }
+
+  /**
+  * Write a JSON object.
+  *
+  * @param object the <code>JsonWritable</code> writing the object
+  * @return       the <code>Buffer</code> holding the object
+  */
+  public static Buffer object(JsonWritable object) {
+    ByteBuf scratch = SCRATCH.get().clear();
+    object.writeJson(Buffer.buffer(scratch));
+    return copy(scratch);
+  }
+
+  private static Buffer copy(ByteBuf scratch) {
+    Buffer out = Buffer.buffer(Unpooled.copiedBuffer(scratch));
+    if (scratch.capacity() > MAX_SCRATCH) {
+      SCRATCH.remove();
+    }
+    return out;
+  }
+
+  /**
+  * Append elements as a JSON array.
+  *
+  * @param out      the <code>Buffer</code> to append to
+  * @param elements the elements to write
+  */
+  public static void writeArray(Buffer out, List<? extends JsonWritable> elements) {
+    out.appendByte((byte) '[');
+    for (int i = 0; i < elements.size(); i++) {
+      if (i > 0) {
+        out.appendByte((byte) ',');
+      }
+      elements.get(i).writeJson(out);
+    }
+    out.appendByte((byte) ']');
+  }
+
+  public static void writeNull(Buffer out) {
+    out.appendBytes(NULL);
+  }
+
+  /**
+  * Append a <code>long</code> without allocating its <code>String</code> form.
+  *
+  * @param out   the <code>Buffer</code> to append to
+  * @param value the value to write
+  */
+  public static void writeLong(Buffer out, long value) {
+    if (value < 0) {
+      if (value == Long.MIN_VALUE) {
+        out.appendBytes(MIN_LONG);
+        return;
+      }
+      out.appendByte((byte) '-');
+      value = -value;
+    }
+
+    long divisor = 1;
+    while (value / divisor >= 10) {
+      divisor *= 10;
+    }
+    while (divisor > 0) {
+      out.appendByte((byte) ('0' + value / divisor));
+      value %= divisor;
+      divisor /= 10;
+    }
+  }
+
+  /**
+  * Append a number as JSON string, for example <code>"5"</code>.
+  *
+  * @param out   the <code>Buffer</code> to append to
+  * @param value the value to write
+  */
+  public static void writeQuoted(Buffer out, long value) {
+    out.appendByte((byte) '"');
+    writeLong(out, value);
+    out.appendByte((byte) '"');
+  }
+
+  /**
+  * Append an escaped JSON string or <code>null</code>.
+  *
+  * @param out   the <code>Buffer</code> to append to
+  * @param value the value to write
+  */
+  public static void writeString(Buffer out, String value) {
+    if (value == null) {
+      writeNull(out);
+      return;
+    }
+
+    out.appendByte((byte) '"');
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        writeAscii(out, c);
+      } else if (c < 0x800) {
+        out.appendByte((byte) (0xC0 | (c >> 6)));
+        out.appendByte((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isSurrogate(c)) {
+        writeEscape(out, c);
+      } else {
+        out.appendByte((byte) (0xE0 | (c >> 12)));
+        out.appendByte((byte) (0x80 | ((c >> 6) & 0x3F)));
+        out.appendByte((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+    out.appendByte((byte) '"');
+  }
+
+  private static void writeAscii(Buffer out, char c) {
+    if (c >= 0x20 && c != '"' && c != '\\') {
+      out.appendByte((byte) c);
+      return;
+    }
+
+    out.appendByte((byte) '\\');
+    switch (c) {
+      case '"':
+      case '\\':
+        out.appendByte((byte) c);
+        break;
+      case '\b':
+        out.appendByte((byte) 'b');
+        break;
+      case '\t':
+        out.appendByte((byte) 't');
+        break;
+      case '\n':
+        out.appendByte((byte) 'n');
+        break;
+      case '\f':
+        out.appendByte((byte) 'f');
+        break;
+      case '\r':
+        out.appendByte((byte) 'r');
+        break;
+      default:
+        writeUnicode(out, c);
+        break;
+    }
+  }
+
+  private static void writeEscape(Buffer out, char c) {
+    out.appendByte((byte) '\\');
+    writeUnicode(out, c);
+  }
+
+  private static void writeUnicode(Buffer out, char c) {
+    out.appendByte((byte) 'u')
+        .appendByte(HEX[c >> 12]).appendByte(HEX[(c >> 8) & 0xF])
+        .appendByte(HEX[(c >> 4) & 0xF]).appendByte(HEX[c & 0xF]);
+  }
+}
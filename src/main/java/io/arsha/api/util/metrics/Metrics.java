@@ -0,0 +1,96 @@
+package io.arsha.api.util.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.vertx.micrometer.backends.BackendRegistries;
+
+import java.time.Duration;
+
+public class Metrics {
+  private static MeterRegistry registry = null;
+  // Fixed buckets instead of client side percentiles, so latencies aggregate across
+  // instances and tags without keeping a percentile window per tag combination
+  private static final Duration[] LATENCY_BUCKETS = {
+    Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+    Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+    Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10)
+  };
+
+  /**
+   * Get the registry backing the embedded Prometheus endpoint.
+   *
+   * <p>If metrics are disabled (e.g. in debug mode) a registry without any backend
+   * is returned so meters can always be recorded without null checks.
+   *
+   * @return the <code>MeterRegistry</code>
+   */
+  public static MeterRegistry getRegistry() {
+    if (registry == null) {
+      MeterRegistry backend = BackendRegistries.getDefaultNow();
+      registry = (backend == null ? new CompositeMeterRegistry() : backend);
+    }
+    return registry;
+  }
+
+  /**
+   * Get or register a timer publishing p50 and p99.
+   *
+   * @param name the name of the timer
+   * @param tags the tags as alternating key value pairs
+   * @return the <code>Timer</code>
+   */
+  public static Timer timer(String name, String... tags) {
+    return Timer.builder(name)
+        .tags(tags)
+        .publishPercentiles(0.5, 0.99)
+        .register(getRegistry());
+  }
+
+  /**
+   * Get or register a timer publishing a latency histogram.
+   *
+   * <p>Buckets range from 1ms to 10s, use <code>histogram_quantile</code> for p50 to p99.
+   *
+   * @param name the name of the timer
+   * @param tags the tags as alternating key value pairs
+   * @return the <code>Timer</code>
+   */
+  public static Timer latency(String name, String... tags) {
+    return Timer.builder(name)
+        .tags(tags)
+        .serviceLevelObjectives(LATENCY_BUCKETS)
+        .register(getRegistry());
+  }
+
+  /**
+   * Get or register a counter.
+   *
+   * @param name the name of the counter
+   * @param tags the tags as alternating key value pairs
+   * @return the <code>Counter</code>
+   */
+  public static Counter counter(String name, String... tags) {
+    return Counter.builder(name)
+        .tags(tags)
+        .register(getRegistry());
+  }
+
+  /**
+   * Bucket the amount of ids in a request to keep tag cardinality low.
+   *
+   * @param size the amount of ids
+   * @return the bucket as <code>String</code>
+   */
+  public static String sizeBucket(int size) {
+    if (size <= 1) {
+      return "1";
+    } else if (size <= 10) {
+      return "2-10";
+    } else if (size <= 50) {
+      return "11-50";
+    }
+    return "51+";
+  }
+}
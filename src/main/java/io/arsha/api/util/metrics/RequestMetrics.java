@@ -0,0 +1,92 @@
+package io.arsha.api.util.metrics;
+
+import io.arsha.api.market.Marketplace;
+import io.arsha.api.market.enums.MarketEndpoint;
+import io.arsha.api.util.Util;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Times every API request from routing until its response ended.
+ *
+ * <p>Recorded as <code>arsha.http.handler</code> tagged by <code>api</code>,
+ * <code>endpoint</code>, <code>region</code>, <code>lang</code> and
+ * <code>status</code> class. Unknown regions, languages and endpoints are tagged
+ * <code>invalid</code> so client input can not grow the amount of series.
+ */
+public final class RequestMetrics {
+  private static final Set<String> ENDPOINTS = new HashSet<>();
+
+  static {
+    for (MarketEndpoint endpoint : MarketEndpoint.values()) {
+      ENDPOINTS.add(endpoint.toString());
+    }
+    ENDPOINTS.add("item");
+    ENDPOINTS.add("history");
+    ENDPOINTS.add("orders");
+    ENDPOINTS.add("price");
+  }
+
+  private RequestMetrics() {
+  }
+
+  /**
+  * Root handler starting the timer of a request.
+  *
+  * @param ctx the <code>RoutingContext</code>
+  */
+  public static void handle(RoutingContext ctx) {
+    Timer.Sample sample = Timer.start();
+    ctx.addEndHandler(end -> sample.stop(Metrics.latency("arsha.http.handler", tags(ctx))));
+    ctx.next();
+  }
+
+  private static String[] tags(RoutingContext ctx) {
+    String[] path = ctx.request().path().split("/", 4);
+    String api = path.length > 1 ? path[1] : "";
+    int status = ctx.response().getStatusCode();
+    String endpoint = "invalid";
+    String region = "none";
+
+    if (api.equals("v1") || api.equals("v2")) {
+      region = path.length > 2 ? tag(path[2], Marketplace.getRegions()) : "invalid";
+      if (path.length > 3 && ENDPOINTS.contains(path[3])) {
+        endpoint = path[3];
+      }
+    } else if (api.equals("util") || api.equals("scraper")) {
+      // Unknown util paths are answered with 404 by the router
+      if (status != 404) {
+        endpoint = path.length > 2 ? ctx.request().path().substring(api.length() + 2) : "";
+      }
+    } else {
+      api = "other";
+    }
+
+    String lang = ctx.request().getParam("lang");
+    if (lang == null) {
+      lang = ctx.request().getHeader("lang");
+    }
+    if (lang == null) {
+      lang = "default";
+    } else if (!Util.getLangs().contains(lang.toLowerCase())) {
+      lang = "invalid";
+    }
+
+    return new String[] {
+      "api", api,
+      "endpoint", endpoint,
+      "region", region,
+      "lang", lang.toLowerCase(),
+      "status", (status / 100) + "xx"
+    };
+  }
+
+  private static String tag(String value, JsonObject known) {
+    String lower = value.toLowerCase();
+    return known != null && known.containsKey(lower) ? lower : "invalid";
+  }
+}
@@ -0,0 +1,46 @@
+package io.arsha.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class DbKeyTest {
+  private static final long MAX_ID = (1L << 48) - 1;
+
+  @Test
+  void packsCollectionAndId() {
+    long key = DbKey.of("en_recipes", 123456L);
+
+    assertEquals("en_recipes", DbKey.collection(key));
+    assertEquals(123456L, DbKey.id(key));
+  }
+
+  @Test
+  void keepsLargestId() {
+    long key = DbKey.of("de", MAX_ID);
+
+    assertEquals("de", DbKey.collection(key));
+    assertEquals(MAX_ID, DbKey.id(key));
+  }
+
+  @Test
+  void separatesCollections() {
+    assertNotEquals(DbKey.of("en", 1L), DbKey.of("de", 1L));
+    assertEquals(DbKey.of("en", 1L), DbKey.of("en", 1L));
+    assertEquals(DbKey.ordinal("en"), DbKey.ordinal("en"));
+  }
+
+  @Test
+  void rejectsIdsOutOfRange() {
+    assertTrue(DbKey.isValid(0L));
+    assertTrue(DbKey.isValid(MAX_ID));
+    assertFalse(DbKey.isValid(-1L));
+    assertFalse(DbKey.isValid(MAX_ID + 1));
+    assertThrows(IllegalArgumentException.class, () -> DbKey.of("en", -1L));
+    assertThrows(IllegalArgumentException.class, () -> DbKey.of("en", MAX_ID + 1));
+  }
+}
@@ -0,0 +1,109 @@
+package io.arsha.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.buffer.Buffer;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapStoreTest {
+  private static final int SLAB = 64;
+
+  // Three slabs of 64 bytes
+  private static OffHeapStore<String> store() {
+    return new OffHeapStore<>("test", 3 * SLAB, SLAB);
+  }
+
+  private static Buffer value(char fill, int length) {
+    return Buffer.buffer(String.valueOf(fill).repeat(length));
+  }
+
+  @Test
+  void rejectsBudgetBelowTwoSlabs() {
+    assertThrows(IllegalArgumentException.class, () -> new OffHeapStore<>("test", 2 * SLAB - 1, SLAB));
+  }
+
+  @Test
+  void copiesValuesInAndOut() {
+    OffHeapStore<String> store = store();
+    assertEquals(0, store.getAllocated());
+
+    assertTrue(store.put("a", value('a', 10), 1000L, 7));
+    OffHeapStore.Stored stored = store.get("a", 0);
+
+    assertEquals(value('a', 10), stored.getValue());
+    assertEquals(1000L, stored.getCreated());
+    assertEquals(7, stored.getMeta());
+    assertEquals(SLAB, store.getAllocated());
+  }
+
+  @Test
+  void rejectsValuesLargerThanSlab() {
+    OffHeapStore<String> store = store();
+
+    assertFalse(store.put("a", value('a', SLAB + 1), 0, 0));
+    assertNull(store.get("a", 0));
+    assertTrue(store.put("b", value('b', SLAB), 0, 0));
+  }
+
+  @Test
+  void skipsValuesCreatedTooLongAgo() {
+    OffHeapStore<String> store = store();
+    store.put("a", value('a', 10), 1000L, 0);
+
+    assertNotNull(store.get("a", 1000L));
+    assertNull(store.get("a", 1001L));
+  }
+
+  @Test
+  void evictsOldestSlabWhenFull() {
+    OffHeapStore<String> store = store();
+    // Two values per slab, slabs 0, 1 and 2
+    for (int i = 0; i < 6; i++) {
+      store.put("k" + i, value((char) ('0' + i), 32), 0, 0);
+    }
+    assertEquals(6, store.size());
+    assertEquals(3 * SLAB, store.getAllocated());
+
+    // Reuses slab 0 and drops both of its values
+    store.put("k6", value('6', 32), 0, 0);
+
+    assertNull(store.get("k0", 0));
+    assertNull(store.get("k1", 0));
+    assertEquals(value('2', 32), store.get("k2", 0).getValue());
+    assertEquals(value('6', 32), store.get("k6", 0).getValue());
+    assertEquals(5, store.size());
+    assertEquals(3 * SLAB, store.getAllocated());
+  }
+
+  @Test
+  void keepsKeysWrittenAgainInNewerSlab() {
+    OffHeapStore<String> store = store();
+    store.put("a", value('a', 32), 0, 0);
+    store.put("b", value('b', 32), 0, 0);
+    // "a" written again into slab 1, its old copy stays behind in slab 0
+    store.put("a", value('A', 32), 0, 0);
+    store.put("c", value('c', 32), 0, 0);
+    store.put("d", value('d', 64), 0, 0);
+    store.put("e", value('e', 64), 0, 0);
+
+    assertNull(store.get("b", 0));
+    assertEquals(value('A', 32), store.get("a", 0).getValue());
+  }
+
+  @Test
+  void removesValues() {
+    OffHeapStore<String> store = store();
+    store.put("a", value('a', 10), 0, 0);
+
+    store.remove("a");
+
+    assertNull(store.get("a", 0));
+    assertEquals(0, store.size());
+  }
+}
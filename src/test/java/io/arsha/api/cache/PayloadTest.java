@@ -0,0 +1,60 @@
+package io.arsha.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+class PayloadTest {
+
+  private static String gunzip(Buffer gzip) throws IOException {
+    try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(gzip.getBytes()))) {
+      return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  void unwrapsSingleElementArrays() throws IOException {
+    Payload payload = Payload.of(new JsonArray().add(new JsonObject().put("id", 1)));
+
+    assertEquals("[{\"id\":1}]", gunzip(payload.getGzip()));
+    assertEquals("{\"id\":1}", payload.unwrap().toString());
+    assertEquals("{\"id\":1}", gunzip(payload.unwrapGzip()));
+  }
+
+  @Test
+  void joinsPayloadsIntoOneArray() throws IOException {
+    Payload a = Payload.of(new JsonArray().add(new JsonObject().put("id", 1)));
+    Payload b = Payload.of(new JsonObject().put("id", 2));
+    Payload c = Payload.of(new JsonArray().add(3).add(4));
+
+    String joined = gunzip(io.arsha.api.util.Gzip.gzip(Payload.join(Arrays.asList(a, b, c))));
+    assertEquals("[[{\"id\":1}],{\"id\":2},[3,4]]", joined);
+  }
+
+  @Test
+  void restoresStoredFormWithoutChanges() {
+    Payload[] payloads = {
+      Payload.of(new JsonArray().add(new JsonObject().put("id", 1))),
+      Payload.of(new JsonArray().add(1).add(2)),
+      Payload.of(new JsonObject().put("id", 3))
+    };
+    for (Payload payload : payloads) {
+      Payload restored = Payload.restore(payload.getStored(), payload.size(), payload.getCreated());
+
+      assertEquals(payload.getBody(), restored.getBody());
+      assertEquals(payload.getGzip(), restored.getGzip());
+      assertEquals(payload.unwrapGzip(), restored.unwrapGzip());
+      assertEquals(payload.getCreated(), restored.getCreated());
+    }
+  }
+}
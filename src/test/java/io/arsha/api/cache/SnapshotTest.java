@@ -0,0 +1,112 @@
+package io.arsha.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(VertxExtension.class)
+class SnapshotTest {
+
+  private static Map<String, List<JsonObject>> collections() {
+    Map<String, List<JsonObject>> collections = new LinkedHashMap<>();
+    collections.put("en", Arrays.asList(
+        new JsonObject().put("_id", "a").put("id", 30).put("name", "Kzarka"),
+        new JsonObject().put("id", 10).put("name", "Black Stone"),
+        new JsonObject().put("name", "No id"),
+        new JsonObject().put("id", 20).put("name", "검은사막")));
+    collections.put("en_recipes", new ArrayList<>());
+    return collections;
+  }
+
+  @Test
+  void writesHeader(Vertx vertx, VertxTestContext test, @TempDir Path dir) {
+    Path path = dir.resolve("snapshot.bin");
+    Snapshot.write(vertx, path.toString(), collections()).onComplete(test.succeeding(done ->
+        test.verify(() -> {
+          byte[] header = Arrays.copyOf(Files.readAllBytes(path), 12);
+          Buffer expected = Buffer.buffer("ASNP").appendInt(1).appendInt(2);
+          assertArrayEquals(expected.getBytes(), header);
+          test.completeNow();
+        })));
+  }
+
+  @Test
+  void readsWhatWasWritten(Vertx vertx, VertxTestContext test, @TempDir Path dir) {
+    String path = dir.resolve("data/snapshot.bin").toString();
+    Snapshot.write(vertx, path, collections())
+        .compose(written -> Snapshot.load(vertx, path))
+        .onComplete(test.succeeding(snapshot -> test.verify(() -> {
+          assertEquals(Set.of("en", "en_recipes"), snapshot.getCollections());
+          assertTrue(snapshot.contains("en_recipes"));
+          assertFalse(snapshot.contains("de"));
+          assertEquals(4, snapshot.size("en"));
+          assertEquals(0, snapshot.size("en_recipes"));
+          assertEquals(0, snapshot.size("de"));
+
+          // Documents keep their order and lose the Mongo _id
+          List<JsonObject> documents = snapshot.getCollection("en");
+          assertEquals(new JsonObject().put("id", 30).put("name", "Kzarka"), documents.get(0));
+          assertEquals("No id", documents.get(2).getString("name"));
+          assertEquals("검은사막", documents.get(3).getString("name"));
+          assertTrue(snapshot.getCollection("de").isEmpty());
+
+          Iterator<Buffer> encoded = snapshot.iterate("en");
+          for (JsonObject document : documents) {
+            assertEquals(document, encoded.next().toJsonObject());
+          }
+          assertFalse(encoded.hasNext());
+          assertFalse(snapshot.iterate("de").hasNext());
+          test.completeNow();
+        })));
+  }
+
+  @Test
+  void findsDocumentsById(Vertx vertx, VertxTestContext test, @TempDir Path dir) {
+    String path = dir.resolve("snapshot.bin").toString();
+    Snapshot.write(vertx, path, collections())
+        .compose(written -> Snapshot.load(vertx, path))
+        .onComplete(test.succeeding(snapshot -> test.verify(() -> {
+          assertEquals("Black Stone", snapshot.get("en", 10).getString("name"));
+          assertEquals("검은사막", snapshot.get("en", 20).getString("name"));
+          assertEquals("Kzarka", snapshot.get("en", 30).getString("name"));
+          assertEquals(snapshot.get("en", 30), snapshot.getBytes("en", 30).toJsonObject());
+          assertNull(snapshot.get("en", 15));
+          assertNull(snapshot.get("en", 40));
+          assertNull(snapshot.get("en_recipes", 10));
+          assertNull(snapshot.get("de", 10));
+          test.completeNow();
+        })));
+  }
+
+  @Test
+  void rejectsOtherFiles(Vertx vertx, VertxTestContext test, @TempDir Path dir) throws IOException {
+    Path path = dir.resolve("other.bin");
+    Files.write(path, "{\"not\":\"a snapshot\"}".getBytes(StandardCharsets.UTF_8));
+
+    Snapshot.load(vertx, path.toString()).onComplete(test.failing(fail -> test.completeNow()));
+  }
+}
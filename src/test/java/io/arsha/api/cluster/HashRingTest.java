@@ -0,0 +1,102 @@
+package io.arsha.api.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.arsha.api.cache.V1Composite;
+import io.arsha.api.cache.V2Composite;
+import io.arsha.api.market.enums.MarketEndpoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class HashRingTest {
+  private static final List<String> NODES = Arrays.asList("node-a", "node-b", "node-c");
+
+  private static List<V1Composite> keys() {
+    List<V1Composite> keys = new ArrayList<>();
+    for (int id = 0; id < 3000; id++) {
+      keys.add(new V1Composite(10000 + id, id % 5, "eu", MarketEndpoint.GetWorldMarketSubList));
+    }
+    return keys;
+  }
+
+  @Test
+  void emptyRingOwnsNothing() {
+    HashRing ring = HashRing.of(Collections.emptyList(), 160);
+
+    assertTrue(ring.isEmpty());
+    assertNull(ring.owner(keys().get(0)));
+  }
+
+  @Test
+  void ownersDoNotDependOnMemberOrder() {
+    HashRing ring = HashRing.of(NODES, 160);
+    List<String> shuffled = new ArrayList<>(NODES);
+    Collections.reverse(shuffled);
+    HashRing other = HashRing.of(shuffled, 160);
+
+    for (V1Composite key : keys()) {
+      assertEquals(ring.owner(key), other.owner(key));
+    }
+  }
+
+  @Test
+  void spreadsKeysOverNodes() {
+    HashRing ring = HashRing.of(NODES, 160);
+    Map<String, Integer> owned = new HashMap<>();
+    for (V1Composite key : keys()) {
+      owned.merge(ring.owner(key), 1, Integer::sum);
+    }
+
+    assertEquals(3, owned.size());
+    for (int count : owned.values()) {
+      assertTrue(count > 600 && count < 1400, "Unbalanced ring: " + owned);
+    }
+  }
+
+  @Test
+  void onlyKeysOfLeavingNodeMove() {
+    HashRing before = HashRing.of(NODES, 160);
+    HashRing after = HashRing.of(NODES.subList(0, 2), 160);
+
+    for (V1Composite key : keys()) {
+      String owner = before.owner(key);
+      if (!owner.equals("node-c")) {
+        assertEquals(owner, after.owner(key));
+      }
+    }
+  }
+
+  @Test
+  void v2KeysBelongToOwnerOfTheirParent() {
+    HashRing ring = HashRing.of(NODES, 160);
+    for (int id = 0; id < 500; id++) {
+      V2Composite key = new V2Composite(10000 + id, 0, "eu", MarketEndpoint.GetWorldMarketSubList, "en");
+      assertEquals(ring.owner(key.getParent()), ring.owner(key));
+      assertEquals(HashRing.hash(key.getParent()), HashRing.hash(key));
+    }
+  }
+
+  @Test
+  void hashesAllFieldsOfKey() {
+    V1Composite key = new V1Composite(11653, 0, "eu", MarketEndpoint.GetWorldMarketSubList);
+
+    assertNotEquals(HashRing.hash(key),
+        HashRing.hash(new V1Composite(11653, 0, "na", MarketEndpoint.GetWorldMarketSubList)));
+    assertNotEquals(HashRing.hash(key),
+        HashRing.hash(new V1Composite(11653, 1, "eu", MarketEndpoint.GetWorldMarketSubList)));
+    assertNotEquals(HashRing.hash(key),
+        HashRing.hash(new V1Composite(11653, 0, "eu", MarketEndpoint.GetBiddingInfoList)));
+    assertNotEquals(HashRing.hash(V1Composite.search("11653", "eu")),
+        HashRing.hash(V1Composite.search("11654", "eu")));
+  }
+}
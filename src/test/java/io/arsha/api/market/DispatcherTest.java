@@ -0,0 +1,111 @@
+package io.arsha.api.market;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class DispatcherTest {
+
+  private static Dispatcher dispatcher(Vertx vertx, JsonObject conf) {
+    return new Dispatcher(vertx, "test", conf);
+  }
+
+  // Submit tasks one after another, each once the previous one completed
+  private static Future<Void> sequence(Dispatcher dispatcher, int count, boolean succeed) {
+    Future<Void> done = Future.succeededFuture();
+    for (int i = 0; i < count; i++) {
+      done = done.compose(previous -> dispatcher.<Void>submit(() -> succeed
+          ? Future.succeededFuture() : Future.failedFuture("failed")).otherwiseEmpty());
+    }
+    return done;
+  }
+
+  @Test
+  void backsOffOnFailures(Vertx vertx, VertxTestContext test) {
+    Dispatcher dispatcher = dispatcher(vertx, new JsonObject()
+        .put("minConcurrency", 2).put("maxConcurrency", 8).put("backoffRatio", 0.5));
+    assertEquals(8.0, dispatcher.getLimit());
+
+    sequence(dispatcher, 1, false).compose(one -> {
+      test.verify(() -> assertEquals(4.0, dispatcher.getLimit()));
+      return sequence(dispatcher, 5, false);
+    }).onComplete(test.succeeding(many -> test.verify(() -> {
+      assertEquals(2.0, dispatcher.getLimit());
+      test.completeNow();
+    })));
+  }
+
+  @Test
+  void growsAdditivelyOnFastSuccesses(Vertx vertx, VertxTestContext test) {
+    Dispatcher dispatcher = dispatcher(vertx, new JsonObject()
+        .put("minConcurrency", 2).put("maxConcurrency", 4).put("backoffRatio", 0.5)
+        .put("latencyTolerance", 1000.0));
+
+    sequence(dispatcher, 2, false).compose(backedOff -> {
+      test.verify(() -> assertEquals(2.0, dispatcher.getLimit()));
+      return sequence(dispatcher, 1, true);
+    }).compose(one -> {
+      // One success raises the limit by 1 / limit
+      test.verify(() -> assertEquals(2.5, dispatcher.getLimit(), 1e-9));
+      return sequence(dispatcher, 50, true);
+    }).onComplete(test.succeeding(many -> test.verify(() -> {
+      assertEquals(4.0, dispatcher.getLimit());
+      test.completeNow();
+    })));
+  }
+
+  @Test
+  void capsRequestsInFlight(Vertx vertx, VertxTestContext test) {
+    Dispatcher dispatcher = dispatcher(vertx, new JsonObject()
+        .put("minConcurrency", 1).put("maxConcurrency", 1));
+    Promise<Void> first = Promise.promise();
+    Promise<Void> second = Promise.promise();
+
+    dispatcher.submit(first::future);
+    Future<Void> queued = dispatcher.submit(second::future);
+    vertx.setTimer(50, wait -> {
+      test.verify(() -> {
+        assertEquals(1, dispatcher.getInFlight());
+        assertEquals(1, dispatcher.getQueued());
+        assertTrue(!queued.isComplete());
+      });
+      first.complete();
+      second.complete();
+      queued.onComplete(test.succeeding(done -> test.verify(() -> {
+        assertEquals(0, dispatcher.getQueued());
+        test.completeNow();
+      })));
+    });
+  }
+
+  @Test
+  void shedsWhenQueueIsFull(Vertx vertx, VertxTestContext test) {
+    Dispatcher dispatcher = dispatcher(vertx, new JsonObject()
+        .put("minConcurrency", 1).put("maxConcurrency", 1).put("maxQueue", 2));
+    Promise<Void> blocked = Promise.promise();
+
+    // Submitted on one context, so nothing leaves the queue before all are submitted
+    vertx.runOnContext(submit -> {
+      dispatcher.submit(blocked::future);
+      dispatcher.submit(blocked::future);
+      dispatcher.submit(blocked::future).onComplete(test.failing(fail -> test.verify(() -> {
+        assertTrue(fail instanceof RejectedExecutionException);
+        assertEquals(2, dispatcher.getQueued());
+        blocked.complete();
+        test.completeNow();
+      })));
+    });
+  }
+}
@@ -0,0 +1,92 @@
+package io.arsha.api.market;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+class ResultTokenizerTest {
+
+  @Test
+  void readsRecordsAndFields() {
+    ResultTokenizer tokens = new ResultTokenizer("10007-0-20|10008-1-21|");
+
+    assertTrue(tokens.nextRecord());
+    assertEquals(10007L, tokens.nextLong());
+    assertEquals(0, tokens.nextInt());
+    assertEquals(20, tokens.nextInt());
+    assertFalse(tokens.hasField());
+
+    assertTrue(tokens.nextRecord());
+    assertEquals(10008L, tokens.nextLong());
+    assertEquals(1, tokens.nextInt());
+    assertEquals(21, tokens.nextInt());
+
+    assertFalse(tokens.nextRecord());
+  }
+
+  @Test
+  void skipsEmptyRecordsAndUnreadFields() {
+    ResultTokenizer tokens = new ResultTokenizer("||1-2-3||4-5|");
+
+    assertTrue(tokens.nextRecord());
+    tokens.skip();
+    assertEquals(2L, tokens.nextLong());
+
+    assertTrue(tokens.nextRecord());
+    assertEquals(4L, tokens.nextLong());
+    assertFalse(tokens.nextRecord());
+  }
+
+  @Test
+  void resetsForReuse() {
+    ResultTokenizer tokens = new ResultTokenizer("1-2");
+    assertTrue(tokens.nextRecord());
+    assertEquals(1L, tokens.nextLong());
+
+    tokens.reset("9");
+    assertTrue(tokens.nextRecord());
+    assertEquals(9L, tokens.nextLong());
+
+    tokens.reset(null);
+    assertFalse(tokens.nextRecord());
+  }
+
+  @Test
+  void detectsEmptyMessages() {
+    assertTrue(ResultTokenizer.isEmpty(null));
+    assertTrue(ResultTokenizer.isEmpty(""));
+    assertTrue(ResultTokenizer.isEmpty("0"));
+    assertFalse(ResultTokenizer.isEmpty("0-1"));
+  }
+
+  @Test
+  void rejectsMalformedFields() {
+    ResultTokenizer tokens = new ResultTokenizer("1-x-99999999999-");
+    assertTrue(tokens.nextRecord());
+    assertEquals(1L, tokens.nextLong());
+    assertThrows(NumberFormatException.class, tokens::nextLong);
+
+    tokens.reset("99999999999-");
+    tokens.nextRecord();
+    assertThrows(NumberFormatException.class, tokens::nextInt);
+
+    tokens.reset("99999999999999999999");
+    tokens.nextRecord();
+    assertThrows(NumberFormatException.class, tokens::nextLong);
+
+    tokens.reset("1-");
+    tokens.nextRecord();
+    tokens.nextLong();
+    assertThrows(NumberFormatException.class, tokens::nextLong);
+
+    tokens.reset("1");
+    tokens.nextRecord();
+    tokens.nextLong();
+    assertThrows(NoSuchElementException.class, tokens::nextLong);
+  }
+}
@@ -0,0 +1,65 @@
+package io.arsha.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.arsha.api.cache.Segment;
+import io.vertx.core.buffer.Buffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+class GzipTest {
+
+  static String gunzip(Buffer gzip) throws IOException {
+    try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(gzip.getBytes()))) {
+      return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  void compressesSingleSegment() throws IOException {
+    Segment segment = Segment.of(Buffer.buffer("{\"id\":11653}"));
+
+    assertEquals("{\"id\":11653}", gunzip(Gzip.gzip(Collections.singletonList(segment))));
+  }
+
+  @Test
+  void stitchesSegmentsInAnyOrder() throws IOException {
+    Segment a = Segment.of(Buffer.buffer("{\"a\":1}"));
+    Segment b = Segment.of(Buffer.buffer("{\"b\":\"ü\"}"));
+    List<Segment> segments = Arrays.asList(Segment.OPEN, b, Segment.SEPARATOR, a, Segment.CLOSE);
+
+    assertEquals("[{\"b\":\"ü\"},{\"a\":1}]", gunzip(Gzip.gzip(segments)));
+    assertEquals("[{\"b\":\"ü\"},{\"a\":1}]", Gzip.plain(segments).toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void stitchesLargeSegments() throws IOException {
+    // Larger than the deflate chunk, so a segment spans several chunks
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      large.append(i).append(',');
+    }
+    List<Segment> segments = new ArrayList<>();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 3; i++) {
+      segments.add(Segment.of(Buffer.buffer(large.toString())));
+      expected.append(large);
+    }
+
+    assertEquals(expected.toString(), gunzip(Gzip.gzip(segments)));
+  }
+
+  @Test
+  void compressesNothing() throws IOException {
+    assertEquals("", gunzip(Gzip.gzip(Collections.emptyList())));
+  }
+}
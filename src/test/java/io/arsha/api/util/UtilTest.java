@@ -0,0 +1,78 @@
+package io.arsha.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.arsha.api.market.items.Item;
+import io.vertx.core.json.JsonObject;
+
+import org.junit.jupiter.api.Test;
+
+class UtilTest {
+  private static final String RECORDS =
+      "11653-0-0-1000-5-200-900-1100-1000-1600000000|"
+      + "11653-1-1-2000-6-300-1900-2100-2000-1600000001|"
+      + "11653-2-2-3000-7-400-2900-3100-3000-1600000002|";
+
+  private static JsonObject response(String resultMsg) {
+    return new JsonObject().put("resultCode", 0).put("resultMsg", resultMsg);
+  }
+
+  @Test
+  void selectsItemBySid() {
+    Item item = Util.selectItemBySid(response(RECORDS), 1);
+
+    assertEquals(11653L, item.getId());
+    assertEquals(1L, item.getSid());
+    assertEquals(2000L, item.getBasePrice());
+    assertEquals(6L, item.getCurrentStock());
+    assertEquals(1600000001L, item.getLastSoldTime());
+  }
+
+  @Test
+  void selectsLastItemBySid() {
+    assertEquals(3000L, Util.selectItemBySid(response(RECORDS), 2).getBasePrice());
+  }
+
+  @Test
+  void returnsNullForUnknownSid() {
+    assertNull(Util.selectItemBySid(response(RECORDS), 5));
+  }
+
+  @Test
+  void returnsSingleItemWhateverItsSid() {
+    Item item = Util.selectItemBySid(response("11653-0-0-1000-5-200-900-1100-1000-1600000000|"), 3);
+
+    assertEquals(1000L, item.getBasePrice());
+  }
+
+  @Test
+  void returnsNullForEmptyResponse() {
+    assertNull(Util.selectItemBySid(response("0"), 0));
+    assertNull(Util.selectItemBySid(response(""), 0));
+  }
+
+  @Test
+  void acceptsGzip() {
+    assertTrue(Util.acceptsGzip("gzip"));
+    assertTrue(Util.acceptsGzip("deflate, gzip;q=0.5"));
+    assertTrue(Util.acceptsGzip("*"));
+    assertFalse(Util.acceptsGzip(null));
+    assertFalse(Util.acceptsGzip("deflate, br"));
+  }
+
+  @Test
+  void explicitGzipDecidesOverWildcard() {
+    assertTrue(Util.acceptsGzip("*;q=0, gzip"));
+    assertFalse(Util.acceptsGzip("gzip;q=0, *"));
+  }
+
+  @Test
+  void refusesGzipWithZeroQuality() {
+    assertFalse(Util.acceptsGzip("gzip;q=0"));
+    assertFalse(Util.acceptsGzip("gzip; q=0.000"));
+    assertFalse(Util.acceptsGzip("*;q=0"));
+  }
+}
@@ -0,0 +1,74 @@
+package io.arsha.api.util.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.arsha.api.market.ResultTokenizer;
+import io.arsha.api.market.items.Item;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class JsonWriterTest {
+
+  private static String written(String value) {
+    Buffer out = Buffer.buffer();
+    JsonWriter.writeString(out, value);
+    return out.toString();
+  }
+
+  // Decode with Jackson to check the written string means the same
+  private static Object decoded(String value) {
+    Buffer out = Buffer.buffer().appendByte((byte) '[');
+    JsonWriter.writeString(out, value);
+    return new JsonArray(out.appendByte((byte) ']')).getValue(0);
+  }
+
+  @Test
+  void escapesQuotesAndBackslashes() {
+    assertEquals("\"a\\\"b\\\\c\"", written("a\"b\\c"));
+  }
+
+  @Test
+  void escapesControlCharacters() {
+    assertEquals("\"\\b\\t\\n\\f\\r\\u0000\\u001F\"", written("\b\t\n\f\r\u0000\u001f"));
+  }
+
+  @Test
+  void writesNull() {
+    assertEquals("null", written(null));
+  }
+
+  @Test
+  void roundTripsUnicode() {
+    List<String> values = Arrays.asList(
+        "", "plain", "Üppig Ärger", "검은사막", "emoji \ud83d\ude00", "\u007f\u0080\u07ff\u0800\uffff",
+        "quote \" slash / backslash \\ tab \t");
+    for (String value : values) {
+      assertEquals(value, decoded(value));
+    }
+  }
+
+  @Test
+  void writesLongs() {
+    for (long value : new long[] {0, 7, -7, 10, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+      Buffer out = Buffer.buffer();
+      JsonWriter.writeLong(out, value);
+      assertEquals(String.valueOf(value), out.toString());
+    }
+  }
+
+  @Test
+  void matchesJacksonEncoding() {
+    ResultTokenizer tokens = new ResultTokenizer("11653-0-5-1000-5-200-900-1100-1000-1600000000");
+    tokens.nextRecord();
+    Item item = new Item(tokens);
+    item.setName("+5 \"Kzarka\" Longsword");
+    item.setIcon(null);
+
+    assertEquals(new JsonArray().add(item.toJson()), new JsonArray(JsonWriter.array(List.of(item))));
+  }
+}